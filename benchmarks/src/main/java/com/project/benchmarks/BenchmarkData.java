@@ -0,0 +1,54 @@
+package com.project.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.project.dao.ProjektDAO;
+import com.project.model.Projekt;
+
+/**
+ * Wypełnia tabelę projekt danymi do benchmarków.
+ */
+final class BenchmarkData {
+    private static final int BATCH = 10_000;
+    /**
+     * Czas utworzenia pierwszego projektu - kolejne są tworzone co sekundę.
+     */
+    static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Dodaje projekty, aż tabela będzie zawierała co najmniej podaną liczbę wierszy.
+     * Dane są deterministyczne (stałe ziarno), więc kolejne uruchomienia są porównywalne.
+     */
+    static void fill(ProjektDAO projektDAO, int rows) {
+        int existing = projektDAO.getRowsNumber();
+        SplittableRandom random = new SplittableRandom(42);
+        List<Projekt> batch = new ArrayList<>(BATCH);
+        for (int i = existing; i < rows; i++) {
+            Projekt projekt = new Projekt(nazwa(i), "Opis projektu " + i + " " + random.nextInt(),
+                    LocalDate.of(2025, 1, 1).plusDays(random.nextInt(730)));
+            projekt.setDataCzasUtworzenia(START.plusSeconds(i));
+            batch.add(projekt);
+            if (batch.size() == BATCH) {
+                projektDAO.setProjekty(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            projektDAO.setProjekty(batch);
+        }
+    }
+
+    /**
+     * @return nazwa i-tego projektu (numerowanego od 0)
+     */
+    static String nazwa(int i) {
+        return "Projekt " + i;
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.project.dao.ProjektDAO;
+import com.project.dao.ZadanieDAOImpl;
+import com.project.datasource.DataSource;
+import com.project.model.Projekt;
+
+/**
+ * Generuje projekty i zadania o rozkładach zbliżonych do rzeczywistych danych:
+ * nazwy składane ze słów o nierównej popularności (część nazw się powtarza, część fraz jest rzadka),
+ * daty utworzenia z ostatnich lat z przewagą niedawnych, terminy oddania od tygodnia do dwóch lat
+ * po utworzeniu (najczęściej po kilku tygodniach) oraz opisy różnej długości.
+ * Dane są zapisywane partiami - projekty przez ProjektDAO.setProjekty, zadania wsadowym INSERT.
+ * Przy tym samym ziarnie dane są takie same.
+ */
+final class DataGenerator {
+    private static final int BATCH = 5_000;
+    private static final String INSERT_ZADANIE_QUERY =
+            "INSERT INTO zadanie(nazwa, opis, kolejnosc, dataczas_utworzenia, projekt_id) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String[] PRZYMIOTNIKI = {"Nowy", "Wewnętrzny", "Mobilny", "Centralny", "Zintegrowany",
+            "Automatyczny", "Regionalny", "Pilotażowy", "Roczny", "Rozproszony", "Bezpieczny", "Uproszczony"};
+    private static final String[] RZECZOWNIKI = {"system", "portal", "moduł", "raport", "serwis", "panel",
+            "katalog", "rejestr", "kalkulator", "harmonogram", "magazyn", "konwerter", "monitor", "asystent"};
+    private static final String[] OBSZARY = {"sprzedaży", "magazynu", "kadr", "płatności", "zamówień", "klientów",
+            "faktur", "logistyki", "serwisu", "marketingu", "rekrutacji", "szkoleń", "umów", "reklamacji",
+            "dostaw", "budżetu", "projektów", "zgłoszeń", "urlopów", "floty"};
+    private static final String[] ZADANIA = {"Analiza wymagań", "Projekt bazy danych", "Makiety ekranów",
+            "Implementacja", "Przegląd kodu", "Testy jednostkowe", "Testy akceptacyjne", "Dokumentacja",
+            "Migracja danych", "Wdrożenie", "Szkolenie użytkowników", "Poprawki po testach"};
+    private static final String[] SLOWA_OPISU = {"klient", "wymaga", "integracji", "z", "istniejącym", "systemem",
+            "oraz", "raportowania", "w", "czasie", "rzeczywistym", "dane", "są", "importowane", "z", "plików",
+            "CSV", "i", "weryfikowane", "przed", "zapisem", "termin", "uzgodniony", "z", "działem", "biznesowym"};
+
+    private final SplittableRandom random;
+    private final LocalDateTime now;
+
+    DataGenerator(long seed, LocalDateTime now) {
+        this.random = new SplittableRandom(seed);
+        this.now = now;
+    }
+
+    /**
+     * Dodaje projekty z zadaniami.
+     *
+     * @param projekty           - liczba projektów
+     * @param maxZadanNaProjekt  - największa liczba zadań projektu (średnio około połowy)
+     * @return ID dodanych projektów
+     */
+    List<Integer> generate(ProjektDAO projektDAO, int projekty, int maxZadanNaProjekt) throws SQLException {
+        List<Integer> ids = new ArrayList<>(projekty);
+        List<Projekt> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < projekty; i++) {
+            batch.add(nextProjekt());
+            if (batch.size() == BATCH || i == projekty - 1) {
+                projektDAO.setProjekty(batch);
+                insertZadania(batch, maxZadanNaProjekt);
+                batch.forEach(projekt -> ids.add(projekt.getProjektId()));
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    Projekt nextProjekt() {
+        LocalDateTime utworzony = nextDataCzasUtworzenia();
+        Projekt projekt = new Projekt(nextNazwa(), nextOpis(20, 600), nextDataOddania(utworzony));
+        projekt.setDataCzasUtworzenia(utworzony);
+        return projekt;
+    }
+
+    /**
+     * @return nazwa, np. "Mobilny portal zamówień" - popularniejsze słowa występują częściej,
+     * a co piąta nazwa ma dodatkowo rok
+     */
+    String nextNazwa() {
+        String nazwa = skewed(PRZYMIOTNIKI) + " " + skewed(RZECZOWNIKI) + " " + skewed(OBSZARY);
+        return random.nextInt(5) == 0 ? nazwa + " " + (now.getYear() - random.nextInt(4)) : nazwa;
+    }
+
+    /**
+     * @return słowo, którego można szukać w nazwach (LIKE) - z tym samym rozkładem co w nazwach
+     */
+    String nextSzukaneSlowo() {
+        return switch (random.nextInt(3)) {
+            case 0 -> skewed(RZECZOWNIKI);
+            case 1 -> skewed(OBSZARY);
+            default -> skewed(RZECZOWNIKI) + " " + skewed(OBSZARY);
+        };
+    }
+
+    /**
+     * @return termin oddania z zakresu generowanych terminów
+     */
+    LocalDate nextSzukanaDataOddania() {
+        return nextDataOddania(nextDataCzasUtworzenia());
+    }
+
+    private LocalDateTime nextDataCzasUtworzenia() {
+        //Kwadrat rozkładu jednostajnego - więcej projektów utworzonych niedawno (do 3 lat wstecz)
+        double u = random.nextDouble();
+        long sekundy = (long) (u * u * 3 * 365 * 24 * 3600);
+        return now.minusSeconds(sekundy).withNano(0);
+    }
+
+    private LocalDate nextDataOddania(LocalDateTime utworzony) {
+        //Rozkład logarytmicznie normalny - mediana około 6 tygodni, od tygodnia do dwóch lat
+        double dni = 42 * Math.exp(0.8 * random.nextGaussian());
+        return utworzony.toLocalDate().plusDays(Math.max(7, Math.min(730, Math.round(dni))));
+    }
+
+    private String nextOpis(int minDlugosc, int maxDlugosc) {
+        int dlugosc = minDlugosc + (int) ((maxDlugosc - minDlugosc) * Math.pow(random.nextDouble(), 2));
+        StringBuilder sb = new StringBuilder(dlugosc + 16);
+        while (sb.length() < dlugosc) {
+            if (!sb.isEmpty()) {
+                sb.append(' ');
+            }
+            sb.append(SLOWA_OPISU[random.nextInt(SLOWA_OPISU.length)]);
+        }
+        return sb.toString();
+    }
+
+    private void insertZadania(List<Projekt> projekty, int maxZadanNaProjekt) throws SQLException {
+        if (maxZadanNaProjekt <= 0) {
+            return;
+        }
+        try (Connection connect = DataSource.getConnection();
+             PreparedStatement preparedStmt = connect.prepareStatement(INSERT_ZADANIE_QUERY)) {
+            connect.setAutoCommit(false);
+            try {
+                for (Projekt projekt : projekty) {
+                    int zadan = random.nextInt(maxZadanNaProjekt + 1);
+                    LocalDateTime utworzone = projekt.getDataCzasUtworzenia();
+                    for (int k = 0; k < zadan; k++) {
+                        preparedStmt.setString(1, ZADANIA[k % ZADANIA.length]);
+                        preparedStmt.setString(2, nextOpis(0, 200));
+                        preparedStmt.setInt(3, (k + 1) * ZadanieDAOImpl.KOLEJNOSC_GAP);
+                        utworzone = utworzone.plusMinutes(random.nextInt(60 * 24));
+                        preparedStmt.setObject(4, utworzone);
+                        preparedStmt.setInt(5, projekt.getProjektId());
+                        preparedStmt.addBatch();
+                    }
+                }
+                preparedStmt.executeBatch();
+                connect.commit();
+            } catch (SQLException e) {
+                connect.rollback();
+                throw e;
+            } finally {
+                connect.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Wybiera element tablicy z rozkładem zbliżonym do Zipfa - pierwsze elementy są najczęstsze.
+     */
+    private String skewed(String[] values) {
+        double u = random.nextDouble();
+        return values[(int) (values.length * u * u * u)];
+    }
+}
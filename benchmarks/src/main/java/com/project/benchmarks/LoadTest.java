@@ -0,0 +1,284 @@
+package com.project.benchmarks;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.project.dao.ProjektDAO;
+import com.project.dao.ProjektDAOImpl;
+import com.project.dao.ProjektFilter;
+import com.project.datasource.DataSource;
+import com.project.datasource.DataSourceConfig;
+import com.project.datasource.DbInitializer;
+import com.project.datasource.LatencyHistogram;
+import com.project.datasource.PoolMetrics;
+import com.project.model.Projekt;
+
+/**
+ * Test obciążeniowy ProjektDAOImpl - wypełnia bazę danymi z DataGenerator, a następnie przez
+ * określony czas wykonuje z workers wątków mieszankę operacji wybieranych losowo według wag.
+ * Dla każdej operacji wypisuje przepustowość i percentyle czasu wykonania, a dla puli połączeń
+ * czas oczekiwania na połączenie - pozwala to sprawdzić zachowanie przy wielu równoczesnych
+ * użytkownikach, którego nie pokazują jednowątkowe benchmarki JMH.
+ * Parametry w postaci klucz=wartość (domyślne w DEFAULTS), np.:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.project.benchmarks.LoadTest projects=100000 workers=16
+ *      duration=60 mix=page:40,search:20,date:15,edit:15,delete:5,insert:5
+ * </pre>
+ * Bazę i pulę wybiera się właściwościami systemowymi DataSourceConfig (np. -Ddb.url=..., -Ddb.pool.maxSize=8).
+ * Bez -Ddb.url używana jest baza w pamięci.
+ * Pierwsze logErrors wyjątków operacji jest wypisywanych ze stosem wywołań, a test kończy się błędem,
+ * jeśli odsetek nieudanych operacji w czasie pomiaru przekroczy maxErrorRate (np. 0.01 - 1%).
+ */
+public final class LoadTest {
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "projects", "100000",
+            "tasks", "10",
+            "workers", "8",
+            "duration", "30",
+            "warmup", "10",
+            "pageSize", "20",
+            "seed", "42",
+            "logErrors", "10",
+            "maxErrorRate", "0.01",
+            "mix", "page:40,search:20,date:15,edit:15,delete:5,insert:5");
+
+    private enum Operation {
+        PAGE, SEARCH, DATE, EDIT, DELETE, INSERT
+    }
+
+    private final ProjektDAO projektDAO;
+    private final DataGenerator generator;
+    private final List<Integer> ids;
+    private final int pageSize;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<Operation, LongAdder> errors = new HashMap<>();
+    private final int logErrors;
+    private final AtomicInteger loggedErrors = new AtomicInteger();
+
+    private LoadTest(ProjektDAO projektDAO, DataGenerator generator, List<Integer> ids, int pageSize,
+                     Map<Operation, Integer> mix, int logErrors) {
+        this.projektDAO = projektDAO;
+        this.logErrors = logErrors;
+        this.generator = generator;
+        this.ids = ids;
+        this.pageSize = pageSize;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += mix.get(operations[i]);
+            cumulativeWeights[i] = sum;
+            latencies.put(operations[i], new LatencyHistogram());
+            errors.put(operations[i], new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws SQLException, InterruptedException {
+        Map<String, String> params = parse(args);
+        if (System.getProperty(DataSourceConfig.URL) == null) {
+            System.setProperty(DataSourceConfig.URL, "jdbc:hsqldb:mem:loadtest;sql.syntax_pgs=true");
+        }
+        DbInitializer.init();
+        ProjektDAO projektDAO = new ProjektDAOImpl();
+
+        DataGenerator generator = new DataGenerator(Long.parseLong(params.get("seed")), LocalDateTime.now());
+        long start = System.nanoTime();
+        List<Integer> ids = generator.generate(projektDAO, Integer.parseInt(params.get("projects")),
+                Integer.parseInt(params.get("tasks")));
+        System.out.printf("Dodano %d projektów w %d ms%n", ids.size(), (System.nanoTime() - start) / 1_000_000);
+
+        LoadTest test = new LoadTest(projektDAO, generator, ids, Integer.parseInt(params.get("pageSize")),
+                parseMix(params.get("mix")), Integer.parseInt(params.get("logErrors")));
+        double errorRate = test.run(Integer.parseInt(params.get("workers")),
+                Duration.ofSeconds(Long.parseLong(params.get("warmup"))),
+                Duration.ofSeconds(Long.parseLong(params.get("duration"))));
+        double maxErrorRate = Double.parseDouble(params.get("maxErrorRate"));
+        if (errorRate > maxErrorRate) {
+            throw new IllegalStateException(String.format(Locale.ROOT,
+                    "Odsetek nieudanych operacji %.4f przekracza maxErrorRate=%s", errorRate, maxErrorRate));
+        }
+    }
+
+    /**
+     * @return odsetek nieudanych operacji w czasie pomiaru
+     */
+    private double run(int workers, Duration warmup, Duration duration) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(workers);
+        List<Thread> threads = new ArrayList<>(workers);
+        long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        for (int i = 0; i < workers; i++) {
+            threads.add(Thread.ofPlatform().name("load-" + i).start(() -> {
+                started.countDown();
+                while (System.nanoTime() < end) {
+                    execute(nextOperation());
+                }
+            }));
+        }
+        started.await();
+        System.out.printf("Rozgrzewka %d s, pomiar %d s, wątków %d%n", warmup.toSeconds(), duration.toSeconds(),
+                workers);
+        Thread.sleep(warmup.toMillis());
+        //Pomiary z rozgrzewki (kompilacja JIT, puste bufory) nie są wliczane
+        latencies.values().forEach(LatencyHistogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        PoolMetrics pool = DataSource.getMetrics();
+        pool.getAcquireTime().reset();
+        long measureStart = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return report((System.nanoTime() - measureStart) / 1e9, pool);
+    }
+
+    private Operation nextOperation() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private void execute(Operation operation) {
+        long start = System.nanoTime();
+        try {
+            switch (operation) {
+                case PAGE -> projektDAO.getProjektyPage(ProjektFilter.all(), randomOffset(), pageSize);
+                case SEARCH -> projektDAO.getProjektyPage(ProjektFilter.nazwaLike(nextSzukaneSlowo()), 0, pageSize);
+                case DATE -> projektDAO.getProjektyPage(ProjektFilter.dataOddaniaIs(nextSzukanaDataOddania()), 0,
+                        pageSize);
+                case EDIT -> {
+                    Projekt projekt = projektDAO.getProjekt(randomId());
+                    if (projekt != null) {
+                        projekt.setOpis("Opis zmieniony " + LocalDateTime.now());
+                        projektDAO.setProjekt(projekt);
+                    }
+                }
+                case DELETE -> projektDAO.deleteProjekt(randomId());
+                case INSERT -> projektDAO.setProjekt(nextProjekt());
+            }
+        } catch (RuntimeException e) {
+            errors.get(operation).increment();
+            if (loggedErrors.getAndIncrement() < logErrors) {
+                //Stosy wywołań z różnych wątków nie mogą się przeplatać
+                synchronized (System.err) {
+                    System.err.println("Błąd operacji " + operation.name().toLowerCase() + ":");
+                    e.printStackTrace();
+                }
+            }
+        }
+        latencies.get(operation).record(System.nanoTime() - start);
+    }
+
+    /**
+     * @return przesunięcie strony - większość użytkowników przegląda pierwsze strony
+     */
+    private int randomOffset() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        return (int) (u * u * u * ids.size()) / pageSize * pageSize;
+    }
+
+    private int randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    //DataGenerator nie jest bezpieczny wielowątkowo
+
+    private String nextSzukaneSlowo() {
+        synchronized (generator) {
+            return generator.nextSzukaneSlowo();
+        }
+    }
+
+    private LocalDate nextSzukanaDataOddania() {
+        synchronized (generator) {
+            return generator.nextSzukanaDataOddania();
+        }
+    }
+
+    private Projekt nextProjekt() {
+        synchronized (generator) {
+            return generator.nextProjekt();
+        }
+    }
+
+    /**
+     * @return odsetek nieudanych operacji
+     */
+    private double report(double seconds, PoolMetrics pool) {
+        System.out.printf("%-8s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n", "operacja", "liczba", "błędy", "ops/s",
+                "śr. ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Map.Entry<Operation, LatencyHistogram> entry : latencies.entrySet()) {
+            long operationErrors = errors.get(entry.getKey()).sum();
+            printRow(entry.getKey().name().toLowerCase(), entry.getValue(), operationErrors, seconds);
+            all.add(entry.getValue());
+            allErrors += operationErrors;
+        }
+        printRow("razem", all, allErrors, seconds);
+        LatencyHistogram acquire = pool.getAcquireTime();
+        System.out.printf("Pula %s (maks. %d połączeń): oczekiwanie na połączenie p50=%.3f ms, p99=%.3f ms, "
+                        + "max=%.3f ms, przekroczenia connectionTimeout: %d%n",
+                pool.getPoolName(), pool.getMaximumPoolSize(), acquire.getValueAtPercentile(50) / 1e6,
+                acquire.getValueAtPercentile(99) / 1e6, acquire.getMax() / 1e6, pool.getTimeouts());
+        if (loggedErrors.get() > logErrors) {
+            System.out.printf("Wypisano stos wywołań %d z %d błędów, łącznie z rozgrzewką (parametr logErrors)%n", logErrors,
+                    loggedErrors.get());
+        }
+        return all.getCount() == 0 ? 0 : (double) allErrors / all.getCount();
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long errors, double seconds) {
+        System.out.printf("%-8s %10d %8d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n", name, histogram.getCount(),
+                errors, histogram.getCount() / seconds, histogram.getMean() / 1e6,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(90) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6, histogram.getValueAtPercentile(99.9) / 1e6,
+                histogram.getMax() / 1e6);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> params = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("Nieznany parametr: " + arg + ", dostępne: " + DEFAULTS.keySet());
+            }
+            params.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return params;
+    }
+
+    /**
+     * @param mix - wagi operacji, np. page:40,search:20
+     */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(kv[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Brak operacji w mix: " + mix);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,172 @@
+package com.project.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.dao.ProjektDAOImpl;
+import com.project.datasource.DataSource;
+import com.project.datasource.DataSourceConfig;
+import com.project.datasource.DbInitializer;
+import com.project.model.Projekt;
+
+/**
+ * Czasy podstawowych operacji ProjektDAOImpl na bazie w pamięci (mem) i w plikach (file)
+ * zawierającej rows projektów, dla różnych rozmiarów puli połączeń i stron.
+ * Każda kombinacja parametrów działa w osobnym procesie (DataSource jest konfigurowany raz na proces).
+ * Bazy w plikach są zachowywane w target/benchmark-db, więc wypełniane są tylko za pierwszym razem;
+ * projekty dodane przez setProjektInsert są usuwane po każdej iteracji.
+ * Rozmiar puli ma znaczenie przy wielu wątkach - np. opcja JMH -t 4.
+ * Wyniki do porównania z poprzednim pomiarem: -rf json -rff wyniki.json
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ProjektDAOBenchmark {
+    private static final String DELETE_INSERTED = "DELETE FROM projekt WHERE projekt_id > ?";
+    private static final String SELECT_MAX_ID = "SELECT MAX(projekt_id) FROM projekt";
+    private static final LocalDate FIRST_DATA_ODDANIA = LocalDate.of(2025, 1, 1);
+
+    @Param({"mem", "file"})
+    public String storage;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"1", "4"})
+    public int poolSize;
+
+    @Param({"10", "100"})
+    public int pageSize;
+
+    private ProjektDAOImpl projektDAO;
+    private int maxSeededId;
+
+    @Setup
+    public void setUp() throws SQLException {
+        //Właściwości muszą być ustawione przed pierwszym użyciem DataSource w tym procesie
+        String url = storage.equals("file")
+                ? "jdbc:hsqldb:file:target/benchmark-db/projekty-" + rows + ";sql.syntax_pgs=true"
+                : "jdbc:hsqldb:mem:projekty;sql.syntax_pgs=true";
+        System.setProperty(DataSourceConfig.URL, url);
+        System.setProperty(DataSourceConfig.POOL_MAX_SIZE, String.valueOf(poolSize));
+        DbInitializer.init();
+        projektDAO = new ProjektDAOImpl();
+        BenchmarkData.fill(projektDAO, rows);
+        maxSeededId = maxProjektId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() throws SQLException {
+        try (Connection connect = DataSource.getConnection();
+             PreparedStatement preparedStmt = connect.prepareStatement(DELETE_INSERTED)) {
+            preparedStmt.setInt(1, maxSeededId);
+            preparedStmt.executeUpdate();
+        }
+    }
+
+    @TearDown
+    public void shutdown() throws SQLException {
+        //Zamknięta baza w plikach otwiera się w następnym procesie bez odtwarzania dziennika
+        try (Connection connect = DataSource.getConnection();
+             Statement stmt = connect.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+    }
+
+    @Benchmark
+    public Projekt getProjekt() {
+        return projektDAO.getProjekt(randomId());
+    }
+
+    @Benchmark
+    public List<Projekt> getProjektyShallow() {
+        return projektDAO.getProjekty(0, pageSize);
+    }
+
+    @Benchmark
+    public List<Projekt> getProjektyDeep() {
+        return projektDAO.getProjekty(rows - rows / 10, pageSize);
+    }
+
+    @Benchmark
+    public List<Projekt> getProjektyWhereNazwaLike() {
+        return projektDAO.getProjektyWhereNazwaLike(randomNazwaFragment(), 0, pageSize);
+    }
+
+    @Benchmark
+    public int getRowsNumber() {
+        return projektDAO.getRowsNumber();
+    }
+
+    @Benchmark
+    public int getRowsNumberWhereNazwaLike() {
+        return projektDAO.getRowsNumberWhereNazwaLike(randomNazwaFragment());
+    }
+
+    @Benchmark
+    public int getRowsNumberWhereDataOddaniaIs() {
+        return projektDAO.getRowsNumberWhereDataOddaniaIs(
+                FIRST_DATA_ODDANIA.plusDays(ThreadLocalRandom.current().nextInt(730)));
+    }
+
+    @Benchmark
+    public Projekt setProjektInsert() {
+        Projekt projekt = new Projekt("Nowy projekt", "Opis nowego projektu", FIRST_DATA_ODDANIA);
+        projektDAO.setProjekt(projekt);
+        return projekt;
+    }
+
+    @Benchmark
+    public Projekt setProjektUpdate() {
+        int id = randomId();
+        //Nazwa i czas utworzenia bez zmian - kolejność projektów w bazie w plikach pozostaje taka sama
+        Projekt projekt = new Projekt(id, BenchmarkData.nazwa(id - 1), "Opis zmieniony " + System.nanoTime(),
+                BenchmarkData.START.plusSeconds(id - 1), FIRST_DATA_ODDANIA);
+        projektDAO.setProjekt(projekt);
+        return projekt;
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(maxSeededId) + 1;
+    }
+
+    /**
+     * @return fragment nazwy pasujący do około 1/900 projektów (np. "Projekt 123" pasuje do 1230-1239, 12300-12399...)
+     */
+    private String randomNazwaFragment() {
+        return BenchmarkData.nazwa(ThreadLocalRandom.current().nextInt(900) + 100);
+    }
+
+    private int maxProjektId() throws SQLException {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = connect.prepareStatement(SELECT_MAX_ID);
+             ResultSet rs = preparedStmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
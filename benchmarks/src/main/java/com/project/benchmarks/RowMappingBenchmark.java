@@ -0,0 +1,104 @@
+package com.project.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.project.dao.ProjektDAOImpl;
+import com.project.dao.ProjektRowMapper;
+import com.project.datasource.DataSource;
+import com.project.datasource.DataSourceConfig;
+import com.project.datasource.DbInitializer;
+import com.project.model.Projekt;
+
+/**
+ * Porównuje odczyt całej tabeli projekt (domyślnie 1 mln wierszy) przy mapowaniu wierszy
+ * po nazwach kolumn z SELECT * (sposób sprzed ProjektRowMapper) oraz przez ProjektRowMapper
+ * z jawną listą kolumn i odczytem po indeksach.
+ * Licznik rows podaje liczbę odczytanych wierszy na sekundę.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+    private static final String SELECT_ALL = "SELECT * FROM projekt";
+    private static final String SELECT_COLUMNS = "SELECT " + ProjektRowMapper.COLUMNS + " FROM projekt";
+
+    @Param({"1000000"})
+    public int rows;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class RowCounter {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        //Właściwości muszą być ustawione przed pierwszym użyciem DataSource w tym procesie
+        System.setProperty(DataSourceConfig.URL, "jdbc:hsqldb:mem:rowmapping;sql.syntax_pgs=true");
+        System.setProperty(DataSourceConfig.POOL_MAX_SIZE, "1");
+        DbInitializer.init();
+        BenchmarkData.fill(new ProjektDAOImpl(), rows);
+    }
+
+    @Benchmark
+    public List<Projekt> byColumnName(RowCounter counter) throws SQLException {
+        List<Projekt> projekty = new ArrayList<>(rows);
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = connect.prepareStatement(SELECT_ALL);
+             ResultSet rs = preparedStmt.executeQuery()) {
+            while (rs.next()) {
+                Projekt projekt = new Projekt();
+                projekt.setProjektId(rs.getInt("projekt_id"));
+                projekt.setNazwa(rs.getString("nazwa"));
+                projekt.setOpis(rs.getString("opis"));
+                projekt.setDataCzasUtworzenia(rs.getObject("dataczas_utworzenia", LocalDateTime.class));
+                projekt.setDataOddania(rs.getObject("data_oddania", LocalDate.class));
+                projekty.add(projekt);
+            }
+        }
+        counter.rows += projekty.size();
+        return projekty;
+    }
+
+    @Benchmark
+    public List<Projekt> byColumnIndex(RowCounter counter) throws SQLException {
+        List<Projekt> projekty = new ArrayList<>(rows);
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = connect.prepareStatement(SELECT_COLUMNS);
+             ResultSet rs = preparedStmt.executeQuery()) {
+            ProjektRowMapper.INSTANCE.mapAll(rs, projekty);
+        }
+        counter.rows += projekty.size();
+        return projekty;
+    }
+}
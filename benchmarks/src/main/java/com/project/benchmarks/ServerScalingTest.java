@@ -0,0 +1,223 @@
+package com.project.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.project.dao.ProjektDAO;
+import com.project.dao.ProjektDAOImpl;
+import com.project.dao.ProjektFilter;
+import com.project.datasource.DataSource;
+import com.project.datasource.DataSourceConfig;
+import com.project.datasource.DbInitializer;
+import com.project.datasource.DbMode;
+import com.project.datasource.LatencyHistogram;
+
+/**
+ * Sprawdza, jak odczyty skalują się z liczbą procesów klienta korzystających z jednej bazy w trybie
+ * serwera. Proces testu uruchamia bazę w trybie db.mode=SERVER (pliki w katalogu dir), wypełnia ją
+ * danymi z DataGenerator, a następnie dla każdej liczby z clients uruchamia tyle osobnych procesów JVM,
+ * ile wynosi ta liczba. Każdy proces łączy się z serwerem w trybie db.mode=CLIENT - jak kolejna
+ * instancja ProjectClientApplication, ale bez interfejsu - i przez duration sekund wykonuje z workers
+ * wątków odczyty z mieszanki stron, wyszukiwania i filtrowania po dacie oddania przez ProjektDAOImpl.
+ * Dla każdej liczby procesów wypisywana jest łączna przepustowość, jej stosunek do przepustowości
+ * jednego procesu oraz percentyle czasu odczytu najwolniejszego procesu. Parametry w postaci
+ * klucz=wartość (domyślne w DEFAULTS), np.:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.project.benchmarks.ServerScalingTest projects=100000
+ *      clients=1,2,4,8 workers=4 duration=20
+ * </pre>
+ */
+public final class ServerScalingTest {
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "projects", "100000",
+            "clients", "1,2,4",
+            "workers", "4",
+            "duration", "20",
+            "warmup", "5",
+            "pageSize", "20",
+            "port", "9137",
+            "dir", "target/server-scaling-db",
+            "seed", "42");
+    /**
+     * Pierwszy argument procesu klienta - pozostałe to parametry testu.
+     */
+    private static final String CLIENT_ARG = "client";
+    private static final String RESULT_PREFIX = "WYNIK ";
+
+    private ServerScalingTest() {
+    }
+
+    public static void main(String[] args) throws SQLException, IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals(CLIENT_ARG)) {
+            runClient(parse(List.of(args).subList(1, args.length)));
+            return;
+        }
+        Map<String, String> params = parse(List.of(args));
+        System.setProperty(DataSourceConfig.MODE, DbMode.SERVER.name());
+        System.setProperty(DataSourceConfig.DIR, params.get("dir"));
+        System.setProperty(DataSourceConfig.SERVER_PORT, params.get("port"));
+        DbInitializer.init();
+        ProjektDAO projektDAO = new ProjektDAOImpl();
+        int projects = Integer.parseInt(params.get("projects"));
+        int existing = projektDAO.getRowsNumber();
+        if (existing < projects) {
+            long start = System.nanoTime();
+            new DataGenerator(Long.parseLong(params.get("seed")), LocalDateTime.now())
+                    .generate(projektDAO, projects - existing, 10);
+            System.out.printf("Dodano %d projektów w %d ms%n", projects - existing,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+
+        System.out.printf("%-8s %12s %10s %9s %9s %9s%n", "procesy", "odczyty/s", "skalowanie", "p50 ms",
+                "p99 ms", "max ms");
+        double singleThroughput = 0;
+        try {
+            for (String clients : params.get("clients").split(",")) {
+                List<String> results = runClients(Integer.parseInt(clients.trim()), params);
+                double throughput = 0;
+                double p50 = 0;
+                double p99 = 0;
+                double max = 0;
+                for (String result : results) {
+                    String[] values = result.split(" ");
+                    throughput += Double.parseDouble(values[0]);
+                    p50 = Math.max(p50, Double.parseDouble(values[1]));
+                    p99 = Math.max(p99, Double.parseDouble(values[2]));
+                    max = Math.max(max, Double.parseDouble(values[3]));
+                }
+                if (singleThroughput == 0) {
+                    singleThroughput = throughput / results.size();
+                }
+                System.out.printf("%-8d %12.1f %9.2fx %9.3f %9.3f %9.3f%n", results.size(), throughput,
+                        throughput / singleThroughput, p50, p99, max);
+            }
+        } finally {
+            DataSource.close();
+        }
+    }
+
+    /**
+     * Uruchamia procesy klienta z tą samą JVM i classpath co test i czeka na ich wyniki.
+     *
+     * @return wiersze wyników procesów: odczyty/s, p50, p99 i max w ms
+     */
+    private static List<String> runClients(int clients, Map<String, String> params)
+            throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<Process> processes = new ArrayList<>(clients);
+        List<Path> outputs = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                    "-D" + DataSourceConfig.MODE + "=" + DbMode.CLIENT.name(),
+                    "-D" + DataSourceConfig.SERVER_HOST + "=localhost",
+                    "-D" + DataSourceConfig.SERVER_PORT + "=" + params.get("port"),
+                    "-D" + DataSourceConfig.POOL_MAX_SIZE + "=" + params.get("workers"),
+                    ServerScalingTest.class.getName(), CLIENT_ARG));
+            params.forEach((key, value) -> command.add(key + "=" + value));
+            //Wyjście do pliku - proces klienta nie może czekać na odczyt potoku przez proces testu
+            Path output = Files.createTempFile("server-scaling-client-", ".log");
+            outputs.add(output);
+            processes.add(new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(output.toFile()).start());
+        }
+        List<String> results = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            int exitCode = processes.get(i).waitFor();
+            String result = Files.readAllLines(outputs.get(i), StandardCharsets.UTF_8).stream()
+                    .filter(line -> line.startsWith(RESULT_PREFIX))
+                    .map(line -> line.substring(RESULT_PREFIX.length()))
+                    .findFirst().orElse(null);
+            if (exitCode != 0 || result == null) {
+                throw new IllegalStateException("Proces klienta zakończył się kodem " + exitCode
+                        + " bez wyniku, wyjście procesu: " + outputs.get(i));
+            }
+            Files.delete(outputs.get(i));
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Proces klienta - wykonuje odczyty i wypisuje wiersz wyniku dla procesu testu.
+     */
+    private static void runClient(Map<String, String> params) throws InterruptedException {
+        ProjektDAO projektDAO = new ProjektDAOImpl();
+        int rows = projektDAO.getRowsNumber();
+        int pageSize = Integer.parseInt(params.get("pageSize"));
+        int workers = Integer.parseInt(params.get("workers"));
+        long warmupNanos = Long.parseLong(params.get("warmup")) * 1_000_000_000L;
+        long durationNanos = Long.parseLong(params.get("duration")) * 1_000_000_000L;
+        //Każdy proces wyszukuje inne słowa, ale z tym samym rozkładem popularności
+        DataGenerator generator = new DataGenerator(ProcessHandle.current().pid(), LocalDateTime.now());
+        LatencyHistogram latency = new LatencyHistogram();
+        CountDownLatch done = new CountDownLatch(workers);
+        long measureStart = System.nanoTime() + warmupNanos;
+        long end = measureStart + durationNanos;
+        for (int i = 0; i < workers; i++) {
+            Thread.ofPlatform().name("client-" + i).start(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        read(projektDAO, generator, rows, pageSize);
+                        if (now >= measureStart) {
+                            latency.record(System.nanoTime() - now);
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        DataSource.close();
+        //Kropka dziesiętna niezależnie od ustawień regionalnych - wynik odczytuje Double.parseDouble
+        System.out.printf(Locale.ROOT, RESULT_PREFIX + "%.1f %.3f %.3f %.3f%n", latency.getCount() / (durationNanos / 1e9),
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                latency.getMax() / 1e6);
+    }
+
+    private static void read(ProjektDAO projektDAO, DataGenerator generator, int rows, int pageSize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = random.nextInt(10);
+        if (operation < 5) {
+            //Większość użytkowników przegląda pierwsze strony
+            double u = random.nextDouble();
+            projektDAO.getProjektyPage(ProjektFilter.all(), (int) (u * u * u * rows) / pageSize * pageSize, pageSize);
+        } else if (operation < 8) {
+            String slowo;
+            synchronized (generator) {
+                slowo = generator.nextSzukaneSlowo();
+            }
+            projektDAO.getProjektyPage(ProjektFilter.nazwaLike(slowo), 0, pageSize);
+        } else {
+            LocalDate dataOddania;
+            synchronized (generator) {
+                dataOddania = generator.nextSzukanaDataOddania();
+            }
+            projektDAO.getProjektyPage(ProjektFilter.dataOddaniaIs(dataOddania), 0, pageSize);
+        }
+    }
+
+    private static Map<String, String> parse(List<String> args) {
+        Map<String, String> params = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0 || !DEFAULTS.containsKey(arg.substring(0, eq))) {
+                throw new IllegalArgumentException("Nieznany parametr: " + arg + ", dostępne: " + DEFAULTS.keySet());
+            }
+            params.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return params;
+    }
+}
@@ -1,22 +1,73 @@
 package com.project.app;
 
 import com.project.controller.ProjectController;
+import com.project.dao.AsyncProjektDAO;
+import com.project.dao.CachingProjektDAO;
+import com.project.dao.InstrumentingProjektDAO;
 import com.project.dao.ProjektDAO;
+import com.project.dao.ProjektDAODecorator;
 import com.project.dao.ProjektDAOImpl;
+import com.project.dao.QueryCachingProjektDAO;
+import com.project.dao.SearchIndexProjektDAO;
+import com.project.dao.StatementCache;
+import com.project.dao.WriteBehindProjektDAO;
+import com.project.dao.ZmianaDAOImpl;
+import com.project.dao.ZmianaPoller;
+import com.project.datasource.DataSource;
 import com.project.datasource.DbInitializer;
+import com.project.datasource.Durability;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 public class ProjectClientApplication extends Application {
+	private static final Logger logger = LoggerFactory.getLogger(ProjectClientApplication.class);
+	/*
+	przełączniki pamięci podręcznej encji (właściwości systemowe, np. -Dprojekt.cache=true)
+	1. projekt.cache - włącza CachingProjektDAO przed ProjektDAOImpl
+	2. projekt.cache.maxSize - maksymalna liczba projektów w pamięci podręcznej
+	3. projekt.cache.ttlSeconds - czas życia wpisu w sekundach
+	4. projekt.queryCache - włącza QueryCachingProjektDAO z wynikami stron i liczników
+	5. projekt.queryCache.maxRows - łączna liczba wierszy zapamiętanych wyników
+	6. projekt.searchIndex - indeks trigramowy nazw dla wyszukiwania (domyślnie włączony, false wyłącza)
+	7. projekt.search.debounceMs - opóźnienie wyszukiwania podczas pisania w milisekundach
+	8. projekt.async.maxConcurrency - liczba jednocześnie wykonywanych operacji na bazie (domyślnie db.pool.maxSize)
+	9. projekt.instrumentation - statystyki wywołań ProjektDAO w JMX (domyślnie włączone, false wyłącza)
+	10. projekt.slowQueryMs - czas wywołania ProjektDAO, od którego jest zapisywane w logu wolnych zapytań
+	11. projekt.changes - śledzenie zmian innych piszących przez dziennik zmian (domyślnie włączone, false wyłącza)
+	12. projekt.changes.pollMs - odstęp odczytów dziennika zmian w milisekundach
+	13. projekt.changes.retentionMinutes - czas przechowywania wpisów dziennika zmian w minutach
+	*/
+	private static final String CACHE_PROPERTY = "projekt.cache";
+	private static final String QUERY_CACHE_PROPERTY = "projekt.queryCache";
+	private static final String SEARCH_INDEX_PROPERTY = "projekt.searchIndex";
+	private static final String SEARCH_DEBOUNCE_PROPERTY = "projekt.search.debounceMs";
+	private static final String ASYNC_MAX_CONCURRENCY_PROPERTY = "projekt.async.maxConcurrency";
+	private static final String INSTRUMENTATION_PROPERTY = "projekt.instrumentation";
+	private static final String SLOW_QUERY_MS_PROPERTY = "projekt.slowQueryMs";
+	private static final String CHANGES_PROPERTY = "projekt.changes";
+	private static long startNanos;
+	//Inicjalizacja bazy (pula, otwarcie bazy, migracje) trwa równolegle z uruchamianiem JavaFX
+	private static CompletableFuture<DbInitializer.Timings> dbReady;
 	private Parent root;
 	private FXMLLoader loader;
 
 	public static void main(String[] args) {
-		DbInitializer.init();
+		startNanos = System.nanoTime();
+		dbReady = CompletableFuture.supplyAsync(DbInitializer::init,
+				task -> Thread.ofPlatform().name("db-init").start(task));
+		dbReady.exceptionally(e -> {
+			logger.error("Nie udało się zainicjalizować bazy danych.", e);
+			return null;
+		});
 		launch(ProjectClientApplication.class, args);
 	}
 
@@ -24,9 +75,16 @@ public class ProjectClientApplication extends Application {
 	public void start(Stage primaryStage) throws Exception {
 		loader = new FXMLLoader();
 		loader.setLocation(getClass().getResource("/fxml/ProjectFrame.fxml"));
-		ProjektDAO projektDAO = new ProjektDAOImpl();
+		long toolkitReady = System.nanoTime();
+		ProjektDAO projektDAO = createProjektDAO();
+		DataSource.registerMBeans();
+		//Operacje z interfejsu czekają na zakończenie inicjalizacji bazy
+		AsyncProjektDAO asyncDAO = new AsyncProjektDAO(projektDAO, Integer.getInteger(ASYNC_MAX_CONCURRENCY_PROPERTY,
+				DataSource.getConfig().getMaximumPoolSize()), dbReady);
 
-		loader.setControllerFactory(controllerClass -> new ProjectController(projektDAO));
+		javafx.util.Duration searchDebounce = javafx.util.Duration.millis(Long.getLong(SEARCH_DEBOUNCE_PROPERTY,
+				(long) ProjectController.DEFAULT_SEARCH_DEBOUNCE.toMillis()));
+		loader.setControllerFactory(controllerClass -> new ProjectController(asyncDAO, searchDebounce));
 		root = loader.load();
 
 		primaryStage.setTitle("Projekty");
@@ -36,8 +94,17 @@ public class ProjectClientApplication extends Application {
 						.toExternalForm());
 
 		ProjectController controller = loader.getController();
+		controller.setOnFirstPageShown(() -> logStartupTimings(toolkitReady, System.nanoTime()));
+		ZmianaPoller zmianaPoller = createZmianaPoller(projektDAO, controller);
 		primaryStage.setOnCloseRequest(event -> {
+			if (zmianaPoller != null) {
+				zmianaPoller.close();
+			}
 			controller.shutdown();
+			closeWriteBehind(projektDAO);
+			logCacheStats(projektDAO);
+			logPoolMetrics();
+			DataSource.close();
 			Platform.exit();
 		});
 
@@ -45,4 +112,106 @@ public class ProjectClientApplication extends Application {
 		primaryStage.sizeToScene();
 		primaryStage.show();
 	}
-}
\ No newline at end of file
+
+	private static ProjektDAO createProjektDAO() {
+		ProjektDAO projektDAO = new ProjektDAOImpl();
+		if (!"false".equalsIgnoreCase(System.getProperty(INSTRUMENTATION_PROPERTY))) {
+			//Bezpośrednio nad ProjektDAOImpl - mierzone są zapytania do bazy, a nie trafienia w pamięci podręczne
+			InstrumentingProjektDAO instrumentingDAO = new InstrumentingProjektDAO(projektDAO, Duration.ofMillis(
+					Long.getLong(SLOW_QUERY_MS_PROPERTY, InstrumentingProjektDAO.DEFAULT_SLOW_QUERY_THRESHOLD.toMillis())));
+			instrumentingDAO.registerMBeans();
+			projektDAO = instrumentingDAO;
+		}
+		if (!"false".equalsIgnoreCase(System.getProperty(SEARCH_INDEX_PROPERTY))) {
+			SearchIndexProjektDAO searchIndexDAO = new SearchIndexProjektDAO(projektDAO);
+			//Do czasu zbudowania indeksu wyszukiwanie korzysta z zapytań LIKE
+			dbReady.thenRun(() -> Thread.ofPlatform().daemon().name("search-index-build").start(() -> {
+				try {
+					searchIndexDAO.rebuildIndex();
+				} catch (RuntimeException e) {
+					logger.error("Nie udało się zbudować indeksu nazw projektów.", e);
+				}
+			}));
+			projektDAO = searchIndexDAO;
+		}
+		if (Boolean.getBoolean(CACHE_PROPERTY)) {
+			int maxSize = Integer.getInteger(CACHE_PROPERTY + ".maxSize", CachingProjektDAO.DEFAULT_MAX_SIZE);
+			Duration ttl = Duration.ofSeconds(Long.getLong(CACHE_PROPERTY + ".ttlSeconds",
+					CachingProjektDAO.DEFAULT_TTL.toSeconds()));
+			logger.info("Pamięć podręczna projektów włączona (maxSize={}, ttl={})", maxSize, ttl);
+			projektDAO = new CachingProjektDAO(projektDAO, maxSize, ttl);
+		}
+		if (Boolean.getBoolean(QUERY_CACHE_PROPERTY)) {
+			int maxRows = Integer.getInteger(QUERY_CACHE_PROPERTY + ".maxRows", QueryCachingProjektDAO.DEFAULT_MAX_ROWS);
+			logger.info("Pamięć podręczna wyników zapytań włączona (maxRows={})", maxRows);
+			projektDAO = new QueryCachingProjektDAO(projektDAO, maxRows);
+		}
+		if (DataSource.getConfig().getDurability() == Durability.GROUP_COMMIT) {
+			//Zewnętrzny dekorator - grupy zapisów przechodzą przez pamięci podręczne i indeks jak zwykłe zapisy
+			logger.info("Zatwierdzanie grupowe zapisów włączone (maxDelayMs={}, maxRows={})",
+					DataSource.getConfig().getGroupCommitMaxDelayMs(), DataSource.getConfig().getGroupCommitMaxRows());
+			projektDAO = new WriteBehindProjektDAO(projektDAO, DataSource.getConfig());
+		}
+		return projektDAO;
+	}
+
+	/**
+	 * Tworzy odczyt dziennika zmian, który nanosi zmiany innych piszących na tabelę kontrolera.
+	 * Odczyt zaczyna się po inicjalizacji bazy (migracja tworzy dziennik i wyzwalacze).
+	 *
+	 * @return odczyt dziennika lub null, jeśli śledzenie zmian jest wyłączone
+	 */
+	private static ZmianaPoller createZmianaPoller(ProjektDAO projektDAO, ProjectController controller) {
+		if ("false".equalsIgnoreCase(System.getProperty(CHANGES_PROPERTY))) {
+			return null;
+		}
+		Duration interval = Duration.ofMillis(Long.getLong(CHANGES_PROPERTY + ".pollMs",
+				ZmianaPoller.DEFAULT_INTERVAL.toMillis()));
+		Duration retention = Duration.ofMinutes(Long.getLong(CHANGES_PROPERTY + ".retentionMinutes",
+				ZmianaPoller.DEFAULT_RETENTION.toMinutes()));
+		ZmianaPoller zmianaPoller = new ZmianaPoller(new ZmianaDAOImpl(), projektDAO, interval, retention,
+				zmiany -> Platform.runLater(() -> controller.applyZmiany(zmiany)));
+		dbReady.thenRun(zmianaPoller::start);
+		return zmianaPoller;
+	}
+
+	private static void closeWriteBehind(ProjektDAO projektDAO) {
+		if (projektDAO instanceof WriteBehindProjektDAO writeBehindDAO) {
+			writeBehindDAO.close();
+		}
+	}
+
+	/**
+	 * Zapisuje w logu czasy etapów uruchamiania - do śledzenia czasu zimnego startu.
+	 */
+	private static void logStartupTimings(long toolkitReady, long firstPageShown) {
+		DbInitializer.Timings db = dbReady.join();
+		logger.info("Uruchomienie: pierwsza strona po {} ms (JavaFX gotowe po {} ms; równolegle: pula {} ms,"
+						+ " otwarcie bazy {} ms, migracje {} ms - zastosowano {})",
+				(firstPageShown - startNanos) / 1_000_000, (toolkitReady - startNanos) / 1_000_000,
+				db.poolOpenMs(), db.databaseOpenMs(), db.migrationsMs(), db.migrationsApplied());
+	}
+
+	private static void logPoolMetrics() {
+		logger.info("Pula połączeń: {}", DataSource.getMetrics());
+		if (DataSource.getReadMetrics() != DataSource.getMetrics()) {
+			logger.info("Pula połączeń do odczytu: {}", DataSource.getReadMetrics());
+		}
+		logger.info("Pamięć podręczna poleceń SQL: {}", StatementCache.shared().getStats());
+	}
+
+	private static void logCacheStats(ProjektDAO projektDAO) {
+		if (projektDAO instanceof InstrumentingProjektDAO instrumentingDAO) {
+			instrumentingDAO.getMethodStats().forEach(stats -> logger.info("ProjektDAO {}", stats));
+		}
+		if (projektDAO instanceof QueryCachingProjektDAO queryCachingDAO) {
+			logger.info("Pamięć podręczna wyników zapytań: {}", queryCachingDAO.getStats());
+		}
+		if (projektDAO instanceof CachingProjektDAO cachingDAO) {
+			logger.info("Pamięć podręczna projektów: {}", cachingDAO.getStats());
+		}
+		if (projektDAO instanceof ProjektDAODecorator decorator) {
+			logCacheStats(decorator.getDelegate());
+		}
+	}
+}
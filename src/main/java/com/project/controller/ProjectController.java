@@ -1,8 +1,18 @@
 package com.project.controller;
 
+import com.project.dao.AsyncProjektDAO;
+import com.project.dao.CancellationToken;
+import com.project.dao.CursorPage;
+import com.project.dao.PageCursor;
+import com.project.dao.PageDirection;
 import com.project.dao.ProjektDAO;
-import com.project.dao.ProjektDAOImpl;
+import com.project.dao.ProjektFilter;
+import com.project.dao.QueryCancelledException;
+import com.project.dao.ZmianaPoller;
+import com.project.export.ExportFormat;
+import com.project.export.ProjektExporter;
 import com.project.model.Projekt;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,32 +25,51 @@ import javafx.event.ActionEvent;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class ProjectController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectController.class.getName());
 
+    /**
+     * Domyślny czas bez naciśnięcia klawisza, po którym wyszukiwanie jest uruchamiane.
+     */
+    public static final Duration DEFAULT_SEARCH_DEBOUNCE = Duration.millis(300);
+
     // Variables for pagination and search
     private String search4;
     private Integer pageNum;
     private Integer pageSize;
-    private ProjektDAO projektDAO;
-    private ExecutorService executorService;
+    private CursorPage<Projekt> currentPage;
+    //Liczba projektów spełniających wyszukiwanie (-1 do czasu jej pobrania) - pobierana z pierwszą stroną
+    private int total = -1;
+    private long countSeq;
+    private CancellationToken countToken;
+    private AsyncProjektDAO asyncDAO;
+    private ProjektPageLoader pageLoader;
+    private Duration searchDebounce = DEFAULT_SEARCH_DEBOUNCE;
+    private PauseTransition searchDelay;
+    private long lastKeystrokeNanos;
     private ObservableList<Projekt> projekty;
+    private ProjektWindowedList wszystkieProjekty;
+    private Runnable onFirstPageShown;
 
     private static final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final DateTimeFormatter dateTimeFormater = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -63,6 +92,8 @@ public class ProjectController {
     @FXML
     private TableColumn<Projekt, Void> colEdytuj;
     @FXML
+    private Label lblStrona;
+    @FXML
     private TextField txtSzukaj;
     @FXML
     private Button btnDalej;
@@ -76,6 +107,10 @@ public class ProjectController {
     private Button btnSzukaj;
     @FXML
     private Button btnDodaj;
+    @FXML
+    private CheckBox chkPrzewijanie;
+    @FXML
+    private Button btnEksportuj;
 
     /**
      * Konstruktor domyślny.
@@ -88,8 +123,28 @@ public class ProjectController {
      * @param projektDAO obiekt DAO do zarządzania projektami.
      */
     public ProjectController(ProjektDAO projektDAO) {
-        this.projektDAO = projektDAO;
-        executorService = Executors.newFixedThreadPool(1);
+        this(new AsyncProjektDAO(projektDAO), DEFAULT_SEARCH_DEBOUNCE);
+    }
+
+    /**
+     * Konstruktor z parametrem DAO i czasem opóźnienia wyszukiwania podczas pisania.
+     * @param projektDAO obiekt DAO do zarządzania projektami.
+     * @param searchDebounce czas bez naciśnięcia klawisza, po którym uruchamiane jest wyszukiwanie.
+     */
+    public ProjectController(ProjektDAO projektDAO, Duration searchDebounce) {
+        this(new AsyncProjektDAO(projektDAO), searchDebounce);
+    }
+
+    /**
+     * Konstruktor z asynchronicznym DAO, przez które kontroler wykonuje wszystkie operacje
+     * na bazie danych poza wątkiem JavaFX.
+     * @param asyncDAO asynchroniczne DAO do zarządzania projektami (zamykane w shutdown).
+     * @param searchDebounce czas bez naciśnięcia klawisza, po którym uruchamiane jest wyszukiwanie.
+     */
+    public ProjectController(AsyncProjektDAO asyncDAO, Duration searchDebounce) {
+        this.asyncDAO = asyncDAO;
+        this.searchDebounce = searchDebounce;
+        pageLoader = new ProjektPageLoader(asyncDAO);
     }
 
     /**
@@ -102,9 +157,51 @@ public class ProjectController {
         pageSize = 10;
         initPageSizeChoiceBox();
         initTable();
+        initSearchField();
         projekty = FXCollections.observableArrayList();
+        wszystkieProjekty = new ProjektWindowedList(asyncDAO, this::showLoadError);
         tblProjekt.setItems(projekty);
-        executorService.execute(() -> loadPage(search4, pageNum, pageSize));
+        chkPrzewijanie.selectedProperty().addListener((obs, oldVal, newVal) -> setScrollMode(newVal));
+        loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
+    }
+
+    /**
+     * Przełącza tabelę między stronicowaniem a przewijaniem wszystkich projektów. W trybie przewijania
+     * wiersze są pobierane blokami w miarę przewijania, a w pamięci jest tylko kilka bloków wokół
+     * widocznego fragmentu (ProjektWindowedList).
+     * @param scroll true dla trybu przewijania.
+     */
+    private void setScrollMode(boolean scroll) {
+        cbPageSizes.setDisable(scroll);
+        if (scroll) {
+            cancelCount();
+            btnPierwsza.setDisable(true);
+            btnWstecz.setDisable(true);
+            btnDalej.setDisable(true);
+            btnOstatnia.setDisable(true);
+            tblProjekt.setItems(wszystkieProjekty);
+            showAll(search4, total -> { });
+        } else {
+            wszystkieProjekty.shutdown();
+            tblProjekt.setItems(projekty);
+            loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
+        }
+    }
+
+    private boolean isScrollMode() {
+        return tblProjekt.getItems() == wszystkieProjekty;
+    }
+
+    /**
+     * Wyświetla w trybie przewijania wszystkie projekty pasujące do wyszukiwania.
+     * @param search4 tekst wyszukiwania.
+     * @param onShown odbiorca liczby projektów, wywoływany po wyświetleniu pierwszych wierszy.
+     */
+    private void showAll(String search4, IntConsumer onShown) {
+        wszystkieProjekty.reset(ProjektFilter.nazwaLike(search4), total -> {
+            lblStrona.setText("Projektów: " + total);
+            onShown.accept(total);
+        });
     }
 
     /**
@@ -115,8 +212,25 @@ public class ProjectController {
         cbPageSizes.setValue(pageSize);
         cbPageSizes.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             pageSize = newVal;
-            pageNum = 0;
-            loadPage(search4, pageNum, pageSize);
+            loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
+        });
+    }
+
+    /**
+     * Inicjalizuje wyszukiwanie podczas pisania - zapytanie jest wysyłane dopiero po upływie
+     * searchDebounce od ostatniego naciśnięcia klawisza.
+     */
+    private void initSearchField() {
+        searchDelay = new PauseTransition(searchDebounce);
+        searchDelay.setOnFinished(event -> {
+            String text = txtSzukaj.getText().trim();
+            if (!text.equals(search4)) {
+                search(text);
+            }
+        });
+        txtSzukaj.textProperty().addListener((obs, oldVal, newVal) -> {
+            lastKeystrokeNanos = System.nanoTime();
+            searchDelay.playFromStart();
         });
     }
 
@@ -130,6 +244,7 @@ public class ProjectController {
         colDataCzasUtworzenia.setCellValueFactory(new PropertyValueFactory<>("dataCzasUtworzenia"));
         colDataOddania.setCellValueFactory(new PropertyValueFactory<>("dataOddania"));
         colEdytuj.setCellFactory(column -> createEditDeleteCell());
+        colOpis.setCellFactory(column -> createOpisCell());
         colDataCzasUtworzenia.setCellFactory(column -> new TableCell<Projekt, LocalDateTime>() {
             @Override
             protected void updateItem(LocalDateTime item, boolean empty) {
@@ -143,6 +258,62 @@ public class ProjectController {
         });
     }
 
+    /**
+     * Tworzy komórkę opisu. Lista zawiera tylko początek długich opisów, więc skrócony opis
+     * kończy się wielokropkiem, a pełny opis jest pobierany dopiero przy wyświetleniu podpowiedzi.
+     * @return komórka tabeli z opisem projektu.
+     */
+    private TableCell<Projekt, String> createOpisCell() {
+        return new TableCell<Projekt, String>() {
+            private final Tooltip tooltip = new Tooltip();
+
+            {
+                tooltip.setWrapText(true);
+                tooltip.setMaxWidth(400);
+                tooltip.setOnShowing(event -> {
+                    Projekt projekt = getTableRow().getItem();
+                    if (projekt != null && projekt.isOpisSkrocony()) {
+                        loadFullOpis(projekt, () -> {
+                            if (getTableRow().getItem() == projekt) {
+                                tooltip.setText(projekt.getOpis());
+                            }
+                        });
+                    }
+                });
+            }
+
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                Projekt projekt = getTableRow() != null ? getTableRow().getItem() : null;
+                if (item == null || empty || projekt == null) {
+                    setText(null);
+                    setTooltip(null);
+                } else {
+                    setText(projekt.isOpisSkrocony() ? item + "…" : item);
+                    tooltip.setText(item);
+                    setTooltip(tooltip);
+                }
+            }
+        };
+    }
+
+    /**
+     * Pobiera w tle pełny opis projektu ze skróconej projekcji i uzupełnia nim projekt.
+     * @param projekt projekt ze skróconym opisem.
+     * @param onLoaded akcja wywoływana w wątku JavaFX po uzupełnieniu opisu.
+     */
+    private void loadFullOpis(Projekt projekt, Runnable onLoaded) {
+        Integer projektId = projekt.getProjektId();
+        onFxThread(asyncDAO.getOpis(projektId), opis -> {
+            if (opis != null && projekt.isOpisSkrocony()) {
+                projekt.setOpis(opis);
+                projekt.setOpisSkrocony(false);
+            }
+            onLoaded.run();
+        }, e -> logger.error("Błąd podczas pobierania opisu projektu {}.", projektId, e));
+    }
+
     /**
      * Tworzy komórkę tabeli z przyciskami do edycji i usuwania projektów.
      * @return komórka tabeli z przyciskami.
@@ -155,22 +326,23 @@ public class ProjectController {
             {
                 btnUsun.setOnAction(event -> {
                     Projekt projekt = getTableView().getItems().get(getIndex());
-                    projektDAO.deleteProjekt(projekt.getProjektId());
-                    tblProjekt.getItems().remove(projekt);
-                    Alert alert = new Alert(Alert.AlertType.INFORMATION, "Projekt usunięty pomyślnie!", ButtonType.OK);
-                    alert.showAndWait();
+                    if (!ProjektWindowedList.isPlaceholder(projekt)) {
+                        deleteProjekt(projekt);
+                    }
                 });
 
                 btnEdytuj.setOnAction(event -> {
                     Projekt projekt = getTableView().getItems().get(getIndex());
-                    projektWindow(projekt);
+                    if (!ProjektWindowedList.isPlaceholder(projekt)) {
+                        projektWindow(projekt);
+                    }
                 });
             }
 
             @Override
             protected void updateItem(Void item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty) {
+                if (empty || getTableRow() == null || ProjektWindowedList.isPlaceholder(getTableRow().getItem())) {
                     setGraphic(null);
                 } else {
                     HBox pane = new HBox(5);
@@ -187,9 +359,36 @@ public class ProjectController {
      */
     @FXML
     private void onActionBtnSzukaj(ActionEvent event) {
-        search4 = txtSzukaj.getText().trim();
-        pageNum = 0;
-        loadPage(search4, pageNum, pageSize);
+        searchDelay.stop();
+        lastKeystrokeNanos = System.nanoTime();
+        search(txtSzukaj.getText().trim());
+    }
+
+    /**
+     * Ładuje pierwszą stronę wyników wyszukiwania i zapisuje w logu czas od ostatniego naciśnięcia
+     * klawisza do wyświetlenia wyników. Wcześniejsze, jeszcze trwające wyszukiwanie jest anulowane.
+     * @param text szukany fragment nazwy.
+     */
+    private void search(String text) {
+        search4 = text;
+        //Liczba dla poprzedniego wyszukiwania nie jest już potrzebna
+        cancelCount();
+        total = -1;
+        if (!isScrollMode() && currentPage != null) {
+            updatePager(currentPage);
+        }
+        long keystroke = lastKeystrokeNanos;
+        long started = System.nanoTime();
+        IntConsumer logShown = total -> {
+            long shown = System.nanoTime();
+            logger.info("Wyszukiwanie \"{}\": {} wyników po {} ms od naciśnięcia klawisza (zapytanie {} ms)",
+                    text, total, (shown - keystroke) / 1_000_000, (shown - started) / 1_000_000);
+        };
+        if (isScrollMode()) {
+            showAll(search4, logShown);
+        } else {
+            loadPage(search4, null, PageDirection.NEXT, pageSize, 0, page -> logShown.accept(total));
+        }
     }
 
     /**
@@ -198,8 +397,9 @@ public class ProjectController {
      */
     @FXML
     private void onActionBtnDalej(ActionEvent event) {
-        pageNum++;
-        loadPage(search4, pageNum, pageSize);
+        if (currentPage != null && currentPage.hasNext()) {
+            loadPage(search4, currentPage.getLastCursor(), PageDirection.NEXT, pageSize, pageNum + 1);
+        }
     }
 
     /**
@@ -208,9 +408,8 @@ public class ProjectController {
      */
     @FXML
     private void onActionBtnWstecz(ActionEvent event) {
-        if (pageNum > 0) {
-            pageNum--;
-            loadPage(search4, pageNum, pageSize);
+        if (currentPage != null && currentPage.hasPrevious()) {
+            loadPage(search4, currentPage.getFirstCursor(), PageDirection.PREVIOUS, pageSize, pageNum - 1);
         }
     }
 
@@ -220,14 +419,19 @@ public class ProjectController {
      */
     @FXML
     private void onActionBtnPierwsza(ActionEvent event) {
+        loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
     }
 
     /**
-     * Obsługuje akcję przycisku "Ostatnia". Ładuje ostatnią stronę danych.
+     * Obsługuje akcję przycisku "Ostatnia". Ładuje ostatnią stronę danych. Przycisk jest aktywny dopiero
+     * po pobraniu liczby projektów, a numer strony jest wyznaczany z niej po załadowaniu strony.
      * @param event zdarzenie akcji.
      */
     @FXML
     private void onActionBtnOstatnia(ActionEvent event) {
+        if (currentPage != null && currentPage.hasNext() && total >= 0) {
+            loadPage(search4, null, PageDirection.PREVIOUS, pageSize, -1);
+        }
     }
 
     /**
@@ -240,10 +444,85 @@ public class ProjectController {
     }
 
     /**
-     * Otwiera okno do edycji lub dodawania projektu.
+     * Obsługuje akcję przycisku "Eksportuj". Zapisuje wszystkie projekty (opcjonalnie z zadaniami) do
+     * wybranego pliku CSV lub JSON Lines, skompresowanego gzipem, jeśli nazwa kończy się na .gz.
+     * Eksport działa w tle, a przycisk pokazuje liczbę zapisanych wierszy.
+     * @param event zdarzenie akcji.
+     */
+    @FXML
+    private void onActionBtnEksportuj(ActionEvent event) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Eksport projektów");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV", "*.csv", "*.csv.gz");
+        FileChooser.ExtensionFilter jsonl = new FileChooser.ExtensionFilter("JSON Lines", "*.jsonl", "*.jsonl.gz");
+        chooser.getExtensionFilters().addAll(csv, jsonl);
+        File file = chooser.showSaveDialog(tblProjekt.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        String name = file.getName().toLowerCase(Locale.ROOT);
+        //Format z rozszerzenia pliku, a przy innym rozszerzeniu - z wybranego filtra
+        ExportFormat format = name.endsWith(".jsonl") || name.endsWith(".jsonl.gz") ? ExportFormat.JSONL
+                : name.endsWith(".csv") || name.endsWith(".csv.gz") ? ExportFormat.CSV
+                : chooser.getSelectedExtensionFilter() == jsonl ? ExportFormat.JSONL : ExportFormat.CSV;
+        Alert zadania = new Alert(Alert.AlertType.CONFIRMATION, "Czy eksport ma zawierać zadania projektów?",
+                ButtonType.YES, ButtonType.NO);
+        zadania.setHeaderText(null);
+        boolean includeZadania = zadania.showAndWait().orElse(ButtonType.NO) == ButtonType.YES;
+
+        ProjektExporter exporter = new ProjektExporter(format);
+        exporter.setIncludeZadania(includeZadania);
+        exporter.setGzip(name.endsWith(".gz"));
+        exporter.setProgressListener((rows, finished) ->
+                Platform.runLater(() -> btnEksportuj.setText("Eksport: " + rows)));
+        String text = btnEksportuj.getText();
+        btnEksportuj.setDisable(true);
+        CompletableFuture<Long> export = CompletableFuture.supplyAsync(() -> {
+            try {
+                return exporter.export(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, task -> Thread.ofPlatform().daemon().name("projekt-export").start(task));
+        onFxThread(export, rows -> {
+            btnEksportuj.setText(text);
+            btnEksportuj.setDisable(false);
+            Alert alert = new Alert(Alert.AlertType.INFORMATION,
+                    "Wyeksportowano " + rows + " wierszy do " + file + ".", ButtonType.OK);
+            alert.show();
+        }, e -> {
+            btnEksportuj.setText(text);
+            btnEksportuj.setDisable(false);
+            showWriteError("Błąd podczas eksportu projektów.", e);
+        });
+    }
+
+    /**
+     * Otwiera okno do edycji lub dodawania projektu. Jeśli lista zawiera tylko początek opisu
+     * edytowanego projektu, okno jest otwierane po pobraniu pełnego opisu w tle.
      * @param oldProjekt projekt do edycji lub null, jeśli tworzony jest nowy projekt.
      */
     private void projektWindow(Projekt oldProjekt) {
+        if (oldProjekt == null || !oldProjekt.isOpisSkrocony()) {
+            showProjektWindow(oldProjekt);
+            return;
+        }
+        onFxThread(asyncDAO.getOpis(oldProjekt.getProjektId()), opis -> {
+            oldProjekt.setOpis(opis);
+            oldProjekt.setOpisSkrocony(false);
+            showProjektWindow(oldProjekt);
+        }, e -> {
+            String errMsg = "Błąd podczas pobierania opisu projektu.";
+            logger.error(errMsg, e);
+            showError(errMsg, e.getMessage());
+        });
+    }
+
+    /**
+     * Wyświetla okno do edycji lub dodawania projektu.
+     * @param oldProjekt projekt do edycji (z pełnym opisem) lub null, jeśli tworzony jest nowy projekt.
+     */
+    private void showProjektWindow(Projekt oldProjekt) {
         Stage stage = new Stage();
         VBox layout = new VBox(10);
 
@@ -276,17 +555,13 @@ public class ProjectController {
             if (oldProjekt == null) {
                 Projekt projekt = new Projekt(nazwa, opis, dataOddania);
                 projekt.setDataCzasUtworzenia(LocalDateTime.now());
-                projektDAO.setProjekt(projekt);
-                projekty.add(projekt);
+                insertProjekt(projekt);
             } else {
-                oldProjekt.setNazwa(nazwa);
-                oldProjekt.setOpis(opis);
-                oldProjekt.setDataOddania(dataOddania);
-                projektDAO.setProjekt(oldProjekt);
-                int index = projekty.indexOf(oldProjekt);
-                if (index != -1) {
-                    projekty.set(index, oldProjekt);
-                }
+                Projekt zmieniony = new Projekt(oldProjekt);
+                zmieniony.setNazwa(nazwa);
+                zmieniony.setOpis(opis);
+                zmieniony.setDataOddania(dataOddania);
+                updateProjekt(oldProjekt, zmieniony);
             }
 
             stage.close();
@@ -303,31 +578,312 @@ public class ProjectController {
     }
 
     /**
-     * Ładuje stronę danych projektów na podstawie kryteriów wyszukiwania, numeru strony i rozmiaru strony.
+     * Usuwa projekt z tabeli od razu, a z bazy danych w tle. Jeśli usunięcie w bazie się nie powiedzie,
+     * projekt wraca na swoje miejsce w tabeli. W trybie przewijania usunięcie przesuwa wiersze dalszych
+     * bloków, więc projekt znika z tabeli dopiero po ponownym pobraniu wyświetlanych wierszy.
+     * @param projekt projekt do usunięcia.
+     */
+    private void deleteProjekt(Projekt projekt) {
+        int index = isScrollMode() ? -1 : projekty.indexOf(projekt);
+        if (index != -1) {
+            projekty.remove(index);
+        }
+        pageLoader.invalidate();
+        onFxThread(asyncDAO.deleteProjekt(projekt.getProjektId()), result -> {
+            dataChanged();
+            Alert alert = new Alert(Alert.AlertType.INFORMATION, "Projekt usunięty pomyślnie!", ButtonType.OK);
+            alert.show();
+        }, e -> {
+            if (index != -1 && !projekty.contains(projekt)) {
+                projekty.add(Math.min(index, projekty.size()), projekt);
+            }
+            showWriteError("Błąd podczas usuwania projektu.", e);
+        });
+    }
+
+    /**
+     * Dodaje nowy projekt do bazy danych w tle. Na pierwszej stronie projekt jest wyświetlany od razu
+     * w miejscu wynikającym z kolejności stron (najnowsze pierwsze), a jego ID pojawia się w tabeli
+     * po zapisie; jeśli zapis się nie powiedzie, projekt jest usuwany z tabeli. Na dalszych stronach
+     * po zapisie wyświetlana jest pierwsza strona, a w trybie przewijania - ponownie pobierane wiersze.
+     * @param projekt nowy projekt.
+     */
+    private void insertProjekt(Projekt projekt) {
+        if (isScrollMode() || (currentPage != null && currentPage.hasPrevious())) {
+            onFxThread(asyncDAO.setProjekt(projekt), result -> {
+                if (isScrollMode()) {
+                    dataChanged();
+                } else {
+                    pageLoader.invalidate();
+                    loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
+                }
+            }, e -> showWriteError("Błąd podczas zapisywania projektu.", e));
+            return;
+        }
+        ProjektPageRows.insert(projekty, projekt);
+        //DAO przypisuje ID w innym wątku - zapisywana jest kopia, a wyświetlany projekt zmieniany tylko tutaj
+        Projekt zapisywany = new Projekt(projekt);
+        onFxThread(asyncDAO.setProjekt(zapisywany), result -> {
+            projekt.setProjektId(zapisywany.getProjektId());
+            projekt.setDataCzasUtworzenia(zapisywany.getDataCzasUtworzenia());
+            //ZmianaPoller mógł już wyświetlić ten projekt jako dodany przez innego piszącego
+            ProjektPageRows.removeDuplicates(projekty, projekt);
+            refreshRow(projekt);
+            dataChanged();
+        }, e -> {
+            projekty.remove(projekt);
+            showWriteError("Błąd podczas zapisywania projektu.", e);
+        });
+    }
+
+    /**
+     * Wyświetla zmiany projektu od razu, a zapisuje je w bazie danych w tle. Jeśli zapis się
+     * nie powiedzie, przywracane są poprzednie wartości.
+     * @param projekt wyświetlany projekt.
+     * @param zmieniony kopia projektu z nowymi wartościami.
+     */
+    private void updateProjekt(Projekt projekt, Projekt zmieniony) {
+        Projekt poprzedni = new Projekt(projekt);
+        copyValues(zmieniony, projekt);
+        refreshRow(projekt);
+        onFxThread(asyncDAO.setProjekt(zmieniony), result -> dataChanged(), e -> {
+            copyValues(poprzedni, projekt);
+            refreshRow(projekt);
+            showWriteError("Błąd podczas zapisywania projektu.", e);
+        });
+    }
+
+    private static void copyValues(Projekt from, Projekt to) {
+        to.setNazwa(from.getNazwa());
+        to.setOpis(from.getOpis());
+        to.setOpisSkrocony(from.isOpisSkrocony());
+        to.setDataOddania(from.getDataOddania());
+    }
+
+    /**
+     * Usuwa nieaktualne strony z bufora, a w trybie przewijania pobiera ponownie wyświetlane wiersze;
+     * w trybie stronicowania pobiera ponownie liczbę projektów.
+     */
+    private void dataChanged() {
+        pageLoader.invalidate();
+        if (isScrollMode()) {
+            wszystkieProjekty.refresh();
+        } else {
+            refreshCount();
+        }
+    }
+
+    /**
+     * Pobiera w tle liczbę projektów spełniających wyszukiwanie i aktualizuje nią licznik stron.
+     * Liczba jest pobierana razem z pierwszą stroną, a zapytania dalszych stron (keyset) jej nie liczą,
+     * więc osobno jest pobierana tylko po zmianie danych bez ponownego ładowania pierwszej strony.
+     * Wcześniejsze, jeszcze trwające pobranie jest anulowane, a jego wynik pomijany.
+     */
+    private void refreshCount() {
+        cancelCount();
+        long seq = countSeq;
+        CancellationToken token = new CancellationToken();
+        countToken = token;
+        ProjektFilter filter = ProjektFilter.nazwaLike(search4);
+        CompletableFuture<Integer> count = asyncDAO.submit(() -> token.call(
+                () -> AsyncProjektDAO.countProjekty(asyncDAO.getDelegate(), filter)));
+        onFxThread(count, result -> {
+            if (seq == countSeq) {
+                countToken = null;
+                total = result;
+                if (!isScrollMode() && currentPage != null) {
+                    updatePager(currentPage);
+                }
+            }
+        }, e -> {
+            if (seq == countSeq) {
+                countToken = null;
+                if (!(e instanceof QueryCancelledException)) {
+                    showLoadError(e instanceof RuntimeException re ? re : new RuntimeException(e));
+                }
+            }
+        });
+    }
+
+    /**
+     * Anuluje trwające pobieranie liczby projektów (również w bazie); jego wynik jest pomijany.
+     */
+    private void cancelCount() {
+        countSeq++;
+        if (countToken != null) {
+            countToken.cancel();
+            countToken = null;
+        }
+    }
+
+    /**
+     * Nanosi na wyświetlane projekty zmiany wykonane przez innych piszących (ZmianaPoller) bez ponownego
+     * pobierania całej strony: zmienione wiersze są zastępowane, usunięte usuwane, a dodane wstawiane
+     * na pierwszej stronie w miejscu wynikającym z kolejności. Zmiany własne kontrolera, które już są
+     * wyświetlone, niczego nie zmieniają. Metoda musi być wywoływana w wątku JavaFX.
+     * @param zmiany zmiany od poprzedniego wywołania.
+     */
+    public void applyZmiany(ZmianaPoller.Zmiany zmiany) {
+        pageLoader.invalidate();
+        if (isScrollMode()) {
+            //Dodanie lub usunięcie przesuwa wiersze wszystkich dalszych bloków
+            if (zmiany.pelneOdswiezenie() || !zmiany.dodane().isEmpty() || !zmiany.usuniete().isEmpty()) {
+                wszystkieProjekty.refresh();
+            } else {
+                zmiany.zmienione().forEach(wszystkieProjekty::replaceRow);
+            }
+            return;
+        }
+        if (zmiany.pelneOdswiezenie()) {
+            loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
+            return;
+        }
+        projekty.removeIf(projekt -> zmiany.usuniete().contains(projekt.getProjektId()));
+        for (Projekt zmieniony : zmiany.zmienione()) {
+            int index = ProjektPageRows.indexOfProjektId(projekty, zmieniony.getProjektId());
+            if (index != -1) {
+                projekty.set(index, zmieniony);
+            }
+        }
+        //Na dalszych stronach nowe projekty (najnowsze) nie przesuwają wierszy - strona jest wyszukiwana od kursora
+        boolean pierwszaStrona = currentPage != null && !currentPage.hasPrevious();
+        if (!zmiany.dodane().isEmpty() && pierwszaStrona && !search4.isEmpty()) {
+            //Tylko baza wie, czy nowy projekt pasuje do wyszukiwania
+            loadPage(search4, null, PageDirection.NEXT, pageSize, 0);
+            return;
+        }
+        if (!zmiany.dodane().isEmpty() || !zmiany.usuniete().isEmpty()) {
+            refreshCount();
+        }
+        if (zmiany.dodane().isEmpty() || !pierwszaStrona) {
+            return;
+        }
+        ProjektPageRows.addDodane(projekty, zmiany.dodane(), pageSize);
+    }
+
+    private void refreshRow(Projekt projekt) {
+        if (isScrollMode()) {
+            wszystkieProjekty.refreshRow(projekt);
+            return;
+        }
+        int index = projekty.indexOf(projekt);
+        if (index != -1) {
+            projekty.set(index, projekt);
+        }
+    }
+
+    /**
+     * Przekazuje wynik operacji wykonywanej w tle do wątku JavaFX.
+     * @param future operacja wykonywana w tle.
+     * @param onSuccess odbiorca wyniku.
+     * @param onError odbiorca błędu.
+     */
+    private static <T> void onFxThread(CompletableFuture<T> future, Consumer<T> onSuccess,
+                                       Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+            } else {
+                onError.accept(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        }));
+    }
+
+    private void showWriteError(String errMsg, Throwable e) {
+        logger.error(errMsg, e);
+        String errDetails = e.getCause() != null ?
+                e.getMessage() + "\n" + e.getCause().getMessage()
+                : e.getMessage();
+        showError(errMsg, errDetails);
+    }
+
+    /**
+     * Ładuje stronę danych projektów, wyszukując ją od kursora sąsiedniej strony (paginacja keyset).
+     * Strona jest pobierana w tle; wcześniejsze, jeszcze nieukończone ładowanie jest anulowane,
+     * a strony sąsiednie są pobierane z wyprzedzeniem.
      * @param search4 tekst wyszukiwania.
-     * @param pageNo numer strony.
+     * @param cursor kursor, od którego wyszukiwana jest strona, lub null dla pierwszej strony.
+     * @param direction kierunek wyszukiwania względem kursora.
      * @param pageSize rozmiar strony.
+     * @param pageNo numer ładowanej strony, wyświetlany użytkownikowi; dla ostatniej strony (kursor null
+     *               i kierunek PREVIOUS) wyznaczany z liczby projektów.
      */
-    private void loadPage(String search4, Integer pageNo, Integer pageSize) {
-        try {
-            final List<Projekt> projektList = new ArrayList<>();
-            if (search4 != null && !search4.isEmpty()) {
-                projektList.addAll(projektDAO.getProjektyWhereNazwaLike(search4, pageNo * pageSize, pageSize));
+    private void loadPage(String search4, PageCursor cursor, PageDirection direction, Integer pageSize, int pageNo) {
+        loadPage(search4, cursor, direction, pageSize, pageNo, page -> { });
+    }
+
+    /**
+     * Ładuje stronę danych projektów jak loadPage, a po jej wyświetleniu wywołuje onShown.
+     * @param onShown akcja wywoływana po wyświetleniu strony; pomijana, jeśli ładowanie zostało anulowane.
+     */
+    private void loadPage(String search4, PageCursor cursor, PageDirection direction, Integer pageSize, int pageNo,
+                          Consumer<CursorPage<Projekt>> onShown) {
+        ProjektPageLoader.PageRequest request =
+                new ProjektPageLoader.PageRequest(ProjektFilter.nazwaLike(search4), cursor, direction, pageSize);
+        pageLoader.load(request, loaded -> {
+            CursorPage<Projekt> page = loaded.page();
+            if (loaded.total() >= 0) {
+                //Liczba pobrana ze stroną jest nowsza niż wynik trwającego refreshCount
+                cancelCount();
+                total = loaded.total();
+            }
+            currentPage = page;
+            if (!page.hasPrevious()) {
+                pageNum = 0;
+            } else if (cursor == null) {
+                pageNum = lastPageNo();
             } else {
-                projektList.addAll(projektDAO.getProjekty(pageNo * pageSize, pageSize));
+                pageNum = pageNo;
             }
-            Platform.runLater(() -> {
-                projekty.clear();
-                projekty.addAll(projektList);
-            });
-        } catch (RuntimeException e) {
-            String errMsg = "Błąd podczas pobierania listy projektów.";
-            logger.error(errMsg, e);
-            String errDetails = e.getCause() != null ?
-                    e.getMessage() + "\n" + e.getCause().getMessage()
-                    : e.getMessage();
-            Platform.runLater(() -> showError(errMsg, errDetails));
+            if (total < 0 && loaded.total() < 0 && countToken == null) {
+                //Ładowanie pierwszej strony z liczbą projektów zostało zastąpione innym
+                refreshCount();
+            }
+            if (!isScrollMode()) {
+                updatePager(page);
+            }
+            projekty.clear();
+            projekty.addAll(page.getRows());
+            onShown.accept(page);
+            if (onFirstPageShown != null) {
+                Runnable action = onFirstPageShown;
+                onFirstPageShown = null;
+                action.run();
+            }
+        }, this::showLoadError);
+    }
+
+    private void showLoadError(RuntimeException e) {
+        String errMsg = "Błąd podczas pobierania listy projektów.";
+        logger.error(errMsg, e);
+        String errDetails = e.getCause() != null ?
+                e.getMessage() + "\n" + e.getCause().getMessage()
+                : e.getMessage();
+        showError(errMsg, errDetails);
+    }
+
+    private int lastPageNo() {
+        return total < 0 ? pageNum : Math.max((total + pageSize - 1) / pageSize - 1, 0);
+    }
+
+    /**
+     * Aktualizuje numer strony i liczbę stron oraz blokuje przyciski nawigacji bez sąsiedniej strony.
+     * Do czasu pobrania liczby projektów wyświetlany jest tylko numer strony, a przycisk "Ostatnia"
+     * jest zablokowany - bez liczby projektów nie można wyznaczyć numeru ostatniej strony.
+     * @param page wyświetlana strona.
+     */
+    private void updatePager(CursorPage<Projekt> page) {
+        if (total < 0) {
+            lblStrona.setText("Strona " + (pageNum + 1));
+        } else {
+            int pages = Math.max((total + pageSize - 1) / pageSize, 1);
+            lblStrona.setText("Strona " + Math.min(pageNum + 1, pages) + " z " + pages);
         }
+        btnPierwsza.setDisable(!page.hasPrevious());
+        btnWstecz.setDisable(!page.hasPrevious());
+        btnDalej.setDisable(!page.hasNext());
+        btnOstatnia.setDisable(!page.hasNext() || total < 0);
     }
 
     /**
@@ -344,18 +900,31 @@ public class ProjectController {
     }
 
     /**
-     * Zamyka executorService, zapewniając poprawne zakończenie wątków.
+     * Ustawia akcję wywoływaną jednorazowo w wątku JavaFX po wyświetleniu pierwszej strony,
+     * np. do pomiaru czasu uruchamiania aplikacji.
+     * @param onFirstPageShown akcja wywoływana po wyświetleniu pierwszej strony.
+     */
+    public void setOnFirstPageShown(Runnable onFirstPageShown) {
+        this.onFirstPageShown = onFirstPageShown;
+    }
+
+    /**
+     * Zatrzymuje ładowanie stron, anulując trwające zapytania, i czeka na zakończenie
+     * zleconych zapisów.
      */
     public void shutdown() {
-        if (executorService != null) {
-            executorService.shutdown();
-            try {
-                if (!executorService.awaitTermination(5, TimeUnit.SECONDS)) {
-                    executorService.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                executorService.shutdownNow();
-            }
+        if (searchDelay != null) {
+            searchDelay.stop();
+        }
+        if (pageLoader != null) {
+            pageLoader.shutdown();
+        }
+        cancelCount();
+        if (wszystkieProjekty != null) {
+            wszystkieProjekty.shutdown();
+        }
+        if (asyncDAO != null) {
+            asyncDAO.close();
         }
     }
 
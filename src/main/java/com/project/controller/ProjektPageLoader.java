@@ -0,0 +1,172 @@
+package com.project.controller;
+
+import com.project.dao.AsyncProjektDAO;
+import com.project.dao.CancellationToken;
+import com.project.dao.CursorPage;
+import com.project.dao.PageCursor;
+import com.project.dao.PageDirection;
+import com.project.dao.PageResult;
+import com.project.dao.ProjektFilter;
+import com.project.dao.QueryCancelledException;
+import com.project.model.Projekt;
+import javafx.application.Platform;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Ładuje strony projektów poza wątkiem JavaFX, w ramach limitu współbieżności AsyncProjektDAO.
+ * Pierwsza strona kryterium jest pobierana razem z liczbą wszystkich projektów (getProjektyPage),
+ * więc po zmianie wyszukiwania strona i licznik stron wymagają jednego zapytania; dalsze strony
+ * są wyszukiwane od kursora w skróconej projekcji (bez pełnych opisów).
+ * Po wyświetleniu strony z wyprzedzeniem pobiera strony sąsiednie (poprzednią i następną)
+ * do niewielkiego bufora, więc przejście na nie nie wymaga czekania na bazę.
+ * Nowe żądanie anuluje poprzednie, jeszcze trwające ładowanie (również w bazie, przez
+ * CancellationToken), a wynik nieaktualnego żądania nigdy nie trafia do widoku.
+ * Metody load, invalidate i shutdown muszą być wywoływane w wątku JavaFX.
+ */
+class ProjektPageLoader {
+    /**
+     * Maksymalna liczba stron w buforze - dwie strony sąsiednie i ostatnio odwiedzone.
+     */
+    private static final int MAX_BUFFERED_PAGES = 4;
+
+    /**
+     * Parametry strony - jednocześnie klucz bufora stron pobranych z wyprzedzeniem.
+     */
+    record PageRequest(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        boolean isFirstPage() {
+            return cursor == null && direction == PageDirection.NEXT;
+        }
+    }
+
+    /**
+     * Załadowana strona; total to liczba wszystkich projektów spełniających kryterium, pobierana
+     * tylko z pierwszą stroną (dla pozostałych stron -1).
+     */
+    record LoadedPage(CursorPage<Projekt> page, int total) {
+    }
+
+    private static final class Load {
+        private final CancellationToken token = new CancellationToken();
+        private CompletableFuture<LoadedPage> future;
+
+        boolean isReady() {
+            return future.isDone() && !future.isCompletedExceptionally();
+        }
+    }
+
+    private final AsyncProjektDAO asyncDAO;
+    private final Map<PageRequest, Load> buffer = new LinkedHashMap<>(16, 0.75f, true);
+    private Load current;
+    private long sequence;
+
+    ProjektPageLoader(AsyncProjektDAO asyncDAO) {
+        this.asyncDAO = asyncDAO;
+    }
+
+    /**
+     * Ładuje stronę i przekazuje ją do onLoaded w wątku JavaFX, o ile w międzyczasie
+     * nie pojawiło się nowsze żądanie. Strona obecna w buforze jest przekazywana od razu.
+     *
+     * @param request  - parametry strony
+     * @param onLoaded - odbiorca załadowanej strony
+     * @param onError  - odbiorca błędu ładowania (anulowanie nie jest błędem)
+     */
+    void load(PageRequest request, Consumer<LoadedPage> onLoaded, Consumer<RuntimeException> onError) {
+        long seq = ++sequence;
+        Load load = buffer.remove(request);
+        if (current != null && current != load) {
+            current.token.cancel();
+        }
+        if (load == null || load.future.isCompletedExceptionally()) {
+            load = start(request);
+        }
+        current = load;
+        if (load.isReady()) {
+            deliver(seq, request, load, onLoaded, onError);
+        } else {
+            Load pending = load;
+            load.future.whenComplete((page, error) ->
+                    Platform.runLater(() -> deliver(seq, request, pending, onLoaded, onError)));
+        }
+    }
+
+    /**
+     * Usuwa z bufora wszystkie strony, np. po zmianie danych, i anuluje ich pobieranie.
+     */
+    void invalidate() {
+        buffer.values().forEach(load -> load.token.cancel());
+        buffer.clear();
+    }
+
+    void shutdown() {
+        invalidate();
+        if (current != null) {
+            current.token.cancel();
+        }
+    }
+
+    private void deliver(long seq, PageRequest request, Load load, Consumer<LoadedPage> onLoaded,
+                         Consumer<RuntimeException> onError) {
+        if (seq != sequence) {
+            return;
+        }
+        current = null;
+        LoadedPage loaded;
+        try {
+            loaded = load.future.join();
+        } catch (CompletionException e) {
+            if (!(e.getCause() instanceof QueryCancelledException)) {
+                onError.accept(e.getCause() instanceof RuntimeException re ? re : e);
+            }
+            return;
+        }
+        onLoaded.accept(loaded);
+        prefetchAround(request, loaded.page());
+    }
+
+    private void prefetchAround(PageRequest request, CursorPage<Projekt> page) {
+        if (page.hasNext()) {
+            prefetch(new PageRequest(request.filter(), page.getLastCursor(), PageDirection.NEXT, request.limit()));
+        }
+        if (page.hasPrevious()) {
+            prefetch(new PageRequest(request.filter(), page.getFirstCursor(), PageDirection.PREVIOUS, request.limit()));
+        }
+        //Strony innego zapytania lub rozmiaru nie będą już potrzebne
+        Iterator<Map.Entry<PageRequest, Load>> it = buffer.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<PageRequest, Load> entry = it.next();
+            PageRequest buffered = entry.getKey();
+            if (!buffered.filter().equals(request.filter()) || buffered.limit() != request.limit()
+                    || buffer.size() > MAX_BUFFERED_PAGES) {
+                entry.getValue().token.cancel();
+                it.remove();
+            }
+        }
+    }
+
+    private void prefetch(PageRequest request) {
+        Load load = buffer.get(request);
+        if (load == null || load.future.isCompletedExceptionally()) {
+            buffer.put(request, start(request));
+        }
+    }
+
+    private Load start(PageRequest request) {
+        Load load = new Load();
+        load.future = asyncDAO.submit(() -> load.token.call(() -> {
+            if (request.isFirstPage()) {
+                PageResult<Projekt> page = asyncDAO.getDelegate().getProjektyPage(request.filter(), 0, request.limit());
+                return new LoadedPage(CursorPage.of(page.getRows(), page.hasNext(), false), page.getTotal());
+            }
+            return new LoadedPage(asyncDAO.getDelegate().seekProjektySummary(
+                    request.filter(), request.cursor(), request.direction(), request.limit()), -1);
+        }));
+        return load;
+    }
+}
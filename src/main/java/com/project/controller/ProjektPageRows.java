@@ -0,0 +1,86 @@
+package com.project.controller;
+
+import com.project.model.Projekt;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Zmiany wierszy wyświetlanej strony projektów nanoszone bez ponownego pobierania strony - po zapisie
+ * własnym kontrolera i po zmianach innych piszących (ZmianaPoller) - z zachowaniem kolejności stron.
+ */
+final class ProjektPageRows {
+    /**
+     * Kolejność wierszy stron - jak w zapytaniach ProjektDAO (dataczas_utworzenia DESC, projekt_id DESC);
+     * projekt jeszcze bez ID (zapisywany) ma największe ID.
+     */
+    static final Comparator<Projekt> PAGE_ORDER = Comparator
+            .comparing(Projekt::getDataCzasUtworzenia, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Projekt::getProjektId, Comparator.nullsFirst(Comparator.reverseOrder()));
+
+    private ProjektPageRows() {
+    }
+
+    /**
+     * Wstawia projekt w miejscu wynikającym z kolejności stron.
+     *
+     * @return indeks wstawionego projektu
+     */
+    static int insert(List<Projekt> rows, Projekt projekt) {
+        int index = indexFor(rows, projekt);
+        rows.add(index, projekt);
+        return index;
+    }
+
+    /**
+     * Wstawia projekty dodane przez innych piszących, które mieszczą się na pierwszej stronie,
+     * i obcina stronę do pageSize wierszy. Projekty już wyświetlane (o tym samym ID) są pomijane.
+     * Projekt zapisywany właśnie przez kontroler nie ma jeszcze ID, więc może zostać dodany
+     * drugi raz - duplikat usuwa removeDuplicates po zakończeniu zapisu. Dlatego wiersze
+     * zapisywanych projektów nie zajmują miejsca na stronie - inaczej duplikat wypchnąłby z niej
+     * wiersz, który po usunięciu duplikatu powinien być nadal widoczny.
+     */
+    static void addDodane(List<Projekt> rows, List<Projekt> dodane, int pageSize) {
+        int limit = pageSize + (int) rows.stream().filter(row -> row.getProjektId() == null).count();
+        for (Projekt dodany : dodane) {
+            if (indexOfProjektId(rows, dodany.getProjektId()) != -1) {
+                continue;
+            }
+            int index = indexFor(rows, dodany);
+            if (index < limit) {
+                rows.add(index, dodany);
+            }
+        }
+        if (rows.size() > limit) {
+            rows.subList(limit, rows.size()).clear();
+        }
+    }
+
+    /**
+     * Usuwa wiersze o ID zapisanego projektu inne niż sam projekt - dodane przez addDodane,
+     * gdy zmiana z bazy dotarła przed zakończeniem zapisu.
+     *
+     * @param projekt - wyświetlany projekt, któremu przypisano już ID z bazy
+     */
+    static void removeDuplicates(List<Projekt> rows, Projekt projekt) {
+        rows.removeIf(row -> row != projekt && Objects.equals(row.getProjektId(), projekt.getProjektId()));
+    }
+
+    private static int indexFor(List<Projekt> rows, Projekt projekt) {
+        int index = 0;
+        while (index < rows.size() && PAGE_ORDER.compare(rows.get(index), projekt) < 0) {
+            index++;
+        }
+        return index;
+    }
+
+    static int indexOfProjektId(List<Projekt> rows, Integer projektId) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (Objects.equals(rows.get(i).getProjektId(), projektId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
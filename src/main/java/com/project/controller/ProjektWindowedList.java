@@ -0,0 +1,324 @@
+package com.project.controller;
+
+import com.project.dao.AsyncProjektDAO;
+import com.project.dao.CancellationToken;
+import com.project.dao.PageCursor;
+import com.project.dao.PageDirection;
+import com.project.dao.ProjektFilter;
+import com.project.dao.QueryCancelledException;
+import com.project.model.Projekt;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Lista wszystkich projektów spełniających kryterium do przewijania w TableView bez stronicowania.
+ * Rozmiar listy to liczba projektów w bazie, ale w pamięci jest tylko MAX_BLOCKS bloków po BLOCK_SIZE
+ * wierszy - pobieranych na żądanie, gdy TableView odczytuje widoczne wiersze,
+ * i usuwanych w kolejności od najdawniej używanego. Wiersz niepobranego bloku jest zastępowany
+ * projektem zastępczym (isPlaceholder), który po pobraniu bloku jest wymieniany na właściwy.
+ * Wszystkie bloki są pobierane w skróconej projekcji. Pierwszy blok jest wyszukiwany od początku listy
+ * (keyset), a liczba projektów - osobnym zapytaniem zliczającym, tylko przy zmianie kryterium lub danych.
+ * Blok sąsiadujący z pobranym jest wyszukiwany od jego skrajnego wiersza (keyset), więc przewijanie
+ * ma stały koszt niezależnie od pozycji; tylko skok suwakiem w dowolne miejsce używa OFFSET.
+ * Przy szybkim przewijaniu starsze, jeszcze trwające pobrania są anulowane, a zmiana kryterium
+ * lub ponowne pobranie anuluje też trwające zliczanie projektów.
+ * Wszystkie metody muszą być wywoływane w wątku JavaFX.
+ */
+class ProjektWindowedList extends ObservableListBase<Projekt> {
+    static final int BLOCK_SIZE = 100;
+    /**
+     * Maksymalna liczba bloków w pamięci - kilka ekranów wokół widocznego fragmentu.
+     */
+    private static final int MAX_BLOCKS = 10;
+    /**
+     * Maksymalna liczba jednocześnie pobieranych bloków.
+     */
+    private static final int MAX_PENDING = 4;
+    private static final Projekt PLACEHOLDER = new Projekt("Ładowanie…", null, null);
+
+    private final AsyncProjektDAO asyncDAO;
+    private final Consumer<RuntimeException> onError;
+    private final Map<Integer, List<Projekt>> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, CancellationToken> pending = new LinkedHashMap<>();
+    //Pobieranie liczby projektów i pierwszego bloku (reload)
+    private CancellationToken reloadToken;
+    private ProjektFilter filter = ProjektFilter.all();
+    private int size;
+    private long generation;
+
+    /**
+     * Liczba projektów i pierwszy blok listy.
+     */
+    private record FirstBlock(int size, List<Projekt> rows) {
+    }
+
+    /**
+     * @param asyncDAO - DAO pobierające bloki
+     * @param onError  - odbiorca błędów pobierania (anulowanie nie jest błędem)
+     */
+    ProjektWindowedList(AsyncProjektDAO asyncDAO, Consumer<RuntimeException> onError) {
+        this.asyncDAO = asyncDAO;
+        this.onError = onError;
+    }
+
+    /**
+     * @return czy projekt zastępuje wiersz, który jest jeszcze pobierany
+     */
+    static boolean isPlaceholder(Projekt projekt) {
+        return projekt == PLACEHOLDER;
+    }
+
+    /**
+     * Zmienia kryterium i pobiera pierwszy blok wraz z liczbą projektów. Do tego czasu lista
+     * zawiera poprzednie wiersze.
+     *
+     * @param onShown - odbiorca liczby projektów, wywoływany po wyświetleniu pierwszego bloku
+     */
+    void reset(ProjektFilter filter, IntConsumer onShown) {
+        this.filter = filter;
+        reload(onShown);
+    }
+
+    /**
+     * Pobiera ponownie liczbę projektów i wyświetlane bloki, np. po zmianie danych.
+     */
+    void refresh() {
+        reload(total -> { });
+    }
+
+    /**
+     * Powiadamia widok o zmianie wartości projektu z listy.
+     */
+    void refreshRow(Projekt projekt) {
+        int index = indexOf(projekt);
+        if (index != -1) {
+            beginChange();
+            nextSet(index, projekt);
+            endChange();
+        }
+    }
+
+    /**
+     * Zastępuje projekt o tym samym ID, jeśli jest w którymś bloku w pamięci - np. po zmianie
+     * wykonanej przez inną instancję aplikacji.
+     */
+    void replaceRow(Projekt projekt) {
+        int found = -1;
+        for (Map.Entry<Integer, List<Projekt>> entry : blocks.entrySet()) {
+            List<Projekt> rows = entry.getValue();
+            for (int i = 0; i < rows.size() && found == -1; i++) {
+                if (Objects.equals(rows.get(i).getProjektId(), projekt.getProjektId())) {
+                    found = entry.getKey() * BLOCK_SIZE + i;
+                }
+            }
+        }
+        if (found == -1) {
+            return;
+        }
+        int block = found / BLOCK_SIZE;
+        //Bloki pochodzą z CursorPage i nie mogą być zmieniane w miejscu
+        List<Projekt> rows = new ArrayList<>(peek(block));
+        Projekt previous = rows.set(found - block * BLOCK_SIZE, projekt);
+        blocks.put(block, rows);
+        beginChange();
+        nextSet(found, previous);
+        endChange();
+    }
+
+    /**
+     * Anuluje pobieranie bloków i liczby projektów; wyniki trwających pobrań nie trafiają już do listy.
+     */
+    void shutdown() {
+        generation++;
+        cancelPending();
+    }
+
+    @Override
+    public Projekt get(int index) {
+        Objects.checkIndex(index, size);
+        int block = index / BLOCK_SIZE;
+        int offset = index - block * BLOCK_SIZE;
+        List<Projekt> rows = blocks.get(block);
+        if (rows == null) {
+            requestBlock(block);
+            return PLACEHOLDER;
+        }
+        //Przy zbliżaniu się do krawędzi bloku pobierany jest blok sąsiedni
+        if (offset >= BLOCK_SIZE * 3 / 4 && (block + 1) * BLOCK_SIZE < size) {
+            requestBlock(block + 1);
+        } else if (offset < BLOCK_SIZE / 4 && block > 0) {
+            requestBlock(block - 1);
+        }
+        return offset < rows.size() ? rows.get(offset) : PLACEHOLDER;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Wyszukuje projekt tylko w blokach w pamięci - nie pobiera pozostałych.
+     */
+    @Override
+    public int indexOf(Object o) {
+        for (Map.Entry<Integer, List<Projekt>> entry : blocks.entrySet()) {
+            int offset = entry.getValue().indexOf(o);
+            if (offset != -1) {
+                return entry.getKey() * BLOCK_SIZE + offset;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    private void reload(IntConsumer onShown) {
+        long gen = ++generation;
+        cancelPending();
+        ProjektFilter reloadFilter = filter;
+        CancellationToken token = new CancellationToken();
+        reloadToken = token;
+        CompletableFuture<FirstBlock> future = asyncDAO.submit(() -> token.call(() -> {
+            int count = AsyncProjektDAO.countProjekty(asyncDAO.getDelegate(), reloadFilter);
+            List<Projekt> rows = count == 0 ? List.of() : asyncDAO.getDelegate().seekProjektySummary(reloadFilter,
+                    null, PageDirection.NEXT, BLOCK_SIZE).getRows();
+            return new FirstBlock(count, rows);
+        }));
+        future.whenComplete((first, error) -> Platform.runLater(() -> {
+            if (gen != generation) {
+                return;
+            }
+            reloadToken = null;
+            if (error != null) {
+                reportError(error);
+                return;
+            }
+            int oldSize = size;
+            blocks.clear();
+            size = first.size();
+            beginChange();
+            if (oldSize > 0) {
+                nextRemove(0, Collections.nCopies(oldSize, PLACEHOLDER));
+            }
+            if (size > 0) {
+                nextAdd(0, size);
+            }
+            endChange();
+            if (!first.rows().isEmpty()) {
+                showBlock(0, first.rows());
+            }
+            onShown.accept(size);
+        }));
+    }
+
+    private void requestBlock(int block) {
+        if (blocks.containsKey(block) || pending.containsKey(block)) {
+            return;
+        }
+        if (pending.size() >= MAX_PENDING) {
+            //Najstarsze pobranie dotyczy fragmentu, który został już przewinięty
+            Iterator<CancellationToken> oldest = pending.values().iterator();
+            oldest.next().cancel();
+            oldest.remove();
+        }
+        long gen = generation;
+        ProjektFilter blockFilter = filter;
+        CancellationToken token = new CancellationToken();
+        pending.put(block, token);
+        //Odczyt bez zmiany kolejności bloków - sąsiedztwo nie oznacza użycia
+        List<Projekt> previous = peek(block - 1);
+        List<Projekt> next = peek(block + 1);
+        CompletableFuture<List<Projekt>> future = asyncDAO.submit(() -> token.call(() -> {
+            if (previous != null && previous.size() == BLOCK_SIZE) {
+                return asyncDAO.getDelegate().seekProjektySummary(blockFilter,
+                        PageCursor.of(previous.get(BLOCK_SIZE - 1)), PageDirection.NEXT, BLOCK_SIZE).getRows();
+            }
+            if (next != null && !next.isEmpty()) {
+                return asyncDAO.getDelegate().seekProjektySummary(blockFilter, PageCursor.of(next.get(0)),
+                        PageDirection.PREVIOUS, BLOCK_SIZE).getRows();
+            }
+            return asyncDAO.getDelegate().getProjektySummaryPage(blockFilter, block * BLOCK_SIZE, BLOCK_SIZE);
+        }));
+        future.whenComplete((rows, error) -> Platform.runLater(() -> {
+            if (gen != generation || pending.get(block) != token) {
+                return;
+            }
+            pending.remove(block);
+            if (error != null) {
+                reportError(error);
+                return;
+            }
+            showBlock(block, rows);
+        }));
+    }
+
+    private List<Projekt> peek(int block) {
+        for (Map.Entry<Integer, List<Projekt>> entry : blocks.entrySet()) {
+            if (entry.getKey() == block) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void showBlock(int block, List<Projekt> rows) {
+        int from = block * BLOCK_SIZE;
+        int count = Math.min(rows.size(), size - from);
+        if (count <= 0) {
+            return;
+        }
+        blocks.put(block, rows);
+        beginChange();
+        nextReplace(from, from + count, Collections.nCopies(count, PLACEHOLDER));
+        endChange();
+        //Odbiorcy zmian odczytują wiersze przez get, co zmienia kolejność bloków - iterator tylko do pierwszego
+        while (blocks.size() > MAX_BLOCKS) {
+            Map.Entry<Integer, List<Projekt>> evicted = blocks.entrySet().iterator().next();
+            blocks.remove(evicted.getKey());
+            int evictedFrom = evicted.getKey() * BLOCK_SIZE;
+            int evictedCount = Math.min(evicted.getValue().size(), size - evictedFrom);
+            if (evictedCount > 0) {
+                beginChange();
+                nextReplace(evictedFrom, evictedFrom + evictedCount, evicted.getValue().subList(0, evictedCount));
+                endChange();
+            }
+        }
+    }
+
+    private void cancelPending() {
+        if (reloadToken != null) {
+            reloadToken.cancel();
+            reloadToken = null;
+        }
+        pending.values().forEach(CancellationToken::cancel);
+        pending.clear();
+    }
+
+    private void reportError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof QueryCancelledException)) {
+            onError.accept(cause instanceof RuntimeException re ? re : new RuntimeException(cause));
+        }
+    }
+}
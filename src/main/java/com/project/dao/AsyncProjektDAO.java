@@ -0,0 +1,154 @@
+package com.project.dao;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import com.project.datasource.DataSource;
+import com.project.model.Projekt;
+
+/**
+ * Asynchroniczna fasada ProjektDAO - każde wywołanie jest wykonywane w osobnym wątku wirtualnym,
+ * a wynik jest zwracany jako CompletableFuture, więc wątek wywołujący (np. wątek JavaFX) nie czeka
+ * na zatwierdzenie transakcji ani na blokady w bazie.
+ * Liczba jednocześnie wykonywanych wywołań jest ograniczona (domyślnie do rozmiaru puli połączeń),
+ * więc nadmiarowe wywołania czekają na zezwolenie, a nie na połączenie z puli, które mogłoby zostać
+ * przydzielone dopiero po connectionTimeout.
+ * Wywołania zlecone przed zakończeniem CompletableFuture ready (np. inicjalizacji bazy przy starcie)
+ * czekają na nie i kończą się jego wyjątkiem, jeśli inicjalizacja się nie powiodła.
+ * Obiekty przekazane do metod zapisujących są modyfikowane w innym wątku (np. przypisanie ID) -
+ * wywołujący nie powinien ich używać do czasu zakończenia zwróconego CompletableFuture.
+ */
+public class AsyncProjektDAO implements AutoCloseable {
+    private final ProjektDAO delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final CompletableFuture<?> ready;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Tworzy fasadę z limitem równym rozmiarowi puli połączeń (db.pool.maxSize).
+     */
+    public AsyncProjektDAO(ProjektDAO delegate) {
+        this(delegate, DataSource.getConfig().getMaximumPoolSize());
+    }
+
+    /**
+     * @param delegate       - DAO wykonujące wywołania
+     * @param maxConcurrency - maksymalna liczba jednocześnie wykonywanych wywołań
+     */
+    public AsyncProjektDAO(ProjektDAO delegate, int maxConcurrency) {
+        this(delegate, maxConcurrency, CompletableFuture.completedFuture(null));
+    }
+
+    /**
+     * @param delegate       - DAO wykonujące wywołania
+     * @param maxConcurrency - maksymalna liczba jednocześnie wykonywanych wywołań
+     * @param ready          - warunek rozpoczęcia wykonywania wywołań, np. zakończenie inicjalizacji bazy
+     */
+    public AsyncProjektDAO(ProjektDAO delegate, int maxConcurrency, CompletableFuture<?> ready) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Niepoprawny limit współbieżności: " + maxConcurrency);
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.ready = ready;
+    }
+
+    public ProjektDAO getDelegate() {
+        return delegate;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Wykonuje dowolną operację na bazie danych w ramach limitu współbieżności.
+     *
+     * @param action - operacja wykonywana w wątku wirtualnym
+     * @return wynik operacji lub zakończenie wyjątkiem zgłoszonym przez operację
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> action) {
+        return ready.thenCompose(ignored -> execute(action));
+    }
+
+    private <T> CompletableFuture<T> execute(Supplier<T> action) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            try {
+                return action.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private CompletableFuture<Void> run(Runnable action) {
+        return submit(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Projekt> getProjekt(Integer projektId) {
+        return submit(() -> delegate.getProjekt(projektId));
+    }
+
+    public CompletableFuture<String> getOpis(Integer projektId) {
+        return submit(() -> delegate.getOpis(projektId));
+    }
+
+    public CompletableFuture<Void> setProjekt(Projekt projekt) {
+        return run(() -> delegate.setProjekt(projekt));
+    }
+
+    public CompletableFuture<Void> deleteProjekt(Integer projektId) {
+        return run(() -> delegate.deleteProjekt(projektId));
+    }
+
+    public CompletableFuture<Void> setProjekty(Collection<Projekt> projekty) {
+        return run(() -> delegate.setProjekty(projekty));
+    }
+
+    public CompletableFuture<Void> deleteProjekty(Collection<Integer> projektIds) {
+        return run(() -> delegate.deleteProjekty(projektIds));
+    }
+
+    /**
+     * Liczy projekty spełniające kryterium metodą getRowsNumber* odpowiednią dla filtra, więc wynik
+     * może pochodzić z pamięci podręcznej lub indeksu wyszukiwania dekoratorów DAO.
+     */
+    public static int countProjekty(ProjektDAO projektDAO, ProjektFilter filter) {
+        if (filter.getNazwa() != null) {
+            return projektDAO.getRowsNumberWhereNazwaLike(filter.getNazwa());
+        }
+        if (filter.getDataOddania() != null) {
+            return projektDAO.getRowsNumberWhereDataOddaniaIs(filter.getDataOddania());
+        }
+        return projektDAO.getRowsNumber();
+    }
+
+    public CompletableFuture<CursorPage<Projekt>> seekProjektySummary(ProjektFilter filter, PageCursor cursor,
+                                                                      PageDirection direction, int limit) {
+        return submit(() -> delegate.seekProjektySummary(filter, cursor, direction, limit));
+    }
+
+    /**
+     * Nie przyjmuje nowych wywołań i czeka na zakończenie rozpoczętych, aby zapisy
+     * zlecone przed zamknięciem trafiły do bazy.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.project.dao;
+
+/**
+ * Migawka liczników pamięci podręcznej.
+ */
+public final class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long size;
+
+    public CacheStats(long hits, long misses, long evictions, long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return odsetek trafień w zakresie 0..1 (0, jeśli nie było odwołań)
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, size=%d",
+                hits, misses, getHitRate() * 100, evictions, size);
+    }
+}
@@ -0,0 +1,269 @@
+package com.project.dao;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.project.model.Projekt;
+
+/**
+ * Dekorator ProjektDAO z pamięcią podręczną encji odczytywanych przez getProjekt.
+ * Pamięć jest ograniczona liczbą wpisów (wypieranie najdawniej używanych - LRU)
+ * oraz czasem życia wpisu. Zapisy aktualizują lub unieważniają wpisy, a zapytania
+ * stronicowane uzupełniają pamięć podręczną pobranymi projektami.
+ * Wpisy są kopiami, więc modyfikacja zwróconego obiektu nie zmienia zawartości pamięci.
+ */
+public class CachingProjektDAO extends ProjektDAODecorator {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<Integer, Entry> entries;
+    //Licznik zapisów - odczyt rozpoczęty przed zapisem nie może nadpisać nowszej wartości
+    private final AtomicLong writeVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Entry(Projekt projekt, long expiresAt) {
+    }
+
+    public CachingProjektDAO(ProjektDAO delegate) {
+        this(delegate, DEFAULT_MAX_SIZE, DEFAULT_TTL);
+    }
+
+    /**
+     * @param delegate - DAO, do którego trafiają odwołania nieobsłużone przez pamięć podręczną
+     * @param maxSize  - maksymalna liczba projektów w pamięci podręcznej
+     * @param ttl      - czas życia wpisu od momentu jego zapisania
+     */
+    public CachingProjektDAO(ProjektDAO delegate, int maxSize, Duration ttl) {
+        super(delegate);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > CachingProjektDAO.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Projekt getProjekt(Integer projektId) {
+        synchronized (entries) {
+            Entry entry = entries.get(projektId);
+            if (entry != null) {
+                if (entry.expiresAt - System.nanoTime() > 0) {
+                    hits.increment();
+                    return new Projekt(entry.projekt);
+                }
+                entries.remove(projektId);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        long version = writeVersion.get();
+        Projekt projekt = delegate.getProjekt(projektId);
+        if (projekt != null) {
+            putIfCurrent(List.of(projekt), version);
+        }
+        return projekt;
+    }
+
+    /**
+     * Zwraca opis projektu z pamięci podręcznej, jeśli projekt się w niej znajduje.
+     */
+    @Override
+    public String getOpis(Integer projektId) {
+        synchronized (entries) {
+            Entry entry = entries.get(projektId);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.projekt.getOpis();
+            }
+        }
+        misses.increment();
+        return delegate.getOpis(projektId);
+    }
+
+    @Override
+    public void setProjekt(Projekt projekt) {
+        long version = writeVersion.incrementAndGet();
+        boolean written = false;
+        try {
+            delegate.setProjekt(projekt);
+            written = true;
+        } finally {
+            afterWrite(List.of(projekt), version, written);
+        }
+    }
+
+    @Override
+    public void deleteProjekt(Integer projektId) {
+        writeVersion.incrementAndGet();
+        invalidate(projektId);
+        try {
+            delegate.deleteProjekt(projektId);
+        } finally {
+            afterDelete(List.of(projektId));
+        }
+    }
+
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        long version = writeVersion.incrementAndGet();
+        boolean written = false;
+        try {
+            delegate.setProjekty(projekty);
+            written = true;
+        } finally {
+            afterWrite(projekty, version, written);
+        }
+    }
+
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        writeVersion.incrementAndGet();
+        projektIds.forEach(this::invalidate);
+        try {
+            delegate.deleteProjekty(projektIds);
+        } finally {
+            afterDelete(projektIds);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjekty(Integer offset, Integer limit) {
+        long version = writeVersion.get();
+        return putIfCurrent(delegate.getProjekty(offset, limit), version);
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereIdIn(List<Integer> projektIds) {
+        long version = writeVersion.get();
+        return putIfCurrent(delegate.getProjektyWhereIdIn(projektIds), version);
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
+        long version = writeVersion.get();
+        return putIfCurrent(delegate.getProjektyWhereNazwaLike(nazwa, offset, limit), version);
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereDataOddaniaIs(LocalDate dataOddania, Integer offset, Integer limit) {
+        long version = writeVersion.get();
+        return putIfCurrent(delegate.getProjektyWhereDataOddaniaIs(dataOddania, offset, limit), version);
+    }
+
+    @Override
+    public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+        long version = writeVersion.get();
+        PageResult<Projekt> page = delegate.getProjektyPage(filter, offset, limit);
+        putIfCurrent(page.getRows(), version);
+        return page;
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        long version = writeVersion.get();
+        CursorPage<Projekt> page = delegate.seekProjekty(filter, cursor, direction, limit);
+        putIfCurrent(page.getRows(), version);
+        return page;
+    }
+
+    /**
+     * Usuwa projekt z pamięci podręcznej, np. po zmianie wykonanej z pominięciem tego DAO.
+     *
+     * @param projektId - ID projektu do usunięcia z pamięci (null jest ignorowany)
+     */
+    public void invalidate(Integer projektId) {
+        if (projektId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(projektId);
+        }
+    }
+
+    @Override
+    public void changedExternally(Collection<Integer> projektIds) {
+        projektIds.forEach(this::invalidate);
+        super.changedExternally(projektIds);
+    }
+
+    /**
+     * Usuwa wszystkie wpisy z pamięci podręcznej.
+     */
+    public void invalidateAll() {
+        writeVersion.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        }
+    }
+
+    /**
+     * Kończy zapis projektów. Ponowne zwiększenie writeVersion odrzuca wyniki odczytów, które trwały w czasie
+     * zapisu (mogły pobrać dane sprzed zatwierdzenia). Zapisane projekty trafiają do pamięci tylko wtedy,
+     * gdy w trakcie zapisu nie rozpoczął się inny zapis - w przeciwnym razie kolejność zapisów w bazie
+     * jest nieznana i wpisy są tylko usuwane.
+     *
+     * @param version - writeVersion ustawiona przed zapisem
+     * @param written - czy zapis się powiódł
+     */
+    private void afterWrite(Collection<Projekt> projekty, long version, boolean written) {
+        long current = writeVersion.incrementAndGet();
+        long expiresAt = System.nanoTime() + ttlNanos;
+        synchronized (entries) {
+            boolean store = written && current == version + 1 && writeVersion.get() == current;
+            for (Projekt projekt : projekty) {
+                if (projekt.getProjektId() == null) {
+                    continue;
+                }
+                if (store) {
+                    entries.put(projekt.getProjektId(), new Entry(new Projekt(projekt), expiresAt));
+                } else {
+                    entries.remove(projekt.getProjektId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Kończy usuwanie projektów - usuwa wpisy dodane przez odczyty, które trwały w czasie usuwania.
+     */
+    private void afterDelete(Collection<Integer> projektIds) {
+        writeVersion.incrementAndGet();
+        projektIds.forEach(this::invalidate);
+    }
+
+    private List<Projekt> putIfCurrent(List<Projekt> projekty, long version) {
+        long expiresAt = System.nanoTime() + ttlNanos;
+        synchronized (entries) {
+            if (writeVersion.get() == version) {
+                for (Projekt projekt : projekty) {
+                    entries.put(projekt.getProjektId(), new Entry(new Projekt(projekt), expiresAt));
+                }
+            }
+        }
+        return projekty;
+    }
+}
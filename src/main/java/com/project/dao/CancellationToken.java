@@ -0,0 +1,108 @@
+package com.project.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pozwala anulować wywołania DAO wykonywane w innym wątku.
+ * Operacja uruchomiona przez call() wiąże token z bieżącym wątkiem; DAO rejestruje w nim
+ * wykonywane zapytanie, więc cancel() przerywa je w bazie przez Statement.cancel(),
+ * a kolejne zapytania tej operacji kończą się od razu wyjątkiem QueryCancelledException.
+ */
+public final class CancellationToken {
+    private static final Logger logger = LoggerFactory.getLogger(CancellationToken.class);
+    private static final ThreadLocal<CancellationToken> CURRENT = new ThreadLocal<>();
+
+    private volatile boolean cancelled;
+    private Statement running;
+
+    /**
+     * Wykonuje operację w kontekście tego tokenu.
+     *
+     * @param action - operacja korzystająca z DAO
+     * @return wynik operacji
+     * @throws QueryCancelledException jeśli token został anulowany
+     */
+    public <T> T call(Supplier<T> action) {
+        CancellationToken previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            if (cancelled) {
+                throw new QueryCancelledException();
+            }
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Anuluje operację - przerywa aktualnie wykonywane zapytanie i blokuje kolejne.
+     */
+    public void cancel() {
+        //Pod blokadą - po unregister zapytanie wraca do StatementCache i może je wykonywać inna operacja
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (running != null) {
+                try {
+                    running.cancel();
+                } catch (SQLException e) {
+                    logger.debug("Nie udało się anulować zapytania", e);
+                }
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Rejestruje zapytanie wykonywane w bieżącym wątku, aby można było je anulować.
+     *
+     * @throws QueryCancelledException jeśli token bieżącego wątku został już anulowany
+     */
+    static void register(Statement statement) {
+        CancellationToken token = CURRENT.get();
+        if (token == null) {
+            return;
+        }
+        synchronized (token) {
+            if (token.cancelled) {
+                throw new QueryCancelledException();
+            }
+            token.running = statement;
+        }
+    }
+
+    static void unregister(Statement statement) {
+        CancellationToken token = CURRENT.get();
+        if (token == null) {
+            return;
+        }
+        synchronized (token) {
+            if (token.running == statement) {
+                token.running = null;
+            }
+        }
+    }
+
+    /**
+     * @return true, jeśli token związany z bieżącym wątkiem został anulowany
+     */
+    static boolean isCurrentCancelled() {
+        CancellationToken token = CURRENT.get();
+        return token != null && token.cancelled;
+    }
+}
@@ -0,0 +1,72 @@
+package com.project.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.project.model.Projekt;
+
+/**
+ * Strona wyników pobrana metodą keyset (seek).
+ * Zawiera wiersze w porządku wyświetlania oraz kursory pierwszego i ostatniego wiersza,
+ * od których można wyszukać sąsiednie strony. W odróżnieniu od PageResult nie zawiera łącznej
+ * liczby wierszy - nie zmienia się ona przy przechodzeniu między stronami, więc jest pobierana
+ * tylko z pierwszą stroną (getProjektyPage) lub osobno.
+ *
+ * @param <T> typ wierszy strony
+ */
+public class CursorPage<T> {
+    private final List<T> rows;
+    private final PageCursor firstCursor;
+    private final PageCursor lastCursor;
+    private final boolean hasNext;
+    private final boolean hasPrevious;
+
+    public CursorPage(List<T> rows, PageCursor firstCursor, PageCursor lastCursor,
+                      boolean hasNext, boolean hasPrevious) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.firstCursor = firstCursor;
+        this.lastCursor = lastCursor;
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+    }
+
+    /**
+     * Tworzy stronę projektów z kursorami jej pierwszego i ostatniego wiersza, np. ze strony
+     * pobranej przez getProjektyPage, aby dalsze strony można było wyszukiwać od kursora.
+     *
+     * @param projekty - wiersze strony w porządku wyświetlania
+     */
+    public static CursorPage<Projekt> of(List<Projekt> projekty, boolean hasNext, boolean hasPrevious) {
+        if (projekty.isEmpty()) {
+            return new CursorPage<>(projekty, null, null, hasNext, hasPrevious);
+        }
+        return new CursorPage<>(projekty, PageCursor.of(projekty.get(0)),
+                PageCursor.of(projekty.get(projekty.size() - 1)), hasNext, hasPrevious);
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return kursor pierwszego wiersza strony (null dla pustej strony)
+     */
+    public PageCursor getFirstCursor() {
+        return firstCursor;
+    }
+
+    /**
+     * @return kursor ostatniego wiersza strony (null dla pustej strony)
+     */
+    public PageCursor getLastCursor() {
+        return lastCursor;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+}
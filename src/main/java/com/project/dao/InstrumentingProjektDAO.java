@@ -0,0 +1,490 @@
+package com.project.dao;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.project.datasource.Jmx;
+import com.project.datasource.LatencyHistogram;
+import com.project.model.Projekt;
+
+/**
+ * Dekorator mierzący wywołania ProjektDAO - dla każdej metody liczbę wywołań, błędów i wierszy
+ * oraz histogram czasów wykonania. Pomiar wywołania to dwa odczyty System.nanoTime() i kilka
+ * operacji atomowych bez alokacji; parametry wywołania są formatowane tylko dla wywołań wolnych
+ * lub zakończonych błędem.
+ * Wywołania trwające co najmniej slowQueryThreshold są zapisywane z parametrami w logu
+ * {@value #SLOW_QUERY_LOGGER} (osobny plik w logback.xml), a błędy - w logu tej klasy.
+ * Umieszczony bezpośrednio nad ProjektDAOImpl mierzy zapytania do bazy, a nie trafienia w pamięci podręczne.
+ */
+public class InstrumentingProjektDAO extends ProjektDAODecorator {
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentingProjektDAO.class);
+    public static final String SLOW_QUERY_LOGGER = "com.project.slowquery";
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger(SLOW_QUERY_LOGGER);
+    public static final Duration DEFAULT_SLOW_QUERY_THRESHOLD = Duration.ofMillis(100);
+
+    private enum Method {
+        GET_PROJEKT("getProjekt"),
+        SET_PROJEKT("setProjekt"),
+        DELETE_PROJEKT("deleteProjekt"),
+        SET_PROJEKTY("setProjekty"),
+        DELETE_PROJEKTY("deleteProjekty"),
+        GET_PROJEKTY("getProjekty"),
+        GET_PROJEKTY_WHERE_ID_IN("getProjektyWhereIdIn"),
+        GET_PROJEKTY_SUMMARY_WHERE_ID_IN("getProjektySummaryWhereIdIn"),
+        GET_OPIS("getOpis"),
+        GET_PROJEKTY_WHERE_NAZWA_LIKE("getProjektyWhereNazwaLike"),
+        GET_PROJEKTY_WHERE_DATA_ODDANIA_IS("getProjektyWhereDataOddaniaIs"),
+        GET_ROWS_NUMBER("getRowsNumber"),
+        GET_ROWS_NUMBER_WHERE_NAZWA_LIKE("getRowsNumberWhereNazwaLike"),
+        GET_ROWS_NUMBER_WHERE_DATA_ODDANIA_IS("getRowsNumberWhereDataOddaniaIs"),
+        GET_PROJEKTY_PAGE("getProjektyPage"),
+        GET_PROJEKTY_SUMMARY_PAGE("getProjektySummaryPage"),
+        SEEK_PROJEKTY("seekProjekty"),
+        SEEK_PROJEKTY_SUMMARY("seekProjektySummary");
+
+        private final String methodName;
+
+        Method(String methodName) {
+            this.methodName = methodName;
+        }
+    }
+
+    /**
+     * Liczniki i histogram jednej metody.
+     */
+    private static final class MethodStats implements MethodStatsMXBean {
+        private final String method;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        MethodStats(String method) {
+            this.method = method;
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        @Override
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @Override
+        public long getRows() {
+            return rows.sum();
+        }
+
+        @Override
+        public long getSlowCalls() {
+            return slowCalls.sum();
+        }
+
+        @Override
+        public double getMeanMs() {
+            return latency.getMean() / 1e6;
+        }
+
+        @Override
+        public double getP50Ms() {
+            return latency.getValueAtPercentile(50) / 1e6;
+        }
+
+        @Override
+        public double getP90Ms() {
+            return latency.getValueAtPercentile(90) / 1e6;
+        }
+
+        @Override
+        public double getP99Ms() {
+            return latency.getValueAtPercentile(99) / 1e6;
+        }
+
+        @Override
+        public double getP999Ms() {
+            return latency.getValueAtPercentile(99.9) / 1e6;
+        }
+
+        @Override
+        public double getMaxMs() {
+            return latency.getMax() / 1e6;
+        }
+
+        @Override
+        public void reset() {
+            calls.reset();
+            errors.reset();
+            rows.reset();
+            slowCalls.reset();
+            latency.reset();
+        }
+
+        @Override
+        public String toString() {
+            return method + ": calls=" + getCalls() + ", errors=" + getErrors() + ", rows=" + getRows()
+                    + ", slow=" + getSlowCalls() + ", " + latency;
+        }
+    }
+
+    private final MethodStats[] stats;
+    private final long slowQueryNanos;
+
+    public InstrumentingProjektDAO(ProjektDAO delegate) {
+        this(delegate, DEFAULT_SLOW_QUERY_THRESHOLD);
+    }
+
+    /**
+     * @param delegate           - mierzone DAO
+     * @param slowQueryThreshold - czas, od którego wywołanie jest zapisywane w logu wolnych zapytań
+     */
+    public InstrumentingProjektDAO(ProjektDAO delegate, Duration slowQueryThreshold) {
+        super(delegate);
+        this.slowQueryNanos = slowQueryThreshold.toNanos();
+        Method[] methods = Method.values();
+        this.stats = new MethodStats[methods.length];
+        for (Method method : methods) {
+            stats[method.ordinal()] = new MethodStats(method.methodName);
+        }
+    }
+
+    /**
+     * @return statystyki metod wywołanych co najmniej raz
+     */
+    public List<MethodStatsMXBean> getMethodStats() {
+        return Arrays.stream(stats).filter(s -> s.getCalls() > 0).map(MethodStatsMXBean.class::cast).toList();
+    }
+
+    /**
+     * Publikuje statystyki każdej metody jako MBean com.project:type=ProjektDAO,method=&lt;nazwa&gt;.
+     */
+    public void registerMBeans() {
+        for (MethodStats methodStats : stats) {
+            Jmx.register("type=ProjektDAO,method=" + methodStats.getMethod(), methodStats);
+        }
+    }
+
+    @Override
+    public Projekt getProjekt(Integer projektId) {
+        long start = System.nanoTime();
+        try {
+            Projekt projekt = delegate.getProjekt(projektId);
+            if (completed(Method.GET_PROJEKT, start, projekt != null ? 1 : 0)) {
+                logSlow(Method.GET_PROJEKT, start, projektId);
+            }
+            return projekt;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKT, start, e, projektId);
+        }
+    }
+
+    @Override
+    public void setProjekt(Projekt projekt) {
+        long start = System.nanoTime();
+        try {
+            delegate.setProjekt(projekt);
+            if (completed(Method.SET_PROJEKT, start, 1)) {
+                logSlow(Method.SET_PROJEKT, start, projekt);
+            }
+        } catch (RuntimeException e) {
+            throw failed(Method.SET_PROJEKT, start, e, projekt);
+        }
+    }
+
+    @Override
+    public void deleteProjekt(Integer projektId) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteProjekt(projektId);
+            if (completed(Method.DELETE_PROJEKT, start, 1)) {
+                logSlow(Method.DELETE_PROJEKT, start, projektId);
+            }
+        } catch (RuntimeException e) {
+            throw failed(Method.DELETE_PROJEKT, start, e, projektId);
+        }
+    }
+
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        long start = System.nanoTime();
+        try {
+            delegate.setProjekty(projekty);
+            if (completed(Method.SET_PROJEKTY, start, projekty.size())) {
+                logSlow(Method.SET_PROJEKTY, start, projekty);
+            }
+        } catch (RuntimeException e) {
+            throw failed(Method.SET_PROJEKTY, start, e, projekty);
+        }
+    }
+
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        long start = System.nanoTime();
+        try {
+            delegate.deleteProjekty(projektIds);
+            if (completed(Method.DELETE_PROJEKTY, start, projektIds.size())) {
+                logSlow(Method.DELETE_PROJEKTY, start, projektIds);
+            }
+        } catch (RuntimeException e) {
+            throw failed(Method.DELETE_PROJEKTY, start, e, projektIds);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjekty(Integer offset, Integer limit) {
+        long start = System.nanoTime();
+        try {
+            List<Projekt> projekty = delegate.getProjekty(offset, limit);
+            if (completed(Method.GET_PROJEKTY, start, projekty.size())) {
+                logSlow(Method.GET_PROJEKTY, start, offset, limit);
+            }
+            return projekty;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY, start, e, offset, limit);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereIdIn(List<Integer> projektIds) {
+        long start = System.nanoTime();
+        try {
+            List<Projekt> projekty = delegate.getProjektyWhereIdIn(projektIds);
+            if (completed(Method.GET_PROJEKTY_WHERE_ID_IN, start, projekty.size())) {
+                logSlow(Method.GET_PROJEKTY_WHERE_ID_IN, start, projektIds);
+            }
+            return projekty;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY_WHERE_ID_IN, start, e, projektIds);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjektySummaryWhereIdIn(List<Integer> projektIds) {
+        long start = System.nanoTime();
+        try {
+            List<Projekt> projekty = delegate.getProjektySummaryWhereIdIn(projektIds);
+            if (completed(Method.GET_PROJEKTY_SUMMARY_WHERE_ID_IN, start, projekty.size())) {
+                logSlow(Method.GET_PROJEKTY_SUMMARY_WHERE_ID_IN, start, projektIds);
+            }
+            return projekty;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY_SUMMARY_WHERE_ID_IN, start, e, projektIds);
+        }
+    }
+
+    @Override
+    public String getOpis(Integer projektId) {
+        long start = System.nanoTime();
+        try {
+            String opis = delegate.getOpis(projektId);
+            if (completed(Method.GET_OPIS, start, opis != null ? 1 : 0)) {
+                logSlow(Method.GET_OPIS, start, projektId);
+            }
+            return opis;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_OPIS, start, e, projektId);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
+        long start = System.nanoTime();
+        try {
+            List<Projekt> projekty = delegate.getProjektyWhereNazwaLike(nazwa, offset, limit);
+            if (completed(Method.GET_PROJEKTY_WHERE_NAZWA_LIKE, start, projekty.size())) {
+                logSlow(Method.GET_PROJEKTY_WHERE_NAZWA_LIKE, start, nazwa, offset, limit);
+            }
+            return projekty;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY_WHERE_NAZWA_LIKE, start, e, nazwa, offset, limit);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereDataOddaniaIs(LocalDate dataOddania, Integer offset, Integer limit) {
+        long start = System.nanoTime();
+        try {
+            List<Projekt> projekty = delegate.getProjektyWhereDataOddaniaIs(dataOddania, offset, limit);
+            if (completed(Method.GET_PROJEKTY_WHERE_DATA_ODDANIA_IS, start, projekty.size())) {
+                logSlow(Method.GET_PROJEKTY_WHERE_DATA_ODDANIA_IS, start, dataOddania, offset, limit);
+            }
+            return projekty;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY_WHERE_DATA_ODDANIA_IS, start, e, dataOddania, offset, limit);
+        }
+    }
+
+    @Override
+    public int getRowsNumber() {
+        long start = System.nanoTime();
+        try {
+            int rows = delegate.getRowsNumber();
+            if (completed(Method.GET_ROWS_NUMBER, start, 1)) {
+                logSlow(Method.GET_ROWS_NUMBER, start);
+            }
+            return rows;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_ROWS_NUMBER, start, e);
+        }
+    }
+
+    @Override
+    public int getRowsNumberWhereNazwaLike(String nazwa) {
+        long start = System.nanoTime();
+        try {
+            int rows = delegate.getRowsNumberWhereNazwaLike(nazwa);
+            if (completed(Method.GET_ROWS_NUMBER_WHERE_NAZWA_LIKE, start, 1)) {
+                logSlow(Method.GET_ROWS_NUMBER_WHERE_NAZWA_LIKE, start, nazwa);
+            }
+            return rows;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_ROWS_NUMBER_WHERE_NAZWA_LIKE, start, e, nazwa);
+        }
+    }
+
+    @Override
+    public int getRowsNumberWhereDataOddaniaIs(LocalDate dataOddania) {
+        long start = System.nanoTime();
+        try {
+            int rows = delegate.getRowsNumberWhereDataOddaniaIs(dataOddania);
+            if (completed(Method.GET_ROWS_NUMBER_WHERE_DATA_ODDANIA_IS, start, 1)) {
+                logSlow(Method.GET_ROWS_NUMBER_WHERE_DATA_ODDANIA_IS, start, dataOddania);
+            }
+            return rows;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_ROWS_NUMBER_WHERE_DATA_ODDANIA_IS, start, e, dataOddania);
+        }
+    }
+
+    @Override
+    public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            PageResult<Projekt> page = delegate.getProjektyPage(filter, offset, limit);
+            if (completed(Method.GET_PROJEKTY_PAGE, start, page.getRows().size())) {
+                logSlow(Method.GET_PROJEKTY_PAGE, start, filter, offset, limit);
+            }
+            return page;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY_PAGE, start, e, filter, offset, limit);
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Projekt> projekty = delegate.getProjektySummaryPage(filter, offset, limit);
+            if (completed(Method.GET_PROJEKTY_SUMMARY_PAGE, start, projekty.size())) {
+                logSlow(Method.GET_PROJEKTY_SUMMARY_PAGE, start, filter, offset, limit);
+            }
+            return projekty;
+        } catch (RuntimeException e) {
+            throw failed(Method.GET_PROJEKTY_SUMMARY_PAGE, start, e, filter, offset, limit);
+        }
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        long start = System.nanoTime();
+        try {
+            CursorPage<Projekt> page = delegate.seekProjekty(filter, cursor, direction, limit);
+            if (completed(Method.SEEK_PROJEKTY, start, page.getRows().size())) {
+                logSlow(Method.SEEK_PROJEKTY, start, filter, cursor, direction, limit);
+            }
+            return page;
+        } catch (RuntimeException e) {
+            throw failed(Method.SEEK_PROJEKTY, start, e, filter, cursor, direction, limit);
+        }
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjektySummary(ProjektFilter filter, PageCursor cursor, PageDirection direction,
+                                                   int limit) {
+        long start = System.nanoTime();
+        try {
+            CursorPage<Projekt> page = delegate.seekProjektySummary(filter, cursor, direction, limit);
+            if (completed(Method.SEEK_PROJEKTY_SUMMARY, start, page.getRows().size())) {
+                logSlow(Method.SEEK_PROJEKTY_SUMMARY, start, filter, cursor, direction, limit);
+            }
+            return page;
+        } catch (RuntimeException e) {
+            throw failed(Method.SEEK_PROJEKTY_SUMMARY, start, e, filter, cursor, direction, limit);
+        }
+    }
+
+    /**
+     * Zapisuje pomiar udanego wywołania.
+     *
+     * @return czy wywołanie było wolne
+     */
+    private boolean completed(Method method, long start, int rows) {
+        long elapsed = System.nanoTime() - start;
+        MethodStats methodStats = stats[method.ordinal()];
+        methodStats.calls.increment();
+        methodStats.rows.add(rows);
+        methodStats.latency.record(elapsed);
+        if (elapsed >= slowQueryNanos) {
+            methodStats.slowCalls.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private RuntimeException failed(Method method, long start, RuntimeException e, Object... params) {
+        long elapsed = System.nanoTime() - start;
+        MethodStats methodStats = stats[method.ordinal()];
+        methodStats.calls.increment();
+        methodStats.errors.increment();
+        methodStats.latency.record(elapsed);
+        if (e instanceof QueryCancelledException) {
+            logger.debug("Anulowano {}({}) po {} ms", method.methodName, format(params), millis(elapsed));
+        } else {
+            logger.warn("Błąd {}({}) po {} ms", method.methodName, format(params), millis(elapsed), e);
+        }
+        return e;
+    }
+
+    private void logSlow(Method method, long start, Object... params) {
+        slowQueryLogger.warn("{}({}) - {} ms", method.methodName, format(params), millis(System.nanoTime() - start));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    /**
+     * Formatuje parametry wywołania - z kolekcji zapisuje tylko liczbę elementów, a z projektu ID i nazwę.
+     */
+    private static String format(Object... params) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (Object param : params) {
+            if (param instanceof Collection<?> collection) {
+                joiner.add("[" + collection.size() + " elementów]");
+            } else if (param instanceof Projekt projekt) {
+                joiner.add("Projekt[id=" + projekt.getProjektId() + ", nazwa=" + projekt.getNazwa() + "]");
+            } else if (param instanceof String text) {
+                joiner.add("'" + text + "'");
+            } else {
+                joiner.add(String.valueOf(param));
+            }
+        }
+        return joiner.toString();
+    }
+}
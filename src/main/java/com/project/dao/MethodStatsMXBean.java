@@ -0,0 +1,38 @@
+package com.project.dao;
+
+/**
+ * Statystyki wywołań jednej metody DAO publikowane przez JMX
+ * (com.project:type=ProjektDAO,method=...). Czasy są podawane w milisekundach.
+ */
+public interface MethodStatsMXBean {
+
+    String getMethod();
+
+    long getCalls();
+
+    long getErrors();
+
+    /**
+     * @return łączna liczba wierszy zwróconych (odczyty) lub przekazanych do zapisu (zapisy)
+     */
+    long getRows();
+
+    /**
+     * @return liczba wywołań trwających co najmniej próg wolnego zapytania
+     */
+    long getSlowCalls();
+
+    double getMeanMs();
+
+    double getP50Ms();
+
+    double getP90Ms();
+
+    double getP99Ms();
+
+    double getP999Ms();
+
+    double getMaxMs();
+
+    void reset();
+}
@@ -0,0 +1,183 @@
+package com.project.dao;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Indeks trigramowy nazw projektów do wyszukiwania fragmentów nazwy (odpowiednik LIKE '%x%').
+ * Dla każdego trigramu przechowuje posortowaną listę ID projektów w tablicy int[], a dla każdego
+ * projektu - jego nazwę i klucz sortowania (dataczas_utworzenia z dokładnością do mikrosekund).
+ * Tablice projektów są indeksowane wprost wartością projekt_id, która jest generowana sekwencyjnie.
+ * Klasa nie jest bezpieczna wielowątkowo - synchronizację zapewnia SearchIndexProjektDAO.
+ */
+final class NazwaSearchIndex {
+    static final int GRAM_LENGTH = 3;
+    /**
+     * Klucz sortowania projektu bez daty utworzenia - w porządku malejącym trafia na koniec.
+     */
+    static final long NO_DATE_KEY = Long.MIN_VALUE;
+
+    private String[] nazwy = new String[1024];
+    private long[] sortKeys = new long[1024];
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private int size;
+    private long modCount;
+
+    /**
+     * Posortowana rosnąco lista ID projektów zawierających dany trigram.
+     */
+    private static final class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            //Nowe projekty mają największe ID, więc zwykle wystarcza dopisanie na końcu
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+
+    /**
+     * Dodaje projekt do indeksu lub aktualizuje jego nazwę i datę utworzenia.
+     */
+    void put(int projektId, String nazwa, LocalDateTime dataCzasUtworzenia) {
+        remove(projektId);
+        modCount++;
+        ensureCapacity(projektId);
+        nazwy[projektId] = nazwa;
+        sortKeys[projektId] = sortKey(dataCzasUtworzenia);
+        size++;
+        for (long gram : grams(nazwa)) {
+            postings.computeIfAbsent(gram, g -> new PostingList()).add(projektId);
+        }
+    }
+
+    void remove(int projektId) {
+        if (projektId >= nazwy.length || nazwy[projektId] == null) {
+            return;
+        }
+        modCount++;
+        for (long gram : grams(nazwy[projektId])) {
+            PostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(projektId);
+                if (list.size == 0) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        nazwy[projektId] = null;
+        size--;
+    }
+
+    /**
+     * Zwraca ID projektów, których nazwa zawiera podany fragment.
+     * Kandydaci są wyznaczani przez przecięcie list trigramów fragmentu (od najkrótszej),
+     * a następnie sprawdzani dokładnym porównaniem nazwy.
+     *
+     * @param fragment - szukany fragment o długości co najmniej GRAM_LENGTH
+     * @return rosnąco posortowane ID pasujących projektów
+     */
+    int[] find(String fragment) {
+        long[] grams = grams(fragment);
+        PostingList[] lists = new PostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = new int[lists[0].size];
+        int count = 0;
+        candidates:
+        for (int i = 0; i < lists[0].size; i++) {
+            int id = lists[0].ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    continue candidates;
+                }
+            }
+            if (nazwy[id].contains(fragment)) {
+                result[count++] = id;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    long sortKey(int projektId) {
+        return sortKeys[projektId];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return licznik zmian indeksu - pozwala stwierdzić, czy wcześniejszy wynik find jest aktualny
+     */
+    long modCount() {
+        return modCount;
+    }
+
+    /**
+     * Zamienia datę utworzenia na liczbę mikrosekund od epoki - z taką dokładnością
+     * HSQLDB przechowuje TIMESTAMP, więc porządek zgadza się z ORDER BY w bazie.
+     */
+    static long sortKey(LocalDateTime dataCzasUtworzenia) {
+        if (dataCzasUtworzenia == null) {
+            return NO_DATE_KEY;
+        }
+        return dataCzasUtworzenia.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dataCzasUtworzenia.getNano() / 1_000;
+    }
+
+    private static long[] grams(String text) {
+        int count = Math.max(text.length() - GRAM_LENGTH + 1, 0);
+        long[] grams = new long[count];
+        for (int i = 0; i < count; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private void ensureCapacity(int projektId) {
+        if (projektId >= nazwy.length) {
+            int capacity = Math.max(nazwy.length * 2, projektId + 1);
+            nazwy = Arrays.copyOf(nazwy, capacity);
+            sortKeys = Arrays.copyOf(sortKeys, capacity);
+        }
+    }
+}
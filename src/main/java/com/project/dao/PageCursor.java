@@ -0,0 +1,56 @@
+package com.project.dao;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import com.project.model.Projekt;
+
+/**
+ * Nieprzezroczysty kursor stronicowania typu keyset (seek).
+ * Zapamiętuje pozycję wiersza w porządku (dataczas_utworzenia DESC, projekt_id DESC),
+ * od której DAO wyszukuje następną lub poprzednią stronę bez użycia OFFSET.
+ */
+public final class PageCursor {
+    private final LocalDateTime dataCzasUtworzenia;
+    private final int projektId;
+
+    PageCursor(LocalDateTime dataCzasUtworzenia, int projektId) {
+        this.dataCzasUtworzenia = Objects.requireNonNull(dataCzasUtworzenia);
+        this.projektId = projektId;
+    }
+
+    /**
+     * Kursor pozycji projektu odczytanego z bazy, np. do wyszukania stron sąsiadujących
+     * z wierszami pobranymi inaczej niż przez seekProjekty.
+     *
+     * @param projekt - projekt z ID i czasem utworzenia
+     */
+    public static PageCursor of(Projekt projekt) {
+        return new PageCursor(projekt.getDataCzasUtworzenia(), projekt.getProjektId());
+    }
+
+    LocalDateTime getDataCzasUtworzenia() {
+        return dataCzasUtworzenia;
+    }
+
+    int getProjektId() {
+        return projektId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PageCursor other)) return false;
+        return projektId == other.projektId && dataCzasUtworzenia.equals(other.dataCzasUtworzenia);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dataCzasUtworzenia.hashCode() + projektId;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor[" + dataCzasUtworzenia + ", " + projektId + "]";
+    }
+}
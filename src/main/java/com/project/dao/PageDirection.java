@@ -0,0 +1,10 @@
+package com.project.dao;
+
+/**
+ * Kierunek wyszukiwania strony względem kursora.
+ * NEXT - wiersze starsze niż kursor (kolejna strona), PREVIOUS - wiersze nowsze niż kursor (poprzednia strona).
+ */
+public enum PageDirection {
+    NEXT,
+    PREVIOUS
+}
@@ -0,0 +1,37 @@
+package com.project.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Strona wyników wraz z łączną liczbą wierszy spełniających kryteria zapytania.
+ * Wiersze i liczba wszystkich wyników są pobierane jednym zapytaniem.
+ *
+ * @param <T> typ wierszy strony
+ */
+public class PageResult<T> {
+    private final List<T> rows;
+    private final int total;
+    private final boolean hasNext;
+
+    public PageResult(List<T> rows, int total, boolean hasNext) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.total = total;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return liczba wszystkich wierszy spełniających kryteria zapytania (nie tylko tej strony)
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+}
@@ -1,6 +1,7 @@
 package com.project.dao;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import com.project.model.Projekt;
@@ -13,8 +14,18 @@ public interface ProjektDAO {
 
 	void deleteProjekt(Integer projektId);
 
+	void setProjekty(Collection<Projekt> projekty);
+
+	void deleteProjekty(Collection<Integer> projektIds);
+
 	List<Projekt> getProjekty(Integer offset, Integer limit);
 
+	List<Projekt> getProjektyWhereIdIn(List<Integer> projektIds);
+
+	List<Projekt> getProjektySummaryWhereIdIn(List<Integer> projektIds);
+
+	String getOpis(Integer projektId);
+
 	List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit);
 
 	List<Projekt> getProjektyWhereDataOddaniaIs(LocalDate dataOddania, Integer offset, Integer limit);
@@ -25,4 +36,12 @@ public interface ProjektDAO {
 
 	int getRowsNumberWhereDataOddaniaIs(LocalDate dataOddania);
 
+	PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit);
+
+	List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit);
+
+	CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit);
+
+	CursorPage<Projekt> seekProjektySummary(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit);
+
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.project.dao;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import com.project.model.Projekt;
+
+/**
+ * Bazowa klasa dekoratorów ProjektDAO - przekazuje wszystkie wywołania do opakowanego DAO.
+ * Podklasy nadpisują tylko te metody, których zachowanie zmieniają.
+ */
+public abstract class ProjektDAODecorator implements ProjektDAO {
+    protected final ProjektDAO delegate;
+
+    protected ProjektDAODecorator(ProjektDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return DAO opakowane przez ten dekorator
+     */
+    public ProjektDAO getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Powiadamia o zmianie projektów z pominięciem tego DAO, np. przez inną instancję aplikacji
+     * korzystającą z tej samej bazy. Dekoratory przechowujące dane projektów (pamięci podręczne,
+     * indeksy) nadpisują tę metodę; domyślnie powiadomienie jest tylko przekazywane do opakowanego dekoratora.
+     *
+     * @param projektIds - ID dodanych, zmienionych lub usuniętych projektów
+     */
+    public void changedExternally(Collection<Integer> projektIds) {
+        if (delegate instanceof ProjektDAODecorator decorator) {
+            decorator.changedExternally(projektIds);
+        }
+    }
+
+    @Override
+    public Projekt getProjekt(Integer projektId) {
+        return delegate.getProjekt(projektId);
+    }
+
+    @Override
+    public void setProjekt(Projekt projekt) {
+        delegate.setProjekt(projekt);
+    }
+
+    @Override
+    public void deleteProjekt(Integer projektId) {
+        delegate.deleteProjekt(projektId);
+    }
+
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        delegate.setProjekty(projekty);
+    }
+
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        delegate.deleteProjekty(projektIds);
+    }
+
+    @Override
+    public List<Projekt> getProjekty(Integer offset, Integer limit) {
+        return delegate.getProjekty(offset, limit);
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereIdIn(List<Integer> projektIds) {
+        return delegate.getProjektyWhereIdIn(projektIds);
+    }
+
+    @Override
+    public List<Projekt> getProjektySummaryWhereIdIn(List<Integer> projektIds) {
+        return delegate.getProjektySummaryWhereIdIn(projektIds);
+    }
+
+    @Override
+    public String getOpis(Integer projektId) {
+        return delegate.getOpis(projektId);
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
+        return delegate.getProjektyWhereNazwaLike(nazwa, offset, limit);
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereDataOddaniaIs(LocalDate dataOddania, Integer offset, Integer limit) {
+        return delegate.getProjektyWhereDataOddaniaIs(dataOddania, offset, limit);
+    }
+
+    @Override
+    public int getRowsNumber() {
+        return delegate.getRowsNumber();
+    }
+
+    @Override
+    public int getRowsNumberWhereNazwaLike(String nazwa) {
+        return delegate.getRowsNumberWhereNazwaLike(nazwa);
+    }
+
+    @Override
+    public int getRowsNumberWhereDataOddaniaIs(LocalDate dataOddania) {
+        return delegate.getRowsNumberWhereDataOddaniaIs(dataOddania);
+    }
+
+    @Override
+    public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+        return delegate.getProjektyPage(filter, offset, limit);
+    }
+
+    @Override
+    public List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit) {
+        return delegate.getProjektySummaryPage(filter, offset, limit);
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        return delegate.seekProjekty(filter, cursor, direction, limit);
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjektySummary(ProjektFilter filter, PageCursor cursor, PageDirection direction,
+                                                   int limit) {
+        return delegate.seekProjektySummary(filter, cursor, direction, limit);
+    }
+}
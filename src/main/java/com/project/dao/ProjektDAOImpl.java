@@ -7,10 +7,86 @@ import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ProjektDAOImpl implements ProjektDAO {
 
+    /**
+     * Domyślna liczba wierszy wysyłanych do bazy w jednym wywołaniu executeBatch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String INSERT_QUERY =
+            "INSERT INTO projekt(nazwa, opis, dataczas_utworzenia, data_oddania) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_QUERY =
+            "UPDATE projekt SET nazwa = ?, opis = ?, dataczas_utworzenia = ?, data_oddania = ? WHERE projekt_id = ?";
+    private static final String DELETE_QUERY = "DELETE FROM projekt WHERE projekt_id = ?";
+    private static final String SELECT_BY_ID_QUERY =
+            "SELECT " + ProjektRowMapper.COLUMNS + " FROM projekt WHERE projekt_id = ?";
+    private static final String SELECT_WHERE_ID_IN_QUERY =
+            "SELECT " + ProjektRowMapper.COLUMNS + " FROM projekt WHERE projekt_id IN (UNNEST(?))";
+    private static final String SELECT_SUMMARY_WHERE_ID_IN_QUERY =
+            "SELECT " + ProjektSummaryRowMapper.COLUMNS + " FROM projekt WHERE projekt_id IN (UNNEST(?))";
+    private static final String SELECT_OPIS_QUERY = "SELECT opis FROM projekt WHERE projekt_id = ?";
+
+    /*
+    Warianty zapytań są budowane raz, aby dla danego kształtu zapytania (filtr, stronicowanie,
+    kierunek) treść SQL była zawsze tym samym obiektem i mogła trafić do StatementCache.
+    Zapytania list są indeksowane przez paginationIndex, zliczające i stron - przez filterIndex.
+    */
+    private static final String ORDER_BY_DESC = " ORDER BY dataczas_utworzenia DESC, projekt_id DESC";
+    private static final String ORDER_BY_ASC = " ORDER BY dataczas_utworzenia ASC, projekt_id ASC";
+    private static final String[] FILTER_CONDITIONS = {"", " WHERE nazwa LIKE ?", " WHERE data_oddania = ?"};
+    private static final String[] SELECT_QUERIES =
+            paginationVariants("SELECT " + ProjektRowMapper.COLUMNS + " FROM projekt" + ORDER_BY_DESC);
+    private static final String[] SELECT_WHERE_NAZWA_LIKE_QUERIES =
+            paginationVariants("SELECT " + ProjektRowMapper.COLUMNS + " FROM projekt WHERE nazwa LIKE ?" + ORDER_BY_DESC);
+    private static final String[] SELECT_WHERE_DATA_ODDANIA_QUERIES =
+            paginationVariants("SELECT " + ProjektRowMapper.COLUMNS + " FROM projekt WHERE data_oddania = ?" + ORDER_BY_DESC);
+    private static final String[] COUNT_QUERIES = new String[FILTER_CONDITIONS.length];
+    private static final String[] PAGE_QUERIES = new String[FILTER_CONDITIONS.length];
+    private static final String[] SUMMARY_PAGE_QUERIES = new String[FILTER_CONDITIONS.length];
+    //Indeks drugi: 0 - pierwsza strona, 1 - ostatnia strona, 2 - strona za kursorem, 3 - strona przed kursorem
+    private static final String[][] SEEK_QUERIES = new String[FILTER_CONDITIONS.length][];
+    private static final String[][] SEEK_SUMMARY_QUERIES = new String[FILTER_CONDITIONS.length][];
+
+    static {
+        for (int f = 0; f < FILTER_CONDITIONS.length; f++) {
+            String where = FILTER_CONDITIONS[f];
+            COUNT_QUERIES[f] = "SELECT COUNT(*) FROM projekt" + where;
+            PAGE_QUERIES[f] = pageSelect(ProjektRowMapper.COLUMNS, where) + ORDER_BY_DESC + " OFFSET ? LIMIT ?";
+            SUMMARY_PAGE_QUERIES[f] = select(ProjektSummaryRowMapper.COLUMNS, where) + ORDER_BY_DESC
+                    + " OFFSET ? LIMIT ?";
+            SEEK_QUERIES[f] = seekVariants(ProjektRowMapper.COLUMNS, where);
+            SEEK_SUMMARY_QUERIES[f] = seekVariants(ProjektSummaryRowMapper.COLUMNS, where);
+        }
+    }
+
+    private static final ProjektRowMapper MAPPER = ProjektRowMapper.INSTANCE;
+    private static final ProjektSummaryRowMapper SUMMARY_MAPPER = ProjektSummaryRowMapper.INSTANCE;
+
+    private final int batchSize;
+    private final StatementCache statements;
+
+    public ProjektDAOImpl() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize - liczba wierszy wysyłanych w jednym wywołaniu executeBatch przez operacje zbiorcze
+     */
+    public ProjektDAOImpl(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize musi być dodatni: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.statements = StatementCache.shared();
+    }
+
     /**
      * Dodaje nowy projekt do bazy danych lub aktualizuje istniejący projekt.
      * Jeśli `projektId` jest null, wykonuje operację INSERT, w przeciwnym razie UPDATE.
@@ -19,13 +95,11 @@ public class ProjektDAOImpl implements ProjektDAO {
      */
     @Override
     public void setProjekt(Projekt projekt) {
+        requireFullOpis(projekt);
         boolean isInsert = projekt.getProjektId() == null;
-        String query = isInsert ?
-                "INSERT INTO projekt(nazwa, opis, dataczas_utworzenia, data_oddania) VALUES (?, ?, ?, ?)"
-                : "UPDATE projekt SET nazwa = ?, opis = ?, dataczas_utworzenia = ?, data_oddania = ?"
-                + " WHERE projekt_id = ?";
+        String query = isInsert ? INSERT_QUERY : UPDATE_QUERY;
         try (Connection connect = DataSource.getConnection();
-             PreparedStatement prepStmt = connect.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement prepStmt = statements.prepare(connect, query, Statement.RETURN_GENERATED_KEYS)) {
             //Wstawianie do zapytania odpowiednich wartości w miejsce znaków '?'
             //Uwaga! Indeksowanie znaków '?' zaczyna się od 1!
             prepStmt.setString(1, projekt.getNazwa());
@@ -46,7 +120,7 @@ public class ProjektDAOImpl implements ProjektDAO {
                 keys.close();
             }
         }catch(SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
     }
 
@@ -61,11 +135,9 @@ public class ProjektDAOImpl implements ProjektDAO {
     @Override
     public List<Projekt> getProjekty(Integer offset, Integer limit) {
         List<Projekt> projekty = new ArrayList<>();
-        String query = "SELECT * FROM projekt ORDER BY dataczas_utworzenia DESC"
-                + (offset != null ? " OFFSET ?" : "")
-                + (limit != null ? " LIMIT ?" : "");
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+        String query = SELECT_QUERIES[paginationIndex(offset, limit)];
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
             int i = 1;
             if (offset != null) {
                 preparedStmt.setInt(i, offset);
@@ -74,19 +146,62 @@ public class ProjektDAOImpl implements ProjektDAO {
             if (limit != null) {
                 preparedStmt.setInt(i, limit);
             }
-            try (ResultSet rs = preparedStmt.executeQuery()) {
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                MAPPER.mapAll(rs, projekty);
+            }
+        }catch(SQLException e) {
+            throw queryFailed(e);
+        }
+        return projekty;
+    }
+
+    /**
+     * Pobiera projekty o podanych ID jednym zapytaniem (tablica ID przekazywana jako parametr).
+     * Projekty są zwracane w kolejności identyfikatorów na liście; nieistniejące ID są pomijane.
+     *
+     * @param projektIds - ID projektów do pobrania
+     * @return lista projektów w kolejności podanych ID
+     */
+    @Override
+    public List<Projekt> getProjektyWhereIdIn(List<Integer> projektIds) {
+        return selectWhereIdIn(projektIds, SELECT_WHERE_ID_IN_QUERY, MAPPER);
+    }
+
+    /**
+     * Pobiera skróconą projekcję projektów o podanych ID - zamiast pełnego opisu tylko jego
+     * początek (ProjektSummaryRowMapper.OPIS_PREFIX_LENGTH znaków), patrz seekProjektySummary.
+     *
+     * @param projektIds - ID projektów do pobrania
+     * @return lista projektów w kolejności podanych ID
+     */
+    @Override
+    public List<Projekt> getProjektySummaryWhereIdIn(List<Integer> projektIds) {
+        return selectWhereIdIn(projektIds, SELECT_SUMMARY_WHERE_ID_IN_QUERY, SUMMARY_MAPPER);
+    }
+
+    private List<Projekt> selectWhereIdIn(List<Integer> projektIds, String query, RowMapper<Projekt> mapper) {
+        if (projektIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Projekt> byId = new HashMap<>();
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
+            preparedStmt.setArray(1, connect.createArrayOf("INTEGER", projektIds.toArray()));
+            try (ResultSet rs = executeQuery(preparedStmt)) {
                 while (rs.next()) {
-                    Projekt projekt = new Projekt();
-                    projekt.setProjektId(rs.getInt("projekt_id"));
-                    projekt.setNazwa(rs.getString("nazwa"));
-                    projekt.setOpis(rs.getString("opis"));
-                    projekt.setDataCzasUtworzenia(rs.getObject("dataczas_utworzenia", LocalDateTime.class));
-                    projekt.setDataOddania(rs.getObject("data_oddania", LocalDate.class));
-                    projekty.add(projekt);
+                    Projekt projekt = mapper.mapRow(rs);
+                    byId.put(projekt.getProjektId(), projekt);
                 }
             }
-        }catch(SQLException e) {
-            throw new RuntimeException(e);
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+        List<Projekt> projekty = new ArrayList<>(byId.size());
+        for (Integer projektId : projektIds) {
+            Projekt projekt = byId.get(projektId);
+            if (projekt != null) {
+                projekty.add(projekt);
+            }
         }
         return projekty;
     }
@@ -99,27 +214,39 @@ public class ProjektDAOImpl implements ProjektDAO {
      */
     @Override
     public Projekt getProjekt(Integer projektId) {
-        String query = "SELECT * FROM projekt WHERE projekt_id = ?";
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_BY_ID_QUERY)) {
             preparedStmt.setInt(1, projektId);
-            try (ResultSet rs = preparedStmt.executeQuery()) {
+            try (ResultSet rs = executeQuery(preparedStmt)) {
                 if (rs.next()) {
-                    Projekt projekt = new Projekt();
-                    projekt.setProjektId(rs.getInt("projekt_id"));
-                    projekt.setNazwa(rs.getString("nazwa"));
-                    projekt.setOpis(rs.getString("opis"));
-                    projekt.setDataCzasUtworzenia(rs.getObject("dataczas_utworzenia", LocalDateTime.class));
-                    projekt.setDataOddania(rs.getObject("data_oddania", LocalDate.class));
-                    return projekt;
+                    return MAPPER.mapRow(rs);
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
         return null;
     }
 
+    /**
+     * Pobiera pełny opis projektu - uzupełnia projekty pobrane w skróconej projekcji.
+     *
+     * @param projektId - ID projektu
+     * @return opis projektu lub null, jeśli projekt nie istnieje
+     */
+    @Override
+    public String getOpis(Integer projektId) {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_OPIS_QUERY)) {
+            preparedStmt.setInt(1, projektId);
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+    }
+
     /**
      * Usuwa projekt z bazy danych na podstawie jego ID.
      *
@@ -127,13 +254,144 @@ public class ProjektDAOImpl implements ProjektDAO {
      */
     @Override
     public void deleteProjekt(Integer projektId) {
-        String query = "DELETE FROM projekt WHERE projekt_id = ?";
         try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+             PreparedStatement preparedStmt = statements.prepare(connect, DELETE_QUERY)) {
             preparedStmt.setInt(1, projektId);
             preparedStmt.executeUpdate();
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
+        }
+    }
+
+    /**
+     * Zapisuje wiele projektów w jednej transakcji, wysyłając je do bazy paczkami (addBatch/executeBatch).
+     * Projekty bez `projektId` są wstawiane, a wygenerowane klucze główne są przypisywane
+     * z powrotem do obiektów; pozostałe są aktualizowane.
+     * W razie błędu cała transakcja jest wycofywana.
+     *
+     * @param projekty - projekty do zapisania w bazie danych
+     */
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        if (projekty.isEmpty()) {
+            return;
+        }
+        List<Projekt> inserts = new ArrayList<>();
+        List<Projekt> updates = new ArrayList<>();
+        for (Projekt projekt : projekty) {
+            requireFullOpis(projekt);
+            if (projekt.getDataCzasUtworzenia() == null)
+                projekt.setDataCzasUtworzenia(LocalDateTime.now());
+            (projekt.getProjektId() == null ? inserts : updates).add(projekt);
+        }
+        try (Connection connect = DataSource.getConnection()) {
+            boolean initialAutocommit = connect.getAutoCommit();
+            connect.setAutoCommit(false);
+            try {
+                if (!inserts.isEmpty()) {
+                    insertBatch(connect, inserts);
+                }
+                if (!updates.isEmpty()) {
+                    updateBatch(connect, updates);
+                }
+                connect.commit();
+            } catch (SQLException | RuntimeException e) {
+                connect.rollback();
+                //Klucze przypisane w wycofanej transakcji nie istnieją w bazie
+                inserts.forEach(projekt -> projekt.setProjektId(null));
+                throw e;
+            } finally {
+                if (initialAutocommit)
+                    connect.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+    }
+
+    private void insertBatch(Connection connect, List<Projekt> inserts) throws SQLException {
+        try (PreparedStatement prepStmt = statements.prepare(connect, INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+            for (int from = 0; from < inserts.size(); from += batchSize) {
+                List<Projekt> chunk = inserts.subList(from, Math.min(from + batchSize, inserts.size()));
+                for (Projekt projekt : chunk) {
+                    prepStmt.setString(1, projekt.getNazwa());
+                    prepStmt.setString(2, projekt.getOpis());
+                    prepStmt.setObject(3, projekt.getDataCzasUtworzenia());
+                    prepStmt.setObject(4, projekt.getDataOddania());
+                    prepStmt.addBatch();
+                }
+                prepStmt.executeBatch();
+                //Klucze są zwracane w kolejności dodawania wierszy do paczki
+                try (ResultSet keys = prepStmt.getGeneratedKeys()) {
+                    for (Projekt projekt : chunk) {
+                        if (!keys.next()) {
+                            throw new SQLException("Brak wygenerowanego klucza dla projektu: " + projekt.getNazwa());
+                        }
+                        projekt.setProjektId(keys.getInt(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private void updateBatch(Connection connect, List<Projekt> updates) throws SQLException {
+        try (PreparedStatement prepStmt = statements.prepare(connect, UPDATE_QUERY)) {
+            int inBatch = 0;
+            for (Projekt projekt : updates) {
+                prepStmt.setString(1, projekt.getNazwa());
+                prepStmt.setString(2, projekt.getOpis());
+                prepStmt.setObject(3, projekt.getDataCzasUtworzenia());
+                prepStmt.setObject(4, projekt.getDataOddania());
+                prepStmt.setInt(5, projekt.getProjektId());
+                prepStmt.addBatch();
+                if (++inBatch == batchSize) {
+                    prepStmt.executeBatch();
+                    inBatch = 0;
+                }
+            }
+            if (inBatch > 0) {
+                prepStmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Usuwa wiele projektów w jednej transakcji, wysyłając polecenia DELETE paczkami.
+     * W razie błędu cała transakcja jest wycofywana.
+     *
+     * @param projektIds - ID projektów do usunięcia
+     */
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        if (projektIds.isEmpty()) {
+            return;
+        }
+        try (Connection connect = DataSource.getConnection()) {
+            boolean initialAutocommit = connect.getAutoCommit();
+            connect.setAutoCommit(false);
+            try (PreparedStatement preparedStmt = statements.prepare(connect, DELETE_QUERY)) {
+                int inBatch = 0;
+                for (Integer projektId : projektIds) {
+                    preparedStmt.setInt(1, projektId);
+                    preparedStmt.addBatch();
+                    if (++inBatch == batchSize) {
+                        preparedStmt.executeBatch();
+                        inBatch = 0;
+                    }
+                }
+                if (inBatch > 0) {
+                    preparedStmt.executeBatch();
+                }
+                connect.commit();
+            } catch (SQLException | RuntimeException e) {
+                connect.rollback();
+                throw e;
+            } finally {
+                if (initialAutocommit)
+                    connect.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
         }
     }
 
@@ -149,11 +407,9 @@ public class ProjektDAOImpl implements ProjektDAO {
     @Override
     public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
         List<Projekt> projekty = new ArrayList<>();
-        String query = "SELECT * FROM projekt WHERE nazwa LIKE ? ORDER BY dataczas_utworzenia DESC"
-                + (offset != null ? " OFFSET ?" : "")
-                + (limit != null ? " LIMIT ?" : "");
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+        String query = SELECT_WHERE_NAZWA_LIKE_QUERIES[paginationIndex(offset, limit)];
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
             int i = 1;
             preparedStmt.setString(i, "%" + nazwa + "%");
             i += 1;
@@ -164,19 +420,11 @@ public class ProjektDAOImpl implements ProjektDAO {
             if (limit != null) {
                 preparedStmt.setInt(i, limit);
             }
-            try (ResultSet rs = preparedStmt.executeQuery()) {
-                while (rs.next()) {
-                    Projekt projekt = new Projekt();
-                    projekt.setProjektId(rs.getInt("projekt_id"));
-                    projekt.setNazwa(rs.getString("nazwa"));
-                    projekt.setOpis(rs.getString("opis"));
-                    projekt.setDataCzasUtworzenia(rs.getObject("dataczas_utworzenia", LocalDateTime.class));
-                    projekt.setDataOddania(rs.getObject("data_oddania", LocalDate.class));
-                    projekty.add(projekt);
-                }
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                MAPPER.mapAll(rs, projekty);
             }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
         return projekty;
     }
@@ -193,11 +441,9 @@ public class ProjektDAOImpl implements ProjektDAO {
     @Override
     public List<Projekt> getProjektyWhereDataOddaniaIs(LocalDate dataOddania, Integer offset, Integer limit) {
         List<Projekt> projekty = new ArrayList<>();
-        String query = "SELECT * FROM projekt WHERE data_oddania = ? ORDER BY dataczas_utworzenia DESC"
-                + (offset != null ? " OFFSET ?" : "")
-                + (limit != null ? " LIMIT ?" : "");
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+        String query = SELECT_WHERE_DATA_ODDANIA_QUERIES[paginationIndex(offset, limit)];
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
             int i = 1;
             preparedStmt.setObject(i, dataOddania);
             i += 1;
@@ -208,19 +454,11 @@ public class ProjektDAOImpl implements ProjektDAO {
             if (limit != null) {
                 preparedStmt.setInt(i, limit);
             }
-            try (ResultSet rs = preparedStmt.executeQuery()) {
-                while (rs.next()) {
-                    Projekt projekt = new Projekt();
-                    projekt.setProjektId(rs.getInt("projekt_id"));
-                    projekt.setNazwa(rs.getString("nazwa"));
-                    projekt.setOpis(rs.getString("opis"));
-                    projekt.setDataCzasUtworzenia(rs.getObject("dataczas_utworzenia", LocalDateTime.class));
-                    projekt.setDataOddania(rs.getObject("data_oddania", LocalDate.class));
-                    projekty.add(projekt);
-                }
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                MAPPER.mapAll(rs, projekty);
             }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
         return projekty;
     }
@@ -232,15 +470,14 @@ public class ProjektDAOImpl implements ProjektDAO {
      */
     @Override
     public int getRowsNumber() {
-        String query = "SELECT COUNT(*) FROM projekt";
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query);
-             ResultSet rs = preparedStmt.executeQuery()) {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, COUNT_QUERIES[0]);
+             ResultSet rs = executeQuery(preparedStmt)) {
             if (rs.next()) {
                 return rs.getInt(1);
             }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
         return 0;
     }
@@ -253,17 +490,16 @@ public class ProjektDAOImpl implements ProjektDAO {
      */
     @Override
     public int getRowsNumberWhereNazwaLike(String nazwa) {
-        String query = "SELECT COUNT(*) FROM projekt WHERE nazwa LIKE ?";
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, COUNT_QUERIES[1])) {
             preparedStmt.setString(1, "%" + nazwa + "%");
-            try (ResultSet rs = preparedStmt.executeQuery()) {
+            try (ResultSet rs = executeQuery(preparedStmt)) {
                 if (rs.next()) {
                     return rs.getInt(1);
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
         return 0;
     }
@@ -276,18 +512,279 @@ public class ProjektDAOImpl implements ProjektDAO {
      */
     @Override
     public int getRowsNumberWhereDataOddaniaIs(LocalDate dataOddania) {
-        String query = "SELECT COUNT(*) FROM projekt WHERE data_oddania = ?";
-        try (Connection connect = DataSource.getConnection();
-             PreparedStatement preparedStmt = connect.prepareStatement(query)) {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, COUNT_QUERIES[2])) {
             preparedStmt.setObject(1, dataOddania);
-            try (ResultSet rs = preparedStmt.executeQuery()) {
+            try (ResultSet rs = executeQuery(preparedStmt)) {
                 if (rs.next()) {
                     return rs.getInt(1);
                 }
             }
         } catch (SQLException e) {
-            throw new RuntimeException(e);
+            throw queryFailed(e);
         }
         return 0;
     }
+
+    /**
+     * Pobiera stronę projektów wraz z łączną liczbą projektów spełniających kryterium.
+     * Liczba wierszy jest wyznaczana nieskorelowanym podzapytaniem w tym samym zapytaniu,
+     * więc strona i licznik wymagają jednego odwołania do bazy.
+     * Projekty są sortowane malejąco według (dataczas_utworzenia, projekt_id).
+     *
+     * @param filter - kryterium filtrowania projektów
+     * @param offset - liczba pominiętych projektów
+     * @param limit  - maksymalna liczba projektów na stronie
+     * @return strona projektów z łączną liczbą wyników
+     */
+    @Override
+    public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+        String query = PAGE_QUERIES[filterIndex(filter)];
+        List<Projekt> projekty = new ArrayList<>();
+        int total;
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
+            int i = bindFilter(preparedStmt, 1, filter);
+            i = bindFilter(preparedStmt, i, filter);
+            preparedStmt.setInt(i++, offset);
+            preparedStmt.setInt(i, limit);
+            total = readPage(preparedStmt, projekty, MAPPER, ProjektRowMapper.COLUMN_COUNT);
+            if (projekty.isEmpty()) {
+                total = countRows(connect, filter);
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+        return new PageResult<>(projekty, total, offset + projekty.size() < total);
+    }
+
+    /**
+     * Pobiera projekty od podanej pozycji (OFFSET) w skróconej projekcji, jak seekProjektySummary,
+     * i bez liczenia wszystkich projektów spełniających kryterium - dla skoku w dowolne miejsce listy,
+     * gdy nie ma kursora sąsiedniej strony.
+     * Projekty są sortowane malejąco według (dataczas_utworzenia, projekt_id).
+     *
+     * @param filter - kryterium filtrowania projektów
+     * @param offset - liczba pominiętych projektów
+     * @param limit  - maksymalna liczba projektów
+     * @return lista projektów w skróconej projekcji
+     */
+    @Override
+    public List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit) {
+        String query = SUMMARY_PAGE_QUERIES[filterIndex(filter)];
+        List<Projekt> projekty = new ArrayList<>();
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
+            int i = bindFilter(preparedStmt, 1, filter);
+            preparedStmt.setInt(i++, offset);
+            preparedStmt.setInt(i, limit);
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                SUMMARY_MAPPER.mapAll(rs, projekty);
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+        return projekty;
+    }
+
+    /**
+     * Pobiera stronę projektów metodą keyset (seek) zamiast OFFSET.
+     * Projekty są sortowane malejąco według (dataczas_utworzenia, projekt_id), a zapytanie
+     * zaczyna się od pozycji kursora, dzięki czemu korzysta z indeksu projekt_dataczas_idx
+     * i ma stały koszt niezależnie od numeru strony.
+     * Kursor null z kierunkiem NEXT oznacza pierwszą stronę, a z kierunkiem PREVIOUS - ostatnią.
+     * Jeśli wyszukiwanie wstecz dojdzie do początku listy, zwracana jest pełna pierwsza strona.
+     * Zapytanie nie liczy projektów spełniających kryterium - liczba nie zmienia się przy przechodzeniu
+     * między stronami, więc wywołujący pobiera ją tylko po zmianie kryterium - razem z pierwszą stroną
+     * (getProjektyPage) lub osobno (getRowsNumber*).
+     *
+     * @param filter    - kryterium filtrowania projektów
+     * @param cursor    - kursor, od którego wyszukiwana jest strona (może być null)
+     * @param direction - kierunek wyszukiwania względem kursora
+     * @param limit     - maksymalna liczba projektów na stronie
+     * @return strona projektów wraz z kursorami sąsiednich stron
+     */
+    @Override
+    public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        return seek(filter, cursor, direction, limit, false);
+    }
+
+    /**
+     * Pobiera stronę projektów tak jak seekProjekty, ale w skróconej projekcji: zamiast pełnego
+     * opisu tylko jego początek (ProjektSummaryRowMapper.OPIS_PREFIX_LENGTH znaków), z ustawionym
+     * Projekt.isOpisSkrocony(), jeśli opis był dłuższy. Pełny opis zwraca getOpis.
+     * Zmniejsza ilość danych odczytywanych dla strony oraz pamięć zajmowaną przez wyświetlane projekty.
+     */
+    @Override
+    public CursorPage<Projekt> seekProjektySummary(ProjektFilter filter, PageCursor cursor, PageDirection direction,
+                                                   int limit) {
+        return seek(filter, cursor, direction, limit, true);
+    }
+
+    private CursorPage<Projekt> seek(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit,
+                                     boolean summary) {
+        boolean forward = direction == PageDirection.NEXT;
+        String query = (summary ? SEEK_SUMMARY_QUERIES : SEEK_QUERIES)[filterIndex(filter)]
+                [(cursor != null ? 2 : 0) + (forward ? 0 : 1)];
+        List<Projekt> projekty = new ArrayList<>();
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, query)) {
+            int i = bindFilter(preparedStmt, 1, filter);
+            if (cursor != null) {
+                preparedStmt.setObject(i++, cursor.getDataCzasUtworzenia());
+                preparedStmt.setObject(i++, cursor.getDataCzasUtworzenia());
+                preparedStmt.setInt(i++, cursor.getProjektId());
+            }
+            //Pobieramy jeden wiersz więcej, aby wiedzieć, czy istnieje kolejna strona w tym kierunku
+            preparedStmt.setInt(i, limit + 1);
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                if (summary) {
+                    SUMMARY_MAPPER.mapAll(rs, projekty);
+                } else {
+                    MAPPER.mapAll(rs, projekty);
+                }
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+        boolean hasMore = projekty.size() > limit;
+        if (hasMore) {
+            projekty.remove(projekty.size() - 1);
+        }
+        if (forward) {
+            return CursorPage.of(projekty, hasMore, cursor != null);
+        }
+        if (!hasMore && cursor != null) {
+            return seek(filter, null, PageDirection.NEXT, limit, summary);
+        }
+        Collections.reverse(projekty);
+        return CursorPage.of(projekty, cursor != null, hasMore);
+    }
+
+    /**
+     * Wykonuje zapytanie, rejestrując je w tokenie anulowania bieżącego wątku (jeśli istnieje),
+     * aby CancellationToken.cancel() mógł je przerwać w bazie.
+     */
+    private static ResultSet executeQuery(PreparedStatement preparedStmt) throws SQLException {
+        CancellationToken.register(preparedStmt);
+        try {
+            return preparedStmt.executeQuery();
+        } finally {
+            CancellationToken.unregister(preparedStmt);
+        }
+    }
+
+    /**
+     * Zamienia błąd zapytania lub zapisu na wyjątek niekontrolowany - ten sam dla odczytów i zapisów;
+     * zapytanie przerwane przez anulowanie tokenu zgłaszane jest jako QueryCancelledException.
+     */
+    private static RuntimeException queryFailed(SQLException e) {
+        return CancellationToken.isCurrentCancelled() ? new QueryCancelledException(e) : new RuntimeException(e);
+    }
+
+    /**
+     * Zapis projektu ze skróconej projekcji nadpisałby pełny opis jego początkiem.
+     */
+    private static void requireFullOpis(Projekt projekt) {
+        if (projekt.isOpisSkrocony()) {
+            throw new IllegalArgumentException("Projekt " + projekt.getProjektId()
+                    + " ma skrócony opis - przed zapisem należy pobrać pełny opis (getOpis)");
+        }
+    }
+
+    /**
+     * Zwraca indeks klauzuli WHERE filtra w FILTER_CONDITIONS (0 dla filtra bez kryteriów).
+     */
+    private static int filterIndex(ProjektFilter filter) {
+        if (filter.getNazwa() != null) {
+            return 1;
+        }
+        if (filter.getDataOddania() != null) {
+            return 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Zwraca indeks wariantu zapytania z paginationVariants dla podanych parametrów stronicowania.
+     */
+    private static int paginationIndex(Integer offset, Integer limit) {
+        return (offset != null ? 1 : 0) | (limit != null ? 2 : 0);
+    }
+
+    private static String pageSelect(String columns, String where) {
+        return "SELECT " + columns + ", (SELECT COUNT(*) FROM projekt" + where + ") AS total_rows FROM projekt" + where;
+    }
+
+    private static String select(String columns, String where) {
+        return "SELECT " + columns + " FROM projekt" + where;
+    }
+
+    /**
+     * Buduje warianty zapytania seekProjekty dla podanej listy kolumn i klauzuli WHERE.
+     */
+    private static String[] seekVariants(String columns, String where) {
+        String select = select(columns, where);
+        //Pierwszy warunek zawęża zakres skanowania indeksu, drugi pomija wiersze o tym samym czasie
+        String and = where.isEmpty() ? " WHERE " : " AND ";
+        return new String[]{
+                select + ORDER_BY_DESC + " LIMIT ?",
+                select + ORDER_BY_ASC + " LIMIT ?",
+                select + and + "dataczas_utworzenia <= ? AND (dataczas_utworzenia < ? OR projekt_id < ?)"
+                        + ORDER_BY_DESC + " LIMIT ?",
+                select + and + "dataczas_utworzenia >= ? AND (dataczas_utworzenia > ? OR projekt_id > ?)"
+                        + ORDER_BY_ASC + " LIMIT ?"};
+    }
+
+    /**
+     * Buduje warianty zapytania bez stronicowania, z OFFSET, z LIMIT oraz z OFFSET i LIMIT.
+     */
+    private static String[] paginationVariants(String query) {
+        return new String[]{query, query + " OFFSET ?", query + " LIMIT ?", query + " OFFSET ? LIMIT ?"};
+    }
+
+    /**
+     * Wstawia parametry filtra w miejsce znaków '?' klauzuli z FILTER_CONDITIONS.
+     *
+     * @return indeks następnego parametru zapytania
+     */
+    private static int bindFilter(PreparedStatement preparedStmt, int i, ProjektFilter filter) throws SQLException {
+        if (filter.getNazwa() != null) {
+            preparedStmt.setString(i++, "%" + filter.getNazwa() + "%");
+        } else if (filter.getDataOddania() != null) {
+            preparedStmt.setObject(i++, filter.getDataOddania());
+        }
+        return i;
+    }
+
+    /**
+     * Odczytuje wiersze strony z zapytania zawierającego kolumnę total_rows za kolumnami mappera.
+     *
+     * @param columnCount - liczba kolumn odczytywanych przez mapper
+     * @return wartość total_rows lub 0, jeśli zapytanie nie zwróciło wierszy
+     */
+    private static int readPage(PreparedStatement preparedStmt, List<Projekt> projekty, RowMapper<Projekt> mapper,
+                                int columnCount) throws SQLException {
+        int total = 0;
+        try (ResultSet rs = executeQuery(preparedStmt)) {
+            while (rs.next()) {
+                projekty.add(mapper.mapRow(rs));
+                total = rs.getInt(columnCount + 1);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Liczy projekty spełniające kryterium na już pobranym połączeniu - używane tylko wtedy,
+     * gdy strona jest pusta i łączna liczba nie mogła zostać odczytana z jej wierszy.
+     */
+    private int countRows(Connection connect, ProjektFilter filter) throws SQLException {
+        try (PreparedStatement preparedStmt = statements.prepare(connect, COUNT_QUERIES[filterIndex(filter)])) {
+            bindFilter(preparedStmt, 1, filter);
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
 }
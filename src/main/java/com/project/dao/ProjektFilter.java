@@ -0,0 +1,74 @@
+package com.project.dao;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Kryterium filtrowania listy projektów używane przez zapytania stronicowane kursorem.
+ * Obsługuje brak filtra, wyszukiwanie po fragmencie nazwy oraz po dacie oddania.
+ */
+public final class ProjektFilter {
+    private static final ProjektFilter ALL = new ProjektFilter(null, null);
+
+    private final String nazwa;
+    private final LocalDate dataOddania;
+
+    private ProjektFilter(String nazwa, LocalDate dataOddania) {
+        this.nazwa = nazwa;
+        this.dataOddania = dataOddania;
+    }
+
+    /**
+     * @return filtr zwracający wszystkie projekty
+     */
+    public static ProjektFilter all() {
+        return ALL;
+    }
+
+    /**
+     * @param nazwa - ciąg znaków, który musi zawierać nazwa projektu
+     * @return filtr po fragmencie nazwy lub filtr pusty, jeśli nazwa jest pusta
+     */
+    public static ProjektFilter nazwaLike(String nazwa) {
+        return nazwa == null || nazwa.isEmpty() ? ALL : new ProjektFilter(nazwa, null);
+    }
+
+    /**
+     * @param dataOddania - data oddania projektu
+     * @return filtr po dacie oddania lub filtr pusty, jeśli data jest null
+     */
+    public static ProjektFilter dataOddaniaIs(LocalDate dataOddania) {
+        return dataOddania == null ? ALL : new ProjektFilter(null, dataOddania);
+    }
+
+    public String getNazwa() {
+        return nazwa;
+    }
+
+    public LocalDate getDataOddania() {
+        return dataOddania;
+    }
+
+    public boolean isAll() {
+        return nazwa == null && dataOddania == null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProjektFilter other)) return false;
+        return Objects.equals(nazwa, other.nazwa) && Objects.equals(dataOddania, other.dataOddania);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nazwa, dataOddania);
+    }
+
+    @Override
+    public String toString() {
+        return isAll() ? "ProjektFilter[all]"
+                : nazwa != null ? "ProjektFilter[nazwa LIKE " + nazwa + "]"
+                : "ProjektFilter[data_oddania = " + dataOddania + "]";
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.project.model.Projekt;
+
+/**
+ * RowMapper projektu dla zapytań wybierających kolumny COLUMNS, począwszy od pierwszej.
+ * Kolumny dodatkowe (np. total_rows) mogą następować po nich, od indeksu COLUMN_COUNT + 1.
+ */
+public final class ProjektRowMapper implements RowMapper<Projekt> {
+    public static final String COLUMNS = "projekt_id, nazwa, opis, dataczas_utworzenia, data_oddania";
+    public static final int COLUMN_COUNT = 5;
+
+    public static final ProjektRowMapper INSTANCE = new ProjektRowMapper();
+
+    private ProjektRowMapper() {
+    }
+
+    @Override
+    public Projekt mapRow(ResultSet rs) throws SQLException {
+        return new Projekt(rs.getInt(1), rs.getString(2), rs.getString(3),
+                rs.getObject(4, LocalDateTime.class), rs.getObject(5, LocalDate.class));
+    }
+
+    @Override
+    public void mapAll(ResultSet rs, List<Projekt> rows) throws SQLException {
+        while (rs.next()) {
+            rows.add(mapRow(rs));
+        }
+    }
+}
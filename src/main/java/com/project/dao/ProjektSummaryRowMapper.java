@@ -0,0 +1,41 @@
+package com.project.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.project.model.Projekt;
+
+/**
+ * RowMapper skróconej projekcji projektu - zamiast pełnego opisu odczytuje jego początek
+ * (OPIS_PREFIX_LENGTH znaków) i długość pełnego opisu, z której wynika Projekt.isOpisSkrocony().
+ * Kolumny dodatkowe mogą następować po COLUMNS, od indeksu COLUMN_COUNT + 1.
+ */
+public final class ProjektSummaryRowMapper implements RowMapper<Projekt> {
+    public static final int OPIS_PREFIX_LENGTH = 80;
+    public static final String COLUMNS = "projekt_id, nazwa, SUBSTRING(opis FROM 1 FOR " + OPIS_PREFIX_LENGTH + ") AS opis,"
+            + " dataczas_utworzenia, data_oddania, CHAR_LENGTH(opis) AS opis_dlugosc";
+    public static final int COLUMN_COUNT = 6;
+
+    public static final ProjektSummaryRowMapper INSTANCE = new ProjektSummaryRowMapper();
+
+    private ProjektSummaryRowMapper() {
+    }
+
+    @Override
+    public Projekt mapRow(ResultSet rs) throws SQLException {
+        Projekt projekt = new Projekt(rs.getInt(1), rs.getString(2), rs.getString(3),
+                rs.getObject(4, LocalDateTime.class), rs.getObject(5, LocalDate.class));
+        projekt.setOpisSkrocony(rs.getInt(6) > OPIS_PREFIX_LENGTH);
+        return projekt;
+    }
+
+    @Override
+    public void mapAll(ResultSet rs, List<Projekt> rows) throws SQLException {
+        while (rs.next()) {
+            rows.add(mapRow(rs));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.project.dao;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import com.project.model.Projekt;
+
+/**
+ * Dekorator ProjektDAO z pamięcią podręczną wyników zapytań stronicowanych i zliczających.
+ * Kluczem jest znormalizowana trójka (filtr, pozycja strony, rozmiar strony), więc powrót
+ * do odwiedzonej strony lub ponowne wyszukiwanie nie wymaga odwołania do bazy.
+ * Każdy zapis zwiększa globalny numer wersji, co unieważnia wszystkie zapamiętane wyniki.
+ * Zajętość pamięci jest ograniczona łączną liczbą zapamiętanych wierszy (wyniki zliczające
+ * liczą się jako jeden wiersz); po jej przekroczeniu wypierane są najdawniej używane wyniki.
+ */
+public class QueryCachingProjektDAO extends ProjektDAODecorator {
+    public static final int DEFAULT_MAX_ROWS = 5_000;
+
+    private final int maxRows;
+    private final Map<QueryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong writeVersion = new AtomicLong();
+    private long cachedRows;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private enum QueryType {
+        LIST, COUNT, PAGE, SUMMARY_PAGE, SEEK, SEEK_SUMMARY
+    }
+
+    private record QueryKey(QueryType type, ProjektFilter filter, Object position, Integer size) {
+    }
+
+    private record SeekPosition(PageCursor cursor, PageDirection direction) {
+    }
+
+    private record Entry(Object result, int rows, long version) {
+    }
+
+    public QueryCachingProjektDAO(ProjektDAO delegate) {
+        this(delegate, DEFAULT_MAX_ROWS);
+    }
+
+    /**
+     * @param delegate - DAO wykonujące zapytania nieobsłużone przez pamięć podręczną
+     * @param maxRows  - łączna liczba wierszy wszystkich zapamiętanych wyników
+     */
+    public QueryCachingProjektDAO(ProjektDAO delegate, int maxRows) {
+        super(delegate);
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public List<Projekt> getProjekty(Integer offset, Integer limit) {
+        return cachedList(QueryType.LIST, ProjektFilter.all(), offset, limit,
+                () -> delegate.getProjekty(offset, limit));
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
+        return cachedList(QueryType.LIST, ProjektFilter.nazwaLike(nazwa), offset, limit,
+                () -> delegate.getProjektyWhereNazwaLike(nazwa, offset, limit));
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereDataOddaniaIs(LocalDate dataOddania, Integer offset, Integer limit) {
+        return cachedList(QueryType.LIST, ProjektFilter.dataOddaniaIs(dataOddania), offset, limit,
+                () -> delegate.getProjektyWhereDataOddaniaIs(dataOddania, offset, limit));
+    }
+
+    @Override
+    public int getRowsNumber() {
+        return cachedCount(ProjektFilter.all(), delegate::getRowsNumber);
+    }
+
+    @Override
+    public int getRowsNumberWhereNazwaLike(String nazwa) {
+        return cachedCount(ProjektFilter.nazwaLike(nazwa), () -> delegate.getRowsNumberWhereNazwaLike(nazwa));
+    }
+
+    @Override
+    public int getRowsNumberWhereDataOddaniaIs(LocalDate dataOddania) {
+        return cachedCount(ProjektFilter.dataOddaniaIs(dataOddania),
+                () -> delegate.getRowsNumberWhereDataOddaniaIs(dataOddania));
+    }
+
+    @Override
+    public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+        QueryKey key = new QueryKey(QueryType.PAGE, filter, offset, limit);
+        @SuppressWarnings("unchecked")
+        PageResult<Projekt> page = (PageResult<Projekt>) lookup(key);
+        if (page == null) {
+            long version = writeVersion.get();
+            page = delegate.getProjektyPage(filter, offset, limit);
+            store(key, new PageResult<>(copyRows(page.getRows()), page.getTotal(), page.hasNext()),
+                    page.getRows().size(), version);
+            return page;
+        }
+        return new PageResult<>(copyRows(page.getRows()), page.getTotal(), page.hasNext());
+    }
+
+    @Override
+    public List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit) {
+        return cachedList(QueryType.SUMMARY_PAGE, filter, offset, limit,
+                () -> delegate.getProjektySummaryPage(filter, offset, limit));
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        return cachedSeek(QueryType.SEEK, filter, cursor, direction, limit,
+                () -> delegate.seekProjekty(filter, cursor, direction, limit));
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjektySummary(ProjektFilter filter, PageCursor cursor, PageDirection direction,
+                                                   int limit) {
+        return cachedSeek(QueryType.SEEK_SUMMARY, filter, cursor, direction, limit,
+                () -> delegate.seekProjektySummary(filter, cursor, direction, limit));
+    }
+
+    @Override
+    public void setProjekt(Projekt projekt) {
+        try {
+            delegate.setProjekt(projekt);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void deleteProjekt(Integer projektId) {
+        try {
+            delegate.deleteProjekt(projektId);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        try {
+            delegate.setProjekty(projekty);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        try {
+            delegate.deleteProjekty(projektIds);
+        } finally {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Zmiana projektu może dotyczyć dowolnego zapamiętanego wyniku - unieważniane są wszystkie.
+     */
+    @Override
+    public void changedExternally(Collection<Integer> projektIds) {
+        invalidateAll();
+        super.changedExternally(projektIds);
+    }
+
+    /**
+     * Unieważnia wszystkie zapamiętane wyniki, zwiększając numer wersji danych.
+     */
+    public void invalidateAll() {
+        writeVersion.incrementAndGet();
+        synchronized (entries) {
+            entries.clear();
+            cachedRows = 0;
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+        }
+    }
+
+    private List<Projekt> cachedList(QueryType type, ProjektFilter filter, Integer offset, Integer limit,
+                                     Supplier<List<Projekt>> query) {
+        QueryKey key = new QueryKey(type, filter, offset, limit);
+        @SuppressWarnings("unchecked")
+        List<Projekt> projekty = (List<Projekt>) lookup(key);
+        if (projekty == null) {
+            long version = writeVersion.get();
+            projekty = query.get();
+            store(key, copyRows(projekty), projekty.size(), version);
+            return projekty;
+        }
+        return copyRows(projekty);
+    }
+
+    private CursorPage<Projekt> cachedSeek(QueryType type, ProjektFilter filter, PageCursor cursor,
+                                           PageDirection direction, int limit, Supplier<CursorPage<Projekt>> query) {
+        QueryKey key = new QueryKey(type, filter, new SeekPosition(cursor, direction), limit);
+        @SuppressWarnings("unchecked")
+        CursorPage<Projekt> page = (CursorPage<Projekt>) lookup(key);
+        if (page == null) {
+            long version = writeVersion.get();
+            page = query.get();
+            store(key, copyPage(page), page.getRows().size(), version);
+            return page;
+        }
+        return copyPage(page);
+    }
+
+    private int cachedCount(ProjektFilter filter, Supplier<Integer> query) {
+        QueryKey key = new QueryKey(QueryType.COUNT, filter, null, null);
+        Integer count = (Integer) lookup(key);
+        if (count == null) {
+            long version = writeVersion.get();
+            count = query.get();
+            store(key, count, 1, version);
+        }
+        return count;
+    }
+
+    private Object lookup(QueryKey key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == writeVersion.get()) {
+                hits.increment();
+                return entry.result;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private void store(QueryKey key, Object result, int rows, long version) {
+        synchronized (entries) {
+            //Wynik zapytania, które trwało w czasie zapisu, może być już nieaktualny
+            if (version != writeVersion.get() || rows > maxRows) {
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(result, Math.max(rows, 1), version));
+            if (previous != null) {
+                cachedRows -= previous.rows;
+            }
+            cachedRows += Math.max(rows, 1);
+            var iterator = entries.values().iterator();
+            while (cachedRows > maxRows && iterator.hasNext()) {
+                cachedRows -= iterator.next().rows;
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static List<Projekt> copyRows(List<Projekt> projekty) {
+        List<Projekt> copy = new ArrayList<>(projekty.size());
+        for (Projekt projekt : projekty) {
+            copy.add(new Projekt(projekt));
+        }
+        return copy;
+    }
+
+    private static CursorPage<Projekt> copyPage(CursorPage<Projekt> page) {
+        return new CursorPage<>(copyRows(page.getRows()), page.getFirstCursor(), page.getLastCursor(),
+                page.hasNext(), page.hasPrevious());
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.dao;
+
+/**
+ * Zgłaszany przez DAO, gdy zapytanie zostało przerwane przez CancellationToken.cancel().
+ */
+public class QueryCancelledException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public QueryCancelledException() {
+        super("Zapytanie zostało anulowane");
+    }
+
+    public QueryCancelledException(Throwable cause) {
+        super("Zapytanie zostało anulowane", cause);
+    }
+}
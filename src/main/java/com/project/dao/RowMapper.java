@@ -0,0 +1,27 @@
+package com.project.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Zamienia wiersze wyniku zapytania na obiekty modelu.
+ * Implementacje odczytują kolumny po indeksach, dlatego zapytanie musi wybierać kolumny
+ * w kolejności podanej przez implementację (jawna lista kolumn zamiast SELECT *).
+ * Pętla odczytu jest w mapAll, aby każda implementacja miała własną, monomorficzną pętlę,
+ * zamiast wspólnej pętli wywołującej mapRow różnych klas.
+ *
+ * @param <T> - typ obiektu odpowiadającego wierszowi
+ */
+public interface RowMapper<T> {
+
+    /**
+     * Odczytuje bieżący wiersz wyniku.
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * Odczytuje wszystkie pozostałe wiersze wyniku i dodaje je do listy.
+     */
+    void mapAll(ResultSet rs, List<T> rows) throws SQLException;
+}
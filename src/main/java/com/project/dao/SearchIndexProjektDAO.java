@@ -0,0 +1,382 @@
+package com.project.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.project.datasource.DataSource;
+import com.project.model.Projekt;
+
+/**
+ * Dekorator ProjektDAO, który wyszukiwanie po fragmencie nazwy obsługuje przez indeks trigramowy
+ * w pamięci zamiast zapytania LIKE '%x%' (które nie może użyć indeksu projekt_nazwa_idx).
+ * Indeks wyznacza pasujące ID, sortuje je i stronicuje w pamięci, a z bazy pobierane są
+ * wyłącznie wiersze wynikowej strony. Liczba wyników jest liczona bez odwołania do bazy.
+ * Indeks jest budowany przez rebuildIndex() i aktualizowany przy zapisach przez to DAO.
+ * Do czasu zbudowania indeksu, dla fragmentów krótszych niż 3 znaki oraz dla fragmentów
+ * zawierających znaki specjalne LIKE ('%', '_') zapytania trafiają bez zmian do bazy.
+ */
+public class SearchIndexProjektDAO extends ProjektDAODecorator {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexProjektDAO.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NazwaSearchIndex index;
+    //Zmiany wykonane w trakcie przebudowy indeksu, nanoszone na nowy indeks po jej zakończeniu
+    private List<Consumer<NazwaSearchIndex>> pendingChanges;
+    //Ostatni wynik wyszukiwania - strona i liczba wyników dla tego samego fragmentu liczą go raz
+    private volatile LastFind lastFind;
+
+    private record LastFind(NazwaSearchIndex index, long modCount, String nazwa, int[] matches) {
+    }
+
+    /**
+     * Liczba projektów pasujących do fragmentu i ID wybranych spośród nich - z tego samego stanu indeksu.
+     */
+    private record Selection(int total, int[] ids) {
+    }
+
+    public SearchIndexProjektDAO(ProjektDAO delegate) {
+        super(delegate);
+    }
+
+    /**
+     * Buduje indeks od nowa na podstawie zawartości tabeli projekt.
+     * Do czasu zakończenia budowy wyszukiwanie korzysta z poprzedniego indeksu lub z bazy.
+     */
+    public void rebuildIndex() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        NazwaSearchIndex fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            pendingChanges = null;
+            lock.writeLock().unlock();
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Zbudowano indeks nazw projektów: {} projektów w {} ms",
+                fresh.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Odczytuje nazwy wszystkich projektów z bazy do nowego indeksu. Zapisy wykonane w tym czasie
+     * przez to DAO trafiają do pendingChanges.
+     */
+    NazwaSearchIndex load() {
+        NazwaSearchIndex fresh = new NazwaSearchIndex();
+        String query = "SELECT projekt_id, nazwa, dataczas_utworzenia FROM projekt";
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = connect.prepareStatement(query);
+             ResultSet rs = preparedStmt.executeQuery()) {
+            while (rs.next()) {
+                fresh.put(rs.getInt(1), rs.getString(2), rs.getObject(3, LocalDateTime.class));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return fresh;
+    }
+
+    public boolean isIndexReady() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
+        long k = limit != null ? (offset != null ? (long) offset : 0) + limit : Integer.MAX_VALUE;
+        Selection selection = search(nazwa, true, null, k);
+        if (selection == null) {
+            return delegate.getProjektyWhereNazwaLike(nazwa, offset, limit);
+        }
+        return fetch(skip(selection.ids(), offset != null ? offset : 0), false);
+    }
+
+    @Override
+    public int getRowsNumberWhereNazwaLike(String nazwa) {
+        Selection selection = search(nazwa, true, null, 0);
+        return selection != null ? selection.total() : delegate.getRowsNumberWhereNazwaLike(nazwa);
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit) {
+        return seek(filter, cursor, direction, limit, false);
+    }
+
+    @Override
+    public CursorPage<Projekt> seekProjektySummary(ProjektFilter filter, PageCursor cursor, PageDirection direction,
+                                                   int limit) {
+        return seek(filter, cursor, direction, limit, true);
+    }
+
+    private CursorPage<Projekt> seek(ProjektFilter filter, PageCursor cursor, PageDirection direction, int limit,
+                                     boolean summary) {
+        boolean forward = direction == PageDirection.NEXT;
+        //Tak jak w ProjektDAOImpl: jeden wiersz więcej informuje o istnieniu kolejnej strony
+        Selection selection = search(filter.getNazwa(), forward, cursor, limit + 1L);
+        if (selection == null) {
+            return summary ? delegate.seekProjektySummary(filter, cursor, direction, limit)
+                    : delegate.seekProjekty(filter, cursor, direction, limit);
+        }
+        int[] selected = selection.ids();
+        boolean hasMore = selected.length > limit;
+        if (hasMore) {
+            selected = Arrays.copyOf(selected, limit);
+        }
+        if (!forward && !hasMore && cursor != null) {
+            return seek(filter, null, PageDirection.NEXT, limit, summary);
+        }
+        if (!forward) {
+            for (int i = 0, j = selected.length - 1; i < j; i++, j--) {
+                int tmp = selected[i];
+                selected[i] = selected[j];
+                selected[j] = tmp;
+            }
+        }
+        List<Projekt> projekty = fetch(selected, summary);
+        return forward ? CursorPage.of(projekty, hasMore, cursor != null)
+                : CursorPage.of(projekty, cursor != null, hasMore);
+    }
+
+    @Override
+    public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+        Selection selection = search(filter.getNazwa(), true, null, (long) offset + limit);
+        if (selection == null) {
+            return delegate.getProjektyPage(filter, offset, limit);
+        }
+        int[] selected = skip(selection.ids(), offset);
+        return new PageResult<>(fetch(selected, false), selection.total(),
+                offset + selected.length < selection.total());
+    }
+
+    @Override
+    public List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit) {
+        Selection selection = search(filter.getNazwa(), true, null, (long) offset + limit);
+        if (selection == null) {
+            return delegate.getProjektySummaryPage(filter, offset, limit);
+        }
+        return fetch(skip(selection.ids(), offset), true);
+    }
+
+    @Override
+    public void setProjekt(Projekt projekt) {
+        delegate.setProjekt(projekt);
+        indexPut(List.of(projekt));
+    }
+
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        delegate.setProjekty(projekty);
+        indexPut(projekty);
+    }
+
+    @Override
+    public void deleteProjekt(Integer projektId) {
+        delegate.deleteProjekt(projektId);
+        indexRemove(List.of(projektId));
+    }
+
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        delegate.deleteProjekty(projektIds);
+        indexRemove(projektIds);
+    }
+
+    /**
+     * Aktualizuje indeks nazwami projektów odczytanymi ponownie z bazy; projekty, których już nie ma,
+     * są usuwane z indeksu.
+     */
+    @Override
+    public void changedExternally(Collection<Integer> projektIds) {
+        super.changedExternally(projektIds);
+        List<Projekt> projekty = delegate.getProjektySummaryWhereIdIn(List.copyOf(projektIds));
+        Set<Integer> usuniete = new HashSet<>(projektIds);
+        projekty.forEach(projekt -> usuniete.remove(projekt.getProjektId()));
+        indexPut(projekty);
+        indexRemove(usuniete);
+    }
+
+    private void indexPut(Collection<Projekt> projekty) {
+        List<Projekt> snapshot = new ArrayList<>(projekty.size());
+        projekty.forEach(projekt -> snapshot.add(new Projekt(projekt)));
+        apply(idx -> snapshot.forEach(projekt ->
+                idx.put(projekt.getProjektId(), projekt.getNazwa(), projekt.getDataCzasUtworzenia())));
+    }
+
+    private void indexRemove(Collection<Integer> projektIds) {
+        List<Integer> snapshot = List.copyOf(projektIds);
+        apply(idx -> snapshot.forEach(idx::remove));
+    }
+
+    private void apply(Consumer<NazwaSearchIndex> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null) {
+                change.accept(index);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Wyszukuje projekty pasujące do fragmentu i wybiera k pierwszych w żądanym porządku. Wyszukiwanie
+     * i wybór są wykonywane pod jedną blokadą odczytu - zapis między nimi dałby wynik z dwóch stanów indeksu.
+     *
+     * @return wynik lub null, jeśli zapytanie trzeba wykonać w bazie
+     */
+    private Selection search(String nazwa, boolean descending, PageCursor cursor, long k) {
+        if (nazwa == null || nazwa.length() < NazwaSearchIndex.GRAM_LENGTH
+                || nazwa.indexOf('%') >= 0 || nazwa.indexOf('_') >= 0) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            if (index == null) {
+                return null;
+            }
+            int[] matches = find(nazwa);
+            return new Selection(matches.length, k == 0 ? new int[0]
+                    : select(matches, descending, cursor, (int) Math.min(k, matches.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Wywoływana pod blokadą odczytu.
+     *
+     * @return ID projektów pasujących do fragmentu
+     */
+    private int[] find(String nazwa) {
+        LastFind last = lastFind;
+        if (last != null && last.index == index && last.modCount == index.modCount() && last.nazwa.equals(nazwa)) {
+            return last.matches;
+        }
+        int[] matches = index.find(nazwa);
+        lastFind = new LastFind(index, index.modCount(), nazwa, matches);
+        return matches;
+    }
+
+    private static int[] skip(int[] ids, int offset) {
+        return Arrays.copyOfRange(ids, Math.min(offset, ids.length), ids.length);
+    }
+
+    private List<Projekt> fetch(int[] projektIds, boolean summary) {
+        List<Integer> ids = new ArrayList<>(projektIds.length);
+        for (int id : projektIds) {
+            ids.add(id);
+        }
+        return summary ? delegate.getProjektySummaryWhereIdIn(ids) : delegate.getProjektyWhereIdIn(ids);
+    }
+
+    /**
+     * Wybiera k pierwszych projektów w porządku (dataczas_utworzenia, projekt_id) malejącym
+     * (descending = true) lub rosnącym, pomijając projekty leżące przed kursorem lub na nim.
+     * Używa kopca ograniczonego do k elementów, więc koszt to O(n log k) bez sortowania całej listy.
+     * Wywoływana pod blokadą odczytu.
+     *
+     * @return wybrane ID w żądanym porządku
+     */
+    private int[] select(int[] ids, boolean descending, PageCursor cursor, int k) {
+        long cursorKey = cursor != null ? NazwaSearchIndex.sortKey(cursor.getDataCzasUtworzenia()) : 0;
+        //Kopiec, w którego korzeniu jest element najpóźniejszy w żądanym porządku
+        int[] heap = new int[Math.min(k, ids.length)];
+        int n = 0;
+        for (int id : ids) {
+            if (cursor != null && !before(cursorKey, cursor.getProjektId(), index.sortKey(id), id, descending)) {
+                continue;
+            }
+            if (n < heap.length) {
+                heap[n] = id;
+                siftUp(heap, n++, descending);
+            } else if (n > 0 && before(index.sortKey(id), id, index.sortKey(heap[0]), heap[0], descending)) {
+                heap[0] = id;
+                siftDown(heap, 0, n, descending);
+            }
+        }
+        int[] result = new int[n];
+        for (int i = n - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, 0, i, descending);
+        }
+        return result;
+    }
+
+    private static boolean before(long keyA, int idA, long keyB, int idB, boolean descending) {
+        int cmp = keyA != keyB ? Long.compare(keyA, keyB) : Integer.compare(idA, idB);
+        return descending ? cmp > 0 : cmp < 0;
+    }
+
+    private boolean later(int a, int b, boolean descending) {
+        return before(index.sortKey(b), b, index.sortKey(a), a, descending);
+    }
+
+    private void siftUp(int[] heap, int i, boolean descending) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!later(heap[i], heap[parent], descending)) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = tmp;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int i, int n, boolean descending) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                return;
+            }
+            if (child + 1 < n && later(heap[child + 1], heap[child], descending)) {
+                child++;
+            }
+            if (!later(heap[child], heap[i], descending)) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[child];
+            heap[child] = tmp;
+            i = child;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.project.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.project.datasource.DataSource;
+
+/**
+ * Pamięć podręczna poleceń PreparedStatement dla połączeń z puli.
+ * HikariCP nie przechowuje poleceń między wypożyczeniami połączenia, więc bez niej HSQLDB
+ * analizuje i planuje to samo zapytanie przy każdym wywołaniu DAO.
+ * Polecenia są przygotowywane na fizycznym połączeniu (spod obiektu pośredniczącego puli,
+ * który zamyka polecenia przy zwrocie połączenia) i przechowywane osobno dla każdego połączenia
+ * w kolejności ostatniego użycia; po przekroczeniu limitu najdawniej używane są zamykane.
+ * Polecenia połączeń zamkniętych przez pulę (wycofanych po maxLifetime, bezczynnych, uszkodzonych)
+ * są zamykane i usuwane przy pojawieniu się nowego połączenia oraz nie rzadziej niż co SWEEP_INTERVAL.
+ * Błąd połączenia (SQLState 08xxx) zgłoszony przez polecenie usuwa wszystkie polecenia tego połączenia.
+ * Zwracane polecenie należy zamknąć jak zwykle - close() oddaje je do pamięci podręcznej.
+ */
+public final class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private static final long SWEEP_INTERVAL_NANOS = 30_000_000_000L;
+
+    private static volatile StatementCache shared;
+
+    private final int maxPerConnection;
+    //Fizyczne połączenie -> jego polecenia; wpisy zamkniętych połączeń usuwa sweep()
+    private final Map<Connection, Map<Key, Entry>> byConnection = new IdentityHashMap<>();
+    private long lastSweepNanos = System.nanoTime();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private record Key(String sql, int autoGeneratedKeys) {
+    }
+
+    private static final class Entry {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    /**
+     * @param maxPerConnection - maksymalna liczba poleceń przechowywanych dla jednego połączenia (0 wyłącza)
+     */
+    public StatementCache(int maxPerConnection) {
+        this.maxPerConnection = maxPerConnection;
+    }
+
+    /**
+     * @return pamięć podręczna wspólna dla wszystkich DAO, o rozmiarze z db.statementCache.size
+     */
+    public static StatementCache shared() {
+        StatementCache cache = shared;
+        if (cache == null) {
+            synchronized (StatementCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    cache = new StatementCache(DataSource.getConfig().getStatementCacheSize());
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    public PreparedStatement prepare(Connection connect, String sql) throws SQLException {
+        return prepare(connect, sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Zwraca przygotowane polecenie dla połączenia - z pamięci podręcznej lub nowo przygotowane.
+     * Jeśli to samo zapytanie jest już używane na tym połączeniu, zwracane jest osobne polecenie
+     * spoza pamięci podręcznej.
+     *
+     * @param connect           - połączenie wypożyczone z puli
+     * @param sql               - treść zapytania
+     * @param autoGeneratedKeys - Statement.RETURN_GENERATED_KEYS lub Statement.NO_GENERATED_KEYS
+     */
+    public PreparedStatement prepare(Connection connect, String sql, int autoGeneratedKeys) throws SQLException {
+        if (maxPerConnection <= 0) {
+            return connect.prepareStatement(sql, autoGeneratedKeys);
+        }
+        Connection physical = connect.unwrap(Connection.class);
+        Key key = new Key(sql, autoGeneratedKeys);
+        Map<Key, Entry> statements;
+        synchronized (byConnection) {
+            statements = byConnection.get(physical);
+            long now = System.nanoTime();
+            if (statements == null || now - lastSweepNanos > SWEEP_INTERVAL_NANOS) {
+                //Nowe połączenie zwykle zastępuje połączenie zamknięte przez pulę
+                lastSweepNanos = now;
+                sweep();
+            }
+            if (statements == null) {
+                statements = new LinkedHashMap<>(16, 0.75f, true);
+                byConnection.put(physical, statements);
+            }
+        }
+        synchronized (statements) {
+            Entry entry = statements.get(key);
+            if (entry != null && !entry.inUse) {
+                if (!entry.statement.isClosed()) {
+                    entry.inUse = true;
+                    hits.increment();
+                    return lease(entry, statements, physical);
+                }
+                statements.remove(key);
+                entry = null;
+            }
+            misses.increment();
+            PreparedStatement statement = physical.prepareStatement(sql, autoGeneratedKeys);
+            if (entry != null) {
+                //Zapytanie zagnieżdżone w innym na tym samym połączeniu - polecenie spoza pamięci
+                return statement;
+            }
+            entry = new Entry(statement);
+            entry.inUse = true;
+            statements.put(key, entry);
+            evict(statements);
+            return lease(entry, statements, physical);
+        }
+    }
+
+    public CacheStats getStats() {
+        long size = 0;
+        synchronized (byConnection) {
+            sweep();
+            for (Map<Key, Entry> statements : byConnection.values()) {
+                synchronized (statements) {
+                    size += statements.size();
+                }
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Usuwa polecenia połączeń zamkniętych przez pulę. Wywoływana z blokadą byConnection.
+     */
+    private void sweep() {
+        Iterator<Map.Entry<Connection, Map<Key, Entry>>> it = byConnection.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Connection, Map<Key, Entry>> connection = it.next();
+            boolean closed;
+            try {
+                closed = connection.getKey().isClosed();
+            } catch (SQLException e) {
+                closed = true;
+            }
+            if (closed) {
+                Map<Key, Entry> statements = connection.getValue();
+                it.remove();
+                discard(statements);
+            }
+        }
+    }
+
+    /**
+     * Usuwa polecenia połączenia, które zgłosiło błąd połączenia - pula zamknie je przy zwrocie lub sprawdzeniu.
+     */
+    private void discard(Connection physical) {
+        Map<Key, Entry> statements;
+        synchronized (byConnection) {
+            statements = byConnection.remove(physical);
+        }
+        if (statements != null) {
+            discard(statements);
+        }
+    }
+
+    private void discard(Map<Key, Entry> statements) {
+        List<Entry> idle = new ArrayList<>();
+        synchronized (statements) {
+            for (Entry entry : statements.values()) {
+                evictions.increment();
+                entry.evicted = true;
+                if (!entry.inUse) {
+                    idle.add(entry);
+                }
+            }
+            statements.clear();
+        }
+        idle.forEach(entry -> closeQuietly(entry.statement));
+    }
+
+    private void evict(Map<Key, Entry> statements) {
+        Iterator<Entry> it = statements.values().iterator();
+        while (statements.size() > maxPerConnection && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            evictions.increment();
+            eldest.evicted = true;
+            if (!eldest.inUse) {
+                closeQuietly(eldest.statement);
+            }
+        }
+    }
+
+    private void release(Entry entry, Map<Key, Entry> statements) {
+        boolean close;
+        synchronized (statements) {
+            entry.inUse = false;
+            close = entry.evicted;
+        }
+        if (close) {
+            closeQuietly(entry.statement);
+            return;
+        }
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        } catch (SQLException e) {
+            //Polecenie w nieznanym stanie nie może być użyte ponownie
+            synchronized (statements) {
+                statements.values().remove(entry);
+            }
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.debug("Nie udało się zamknąć polecenia", e);
+        }
+    }
+
+    /**
+     * Opakowuje polecenie tak, aby close() zwracało je do pamięci podręcznej zamiast je zamykać.
+     */
+    private PreparedStatement lease(Entry entry, Map<Key, Entry> statements, Connection physical) {
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean released;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (!released) {
+                            released = true;
+                            release(entry, statements);
+                        }
+                        return null;
+                    case "isClosed":
+                        return released || entry.statement.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        if (released) {
+                            throw new SQLException("Polecenie zostało zamknięte");
+                        }
+                }
+                try {
+                    return method.invoke(entry.statement, args);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sqlException && sqlException.getSQLState() != null
+                            && sqlException.getSQLState().startsWith("08")) {
+                        discard(physical);
+                    }
+                    throw e.getCause();
+                }
+            }
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, handler);
+    }
+}
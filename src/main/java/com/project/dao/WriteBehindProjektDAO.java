@@ -0,0 +1,336 @@
+package com.project.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.project.datasource.DataSourceConfig;
+import com.project.model.Projekt;
+
+/**
+ * Dekorator zbierający zapisy projektów w ograniczonej kolejce, z której jeden wątek zapisujący
+ * zatwierdza je grupami (group commit) - po maxDelay od pierwszego zapisu w grupie lub po zebraniu
+ * maxRows zapisów. Grupa jest zapisywana przez setProjekty i deleteProjekty opakowanego DAO, więc
+ * zamiast synchronizacji dziennika na dysk po każdym zapisie jest jedna (lub dwie) na grupę.
+ * Kolejne zmiany tego samego projektu w grupie są scalane - zapisywana jest tylko ostatnia.
+ * Metody submit* zwracają CompletableFuture kończone po zatwierdzeniu grupy; metody ProjektDAO
+ * zapisujące dane czekają na to zatwierdzenie, a odczyty są przekazywane bez zmian.
+ * Jeśli zapis grupy się nie powiedzie, zmiany są zapisywane pojedynczo, więc błąd dotyczy tylko
+ * zapisów, które go powodują.
+ */
+public class WriteBehindProjektDAO extends ProjektDAODecorator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindProjektDAO.class);
+
+    //Znacznik końca kolejki wstawiany przez close()
+    private static final Write STOP = new Write(null, null, null, null);
+
+    private final BlockingQueue<Write> queue;
+    private final long maxDelayNanos;
+    private final int maxRows;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder groups = new LongAdder();
+
+    /**
+     * Zapis oczekujący w kolejce.
+     *
+     * @param projekt  - kopia zapisywanego projektu lub null dla usunięcia
+     * @param target   - projekt przekazany przez wywołującego - otrzymuje ID nadane przy wstawieniu
+     * @param deleteId - ID usuwanego projektu lub null dla zapisu
+     * @param done     - kończony po zatwierdzeniu zapisu
+     */
+    private record Write(Projekt projekt, Projekt target, Integer deleteId, CompletableFuture<Void> done) {
+        Integer projektId() {
+            return projekt != null ? projekt.getProjektId() : deleteId;
+        }
+    }
+
+    /**
+     * Zapis wykonywany w bazie i zapisy scalone w nim (kończone razem z nim).
+     */
+    private record Effective(Write write, List<Write> merged) {
+    }
+
+    /**
+     * Tworzy dekorator z parametrami db.groupCommit.* z konfiguracji.
+     */
+    public WriteBehindProjektDAO(ProjektDAO delegate, DataSourceConfig config) {
+        this(delegate, config.getGroupCommitQueueCapacity(), config.getGroupCommitMaxDelayMs(),
+                config.getGroupCommitMaxRows());
+    }
+
+    /**
+     * @param delegate      - DAO zapisujące grupy
+     * @param queueCapacity - pojemność kolejki; po jej zapełnieniu zlecający zapis czeka na miejsce
+     * @param maxDelayMs    - maksymalny czas oczekiwania pierwszego zapisu na zatwierdzenie grupy
+     * @param maxRows       - maksymalna liczba zapisów w grupie
+     */
+    public WriteBehindProjektDAO(ProjektDAO delegate, int queueCapacity, long maxDelayMs, int maxRows) {
+        super(delegate);
+        if (queueCapacity < 1 || maxRows < 1 || maxDelayMs < 0) {
+            throw new IllegalArgumentException("Niepoprawne parametry zatwierdzania grupowego: queueCapacity="
+                    + queueCapacity + ", maxDelayMs=" + maxDelayMs + ", maxRows=" + maxRows);
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.maxRows = maxRows;
+        this.writer = Thread.ofPlatform().daemon().name("projekt-write-behind").start(this::writeLoop);
+    }
+
+    /**
+     * Zleca zapis projektu (wstawienie, jeśli nie ma ID). Zapisywany jest stan projektu z chwili
+     * wywołania; ID nadane przy wstawieniu jest ustawiane w projekcie przed zakończeniem wyniku.
+     *
+     * @return CompletableFuture kończony po zatwierdzeniu zapisu w bazie
+     */
+    public CompletableFuture<Void> submitProjekt(Projekt projekt) {
+        return enqueue(new Write(new Projekt(projekt), projekt, null, new CompletableFuture<>()));
+    }
+
+    /**
+     * Zleca usunięcie projektu.
+     *
+     * @return CompletableFuture kończony po zatwierdzeniu usunięcia w bazie
+     */
+    public CompletableFuture<Void> submitDelete(Integer projektId) {
+        return enqueue(new Write(null, null, projektId, new CompletableFuture<>()));
+    }
+
+    @Override
+    public void setProjekt(Projekt projekt) {
+        await(submitProjekt(projekt));
+    }
+
+    @Override
+    public void deleteProjekt(Integer projektId) {
+        await(submitDelete(projektId));
+    }
+
+    @Override
+    public void setProjekty(Collection<Projekt> projekty) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(projekty.size());
+        for (Projekt projekt : projekty) {
+            futures.add(submitProjekt(projekt));
+        }
+        await(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])));
+    }
+
+    @Override
+    public void deleteProjekty(Collection<Integer> projektIds) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(projektIds.size());
+        for (Integer projektId : projektIds) {
+            futures.add(submitDelete(projektId));
+        }
+        await(CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])));
+    }
+
+    /**
+     * @return liczba zleconych zapisów
+     */
+    public long getSubmittedCount() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return liczba zapisów wykonanych w bazie (po scaleniu zmian tego samego projektu)
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * @return liczba zatwierdzonych grup
+     */
+    public long getGroupCount() {
+        return groups.sum();
+    }
+
+    /**
+     * Zatwierdza zapisy z kolejki i zatrzymuje wątek zapisujący. Kolejne zlecenia zapisu
+     * kończą się wyjątkiem IllegalStateException.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(STOP);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        //Zlecenia, które minęły sprawdzenie closed w trakcie zamykania
+        List<Write> rejected = new ArrayList<>();
+        queue.drainTo(rejected);
+        for (Write write : rejected) {
+            write.done().completeExceptionally(new IllegalStateException("Kolejka zapisów została zamknięta"));
+        }
+        logger.info("Zatwierdzanie grupowe zakończone: zleconych zapisów {}, wykonanych {}, grup {}",
+                getSubmittedCount(), getWrittenCount(), getGroupCount());
+    }
+
+    private CompletableFuture<Void> enqueue(Write write) {
+        if (closed) {
+            throw new IllegalStateException("Kolejka zapisów została zamknięta");
+        }
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        submitted.increment();
+        return write.done();
+    }
+
+    private static void await(CompletableFuture<Void> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private void writeLoop() {
+        List<Write> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                Write first = queue.take();
+                stopping = first == STOP;
+                if (!stopping) {
+                    batch.add(first);
+                    long deadline = System.nanoTime() + maxDelayNanos;
+                    while (batch.size() < maxRows) {
+                        long remaining = deadline - System.nanoTime();
+                        Write next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        if (next == STOP) {
+                            stopping = true;
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+            if (stopping) {
+                //Zlecenia dodane tuż przed zamknięciem, za znacznikiem końca
+                queue.drainTo(batch);
+                batch.removeIf(write -> write == STOP);
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Write> batch) {
+        long start = System.nanoTime();
+        List<Effective> effective = coalesce(batch);
+        List<Projekt> saves = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        for (Effective e : effective) {
+            if (e.write().projekt() != null) {
+                saves.add(e.write().projekt());
+            } else {
+                deletes.add(e.write().deleteId());
+            }
+        }
+        try {
+            if (!saves.isEmpty()) {
+                delegate.setProjekty(saves);
+            }
+            if (!deletes.isEmpty()) {
+                delegate.deleteProjekty(deletes);
+            }
+            groups.increment();
+            written.add(effective.size());
+            effective.forEach(e -> complete(e, null));
+            logger.debug("Zatwierdzono grupę {} zapisów ({} po scaleniu) w {} ms", batch.size(), effective.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException groupError) {
+            //Zapisy zatwierdzone przed błędem (projekty przed usunięciami) zapisują się ponownie bez szkody
+            logger.warn("Zapis grupy {} zapisów nie powiódł się, zapisywanie pojedynczo", effective.size(), groupError);
+            for (Effective e : effective) {
+                try {
+                    if (e.write().projekt() != null) {
+                        delegate.setProjekt(e.write().projekt());
+                    } else {
+                        delegate.deleteProjekt(e.write().deleteId());
+                    }
+                    groups.increment();
+                    written.increment();
+                    complete(e, null);
+                } catch (RuntimeException error) {
+                    complete(e, error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Scala zmiany tego samego projektu - wynik ostatniej zmiany jest taki sam jak wykonanie
+     * wszystkich po kolei. Nowe projekty (bez ID) są zapisywane każdy osobno.
+     */
+    private static List<Effective> coalesce(List<Write> batch) {
+        List<Effective> effective = new ArrayList<>(batch.size());
+        Map<Integer, Effective> byId = new LinkedHashMap<>();
+        for (Write write : batch) {
+            Integer projektId = write.projektId();
+            if (projektId == null) {
+                effective.add(new Effective(write, List.of()));
+                continue;
+            }
+            Effective previous = byId.get(projektId);
+            List<Write> merged = previous != null ? previous.merged() : new ArrayList<>();
+            if (previous != null) {
+                merged.add(previous.write());
+            }
+            byId.put(projektId, new Effective(write, merged));
+        }
+        effective.addAll(byId.values());
+        return effective;
+    }
+
+    private static void complete(Effective e, RuntimeException error) {
+        Write write = e.write();
+        if (error == null && write.target() != null && write.target().getProjektId() == null) {
+            write.target().setProjektId(write.projekt().getProjektId());
+            write.target().setDataCzasUtworzenia(write.projekt().getDataCzasUtworzenia());
+        }
+        for (Write merged : e.merged()) {
+            finish(merged.done(), error);
+        }
+        finish(write.done(), error);
+    }
+
+    private static void finish(CompletableFuture<Void> done, RuntimeException error) {
+        if (error == null) {
+            done.complete(null);
+        } else {
+            done.completeExceptionally(error);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.project.model.Zadanie;
+
+public interface ZadanieDAO {
+
+	Zadanie getZadanie(Integer zadanieId);
+
+	void setZadanie(Zadanie zadanie);
+
+	void deleteZadanie(Integer zadanieId);
+
+	List<Zadanie> getZadania(Integer projektId);
+
+	Map<Integer, List<Zadanie>> getZadaniaWhereProjektIdIn(Collection<Integer> projektIds);
+
+	void moveZadanie(Integer zadanieId, Integer poprzednieZadanieId);
+
+	void reorderZadania(Integer projektId, List<Integer> zadanieIds);
+
+	void rebalanceKolejnosc(Integer projektId);
+
+}
@@ -0,0 +1,475 @@
+package com.project.dao;
+
+import com.project.datasource.DataSource;
+import com.project.model.Zadanie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Kolejność zadań projektu jest zapisana jako rzadkie rangi w kolumnie kolejnosc - kolejne zadania
+ * są oddalone o KOLEJNOSC_GAP, więc przeniesienie zadania zwykle zmienia tylko jego własny wiersz
+ * (nowa ranga to środek przedziału między sąsiadami). Gdy odstęp przy przeniesionym zadaniu spadnie
+ * poniżej MIN_GAP, rangi projektu są rozkładane na nowo w tle; przeliczenie w trakcie przeniesienia
+ * następuje tylko wtedy, gdy między sąsiadami nie ma już wolnej rangi.
+ */
+public class ZadanieDAOImpl implements ZadanieDAO {
+    private static final Logger logger = LoggerFactory.getLogger(ZadanieDAOImpl.class);
+
+    /**
+     * Odstęp między rangami sąsiednich zadań po dodaniu na koniec i po przeliczeniu rang.
+     */
+    public static final int KOLEJNOSC_GAP = 1024;
+    /**
+     * Odstęp, poniżej którego po przeniesieniu zadania planowane jest przeliczenie rang w tle.
+     */
+    static final int MIN_GAP = 16;
+
+    private static final String INSERT_QUERY =
+            "INSERT INTO zadanie(nazwa, opis, kolejnosc, dataczas_utworzenia, projekt_id) VALUES (?, ?, ?, ?, ?)";
+    //Zadanie bez podanej kolejności zachowuje swoją dotychczasową rangę
+    private static final String UPDATE_QUERY = "UPDATE zadanie SET nazwa = ?, opis = ?, kolejnosc = COALESCE(?, kolejnosc),"
+            + " dataczas_utworzenia = ?, projekt_id = ? WHERE zadanie_id = ?";
+    private static final String DELETE_QUERY = "DELETE FROM zadanie WHERE zadanie_id = ?";
+    private static final String SELECT_BY_ID_QUERY =
+            "SELECT " + ZadanieRowMapper.COLUMNS + " FROM zadanie WHERE zadanie_id = ?";
+    private static final String SELECT_WHERE_PROJEKT_ID_QUERY = "SELECT " + ZadanieRowMapper.COLUMNS
+            + " FROM zadanie WHERE projekt_id = ? ORDER BY kolejnosc, zadanie_id";
+    //Korzysta z indeksu zadanie_projekt_idx(projekt_id, kolejnosc) - po jednym zakresie indeksu na projekt
+    private static final String SELECT_WHERE_PROJEKT_ID_IN_QUERY = "SELECT " + ZadanieRowMapper.COLUMNS
+            + " FROM zadanie WHERE projekt_id IN (UNNEST(?)) ORDER BY projekt_id, kolejnosc, zadanie_id";
+    private static final String SELECT_PROJEKT_ID_QUERY = "SELECT projekt_id FROM zadanie WHERE zadanie_id = ?";
+    private static final String SELECT_KOLEJNOSC_QUERY =
+            "SELECT kolejnosc FROM zadanie WHERE zadanie_id = ? AND projekt_id = ?";
+    private static final String SELECT_FIRST_KOLEJNOSC_QUERY =
+            "SELECT MIN(kolejnosc) FROM zadanie WHERE projekt_id = ? AND zadanie_id <> ?";
+    private static final String SELECT_NEXT_KOLEJNOSC_QUERY =
+            "SELECT MIN(kolejnosc) FROM zadanie WHERE projekt_id = ? AND kolejnosc > ? AND zadanie_id <> ?";
+    private static final String SELECT_LAST_KOLEJNOSC_QUERY = "SELECT MAX(kolejnosc) FROM zadanie WHERE projekt_id = ?";
+    private static final String SELECT_IDS_ORDERED_QUERY =
+            "SELECT zadanie_id FROM zadanie WHERE projekt_id = ? ORDER BY kolejnosc, zadanie_id";
+    private static final String UPDATE_KOLEJNOSC_QUERY = "UPDATE zadanie SET kolejnosc = ? WHERE zadanie_id = ?";
+    //Rangi są odczytywane i zmieniane w jednej transakcji - blokada wyklucza przeliczenie rang
+    //na podstawie kolejności nieaktualnej już w chwili zapisu (READ COMMITTED zwalnia blokady odczytu)
+    private static final String LOCK_QUERY = "LOCK TABLE zadanie WRITE";
+    //Unikalność (kolejnosc, projekt_id) nie obejmuje wartości NULL - rangi są najpierw zwalniane
+    private static final String CLEAR_KOLEJNOSC_QUERY = "UPDATE zadanie SET kolejnosc = NULL WHERE projekt_id = ?";
+
+    private static final ZadanieRowMapper MAPPER = ZadanieRowMapper.INSTANCE;
+
+    private final StatementCache statements = StatementCache.shared();
+    private final ExecutorService rebalancer = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<Integer> pendingRebalance = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Nowa ranga przeniesionego zadania.
+     *
+     * @param kolejnosc - ranga
+     * @param tight     - czy odstęp od któregoś z sąsiadów spadł poniżej MIN_GAP
+     */
+    private record Placement(int kolejnosc, boolean tight) {
+    }
+
+    /**
+     * Dodaje nowe zadanie do bazy danych lub aktualizuje istniejące zadanie.
+     * Jeśli `zadanieId` jest null, wykonuje operację INSERT, w przeciwnym razie UPDATE.
+     * Nowe zadanie bez kolejności trafia na koniec listy zadań projektu, a aktualizowane
+     * zadanie bez kolejności zachowuje swoje miejsce.
+     *
+     * @param zadanie - obiekt Zadanie do zapisania w bazie danych (z ustawionym projektId)
+     */
+    @Override
+    public void setZadanie(Zadanie zadanie) {
+        boolean isInsert = zadanie.getZadanieId() == null;
+        String query = isInsert ? INSERT_QUERY : UPDATE_QUERY;
+        try (Connection connect = DataSource.getConnection()) {
+            boolean initialAutocommit = connect.getAutoCommit();
+            connect.setAutoCommit(false);
+            Integer kolejnosc = zadanie.getKolejnosc();
+            try (PreparedStatement prepStmt = statements.prepare(connect, query, Statement.RETURN_GENERATED_KEYS)) {
+                if (isInsert && kolejnosc == null) {
+                    lock(connect);
+                    Integer last = selectInt(connect, SELECT_LAST_KOLEJNOSC_QUERY, zadanie.getProjektId());
+                    kolejnosc = last == null ? KOLEJNOSC_GAP : Math.addExact(last, KOLEJNOSC_GAP);
+                }
+                prepStmt.setString(1, zadanie.getNazwa());
+                prepStmt.setString(2, zadanie.getOpis());
+                if (kolejnosc == null) {
+                    prepStmt.setNull(3, Types.INTEGER);
+                } else {
+                    prepStmt.setInt(3, kolejnosc);
+                }
+                if (zadanie.getDataCzasUtworzenia() == null)
+                    zadanie.setDataCzasUtworzenia(LocalDateTime.now());
+                prepStmt.setObject(4, zadanie.getDataCzasUtworzenia());
+                prepStmt.setInt(5, zadanie.getProjektId());
+                if (!isInsert) prepStmt.setInt(6, zadanie.getZadanieId());
+                int liczbaDodanychWierszy = prepStmt.executeUpdate();
+                if (isInsert && liczbaDodanychWierszy > 0) {
+                    try (ResultSet keys = prepStmt.getGeneratedKeys()) {
+                        if (keys.next()) {
+                            zadanie.setZadanieId(keys.getInt(1));
+                        }
+                    }
+                }
+                connect.commit();
+                if (isInsert) {
+                    zadanie.setKolejnosc(kolejnosc);
+                }
+            } catch (SQLException | RuntimeException e) {
+                connect.rollback();
+                if (isInsert) {
+                    zadanie.setZadanieId(null);
+                }
+                throw e;
+            } finally {
+                if (initialAutocommit)
+                    connect.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Pobiera pojedyncze zadanie z bazy danych na podstawie jego ID.
+     *
+     * @param zadanieId - ID zadania do pobrania
+     * @return obiekt Zadanie lub null, jeśli zadanie nie istnieje
+     */
+    @Override
+    public Zadanie getZadanie(Integer zadanieId) {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_BY_ID_QUERY)) {
+            preparedStmt.setInt(1, zadanieId);
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                return rs.next() ? MAPPER.mapRow(rs) : null;
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+    }
+
+    /**
+     * Usuwa zadanie z bazy danych na podstawie jego ID.
+     *
+     * @param zadanieId - ID zadania do usunięcia
+     */
+    @Override
+    public void deleteZadanie(Integer zadanieId) {
+        try (Connection connect = DataSource.getConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, DELETE_QUERY)) {
+            preparedStmt.setInt(1, zadanieId);
+            preparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Pobiera zadania projektu posortowane według kolejności.
+     *
+     * @param projektId - ID projektu
+     * @return lista zadań projektu (pusta, jeśli projekt nie ma zadań)
+     */
+    @Override
+    public List<Zadanie> getZadania(Integer projektId) {
+        List<Zadanie> zadania = new ArrayList<>();
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_WHERE_PROJEKT_ID_QUERY)) {
+            preparedStmt.setInt(1, projektId);
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                MAPPER.mapAll(rs, zadania);
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+        return zadania;
+    }
+
+    /**
+     * Pobiera zadania wielu projektów (np. całej strony listy) jednym zapytaniem, zamiast
+     * osobnego zapytania dla każdego projektu. ID projektów są przekazywane jako tablica.
+     *
+     * @param projektIds - ID projektów
+     * @return zadania pogrupowane według ID projektu, w kolejności podanych ID; każdy projekt
+     * ma wpis w mapie, a zadania są posortowane według kolejności
+     */
+    @Override
+    public Map<Integer, List<Zadanie>> getZadaniaWhereProjektIdIn(Collection<Integer> projektIds) {
+        Map<Integer, List<Zadanie>> byProjekt = new LinkedHashMap<>();
+        for (Integer projektId : projektIds) {
+            byProjekt.put(projektId, new ArrayList<>());
+        }
+        if (byProjekt.isEmpty()) {
+            return byProjekt;
+        }
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_WHERE_PROJEKT_ID_IN_QUERY)) {
+            preparedStmt.setArray(1, connect.createArrayOf("INTEGER", byProjekt.keySet().toArray()));
+            try (ResultSet rs = executeQuery(preparedStmt)) {
+                //Wiersze są posortowane według projekt_id, więc lista zmienia się tylko na granicy projektów
+                List<Zadanie> current = null;
+                int currentProjektId = 0;
+                while (rs.next()) {
+                    Zadanie zadanie = MAPPER.mapRow(rs);
+                    if (current == null || zadanie.getProjektId() != currentProjektId) {
+                        currentProjektId = zadanie.getProjektId();
+                        current = byProjekt.get(currentProjektId);
+                    }
+                    current.add(zadanie);
+                }
+            }
+        } catch (SQLException e) {
+            throw queryFailed(e);
+        }
+        return byProjekt;
+    }
+
+    /**
+     * Przenosi zadanie bezpośrednio za wskazane zadanie tego samego projektu. Zwykle zmienia
+     * wyłącznie rangę przenoszonego zadania; rangi całego projektu są przeliczane w tej samej
+     * transakcji tylko wtedy, gdy między sąsiadami nie ma wolnej rangi.
+     *
+     * @param zadanieId           - ID przenoszonego zadania
+     * @param poprzednieZadanieId - ID zadania, za którym ma się znaleźć przenoszone zadanie,
+     *                            lub null, aby przenieść je na początek listy
+     */
+    @Override
+    public void moveZadanie(Integer zadanieId, Integer poprzednieZadanieId) {
+        if (zadanieId.equals(poprzednieZadanieId)) {
+            return;
+        }
+        Integer projektId;
+        boolean tight;
+        try (Connection connect = DataSource.getConnection()) {
+            boolean initialAutocommit = connect.getAutoCommit();
+            connect.setAutoCommit(false);
+            try {
+                lock(connect);
+                projektId = selectInt(connect, SELECT_PROJEKT_ID_QUERY, zadanieId);
+                if (projektId == null) {
+                    throw new IllegalArgumentException("Zadanie " + zadanieId + " nie istnieje");
+                }
+                Placement placement = place(connect, projektId, zadanieId, poprzednieZadanieId);
+                if (placement == null) {
+                    logger.debug("Brak wolnej rangi w projekcie {}, przeliczanie rang", projektId);
+                    rebalance(connect, projektId);
+                    placement = place(connect, projektId, zadanieId, poprzednieZadanieId);
+                }
+                try (PreparedStatement preparedStmt = statements.prepare(connect, UPDATE_KOLEJNOSC_QUERY)) {
+                    preparedStmt.setInt(1, placement.kolejnosc());
+                    preparedStmt.setInt(2, zadanieId);
+                    preparedStmt.executeUpdate();
+                }
+                connect.commit();
+                tight = placement.tight();
+            } catch (SQLException | RuntimeException e) {
+                connect.rollback();
+                throw e;
+            } finally {
+                if (initialAutocommit)
+                    connect.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        if (tight) {
+            scheduleRebalance(projektId);
+        }
+    }
+
+    /**
+     * Ustawia pełną kolejność zadań projektu, nadając im rangi co KOLEJNOSC_GAP.
+     *
+     * @param projektId  - ID projektu
+     * @param zadanieIds - ID wszystkich zadań projektu w nowej kolejności
+     */
+    @Override
+    public void reorderZadania(Integer projektId, List<Integer> zadanieIds) {
+        try (Connection connect = DataSource.getConnection()) {
+            boolean initialAutocommit = connect.getAutoCommit();
+            connect.setAutoCommit(false);
+            try {
+                lock(connect);
+                List<Integer> current = selectIdsOrdered(connect, projektId);
+                if (current.size() != zadanieIds.size() || !new HashSet<>(current).equals(new HashSet<>(zadanieIds))) {
+                    throw new IllegalArgumentException("Lista zadań nie odpowiada zadaniom projektu " + projektId);
+                }
+                assignRanks(connect, projektId, zadanieIds);
+                connect.commit();
+            } catch (SQLException | RuntimeException e) {
+                connect.rollback();
+                throw e;
+            } finally {
+                if (initialAutocommit)
+                    connect.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Przywraca odstępy KOLEJNOSC_GAP między rangami zadań projektu bez zmiany ich kolejności.
+     *
+     * @param projektId - ID projektu
+     */
+    @Override
+    public void rebalanceKolejnosc(Integer projektId) {
+        try (Connection connect = DataSource.getConnection()) {
+            boolean initialAutocommit = connect.getAutoCommit();
+            connect.setAutoCommit(false);
+            try {
+                lock(connect);
+                rebalance(connect, projektId);
+                connect.commit();
+            } catch (SQLException | RuntimeException e) {
+                connect.rollback();
+                throw e;
+            } finally {
+                if (initialAutocommit)
+                    connect.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Wyznacza rangę między zadaniem poprzednim (lub początkiem listy) a jego następnikiem.
+     *
+     * @return nowa ranga lub null, jeśli między sąsiadami nie ma wolnej rangi
+     */
+    private Placement place(Connection connect, Integer projektId, Integer zadanieId, Integer poprzednieZadanieId)
+            throws SQLException {
+        Integer previous = null;
+        Integer next;
+        if (poprzednieZadanieId == null) {
+            next = selectInt(connect, SELECT_FIRST_KOLEJNOSC_QUERY, projektId, zadanieId);
+        } else {
+            previous = selectInt(connect, SELECT_KOLEJNOSC_QUERY, poprzednieZadanieId, projektId);
+            if (previous == null) {
+                throw new IllegalArgumentException("Zadanie " + poprzednieZadanieId + " nie należy do projektu " + projektId);
+            }
+            next = selectInt(connect, SELECT_NEXT_KOLEJNOSC_QUERY, projektId, previous, zadanieId);
+        }
+        long kolejnosc;
+        if (previous == null && next == null) {
+            kolejnosc = KOLEJNOSC_GAP;
+        } else if (previous == null) {
+            kolejnosc = (long) next - KOLEJNOSC_GAP;
+        } else if (next == null) {
+            kolejnosc = (long) previous + KOLEJNOSC_GAP;
+        } else {
+            kolejnosc = ((long) previous + next) / 2;
+        }
+        if (kolejnosc < Integer.MIN_VALUE || kolejnosc > Integer.MAX_VALUE
+                || (previous != null && kolejnosc <= previous) || (next != null && kolejnosc >= next)) {
+            return null;
+        }
+        boolean tight = (previous != null && kolejnosc - previous < MIN_GAP) || (next != null && next - kolejnosc < MIN_GAP);
+        return new Placement((int) kolejnosc, tight);
+    }
+
+    private void rebalance(Connection connect, Integer projektId) throws SQLException {
+        assignRanks(connect, projektId, selectIdsOrdered(connect, projektId));
+    }
+
+    private void assignRanks(Connection connect, Integer projektId, List<Integer> zadanieIds) throws SQLException {
+        try (PreparedStatement clearStmt = statements.prepare(connect, CLEAR_KOLEJNOSC_QUERY)) {
+            clearStmt.setInt(1, projektId);
+            clearStmt.executeUpdate();
+        }
+        try (PreparedStatement preparedStmt = statements.prepare(connect, UPDATE_KOLEJNOSC_QUERY)) {
+            for (int i = 0; i < zadanieIds.size(); i++) {
+                preparedStmt.setInt(1, (i + 1) * KOLEJNOSC_GAP);
+                preparedStmt.setInt(2, zadanieIds.get(i));
+                preparedStmt.addBatch();
+            }
+            preparedStmt.executeBatch();
+        }
+    }
+
+    /**
+     * Przelicza rangi projektu w tle; kolejne zgłoszenia dla projektu oczekującego na
+     * przeliczenie są pomijane.
+     */
+    private void scheduleRebalance(Integer projektId) {
+        if (!pendingRebalance.add(projektId)) {
+            return;
+        }
+        rebalancer.execute(() -> {
+            try {
+                pendingRebalance.remove(projektId);
+                rebalanceKolejnosc(projektId);
+                logger.debug("Przeliczono rangi zadań projektu {}", projektId);
+            } catch (RuntimeException e) {
+                logger.warn("Nie udało się przeliczyć rang zadań projektu {}", projektId, e);
+            }
+        });
+    }
+
+    private void lock(Connection connect) throws SQLException {
+        try (PreparedStatement preparedStmt = statements.prepare(connect, LOCK_QUERY)) {
+            preparedStmt.execute();
+        }
+    }
+
+    private List<Integer> selectIdsOrdered(Connection connect, Integer projektId) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement preparedStmt = statements.prepare(connect, SELECT_IDS_ORDERED_QUERY)) {
+            preparedStmt.setInt(1, projektId);
+            try (ResultSet rs = preparedStmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Wykonuje zapytanie zwracające pojedynczą liczbę.
+     *
+     * @return wartość z pierwszego wiersza lub null, jeśli zapytanie nie zwróciło wiersza albo wartość to NULL
+     */
+    private Integer selectInt(Connection connect, String query, int... params) throws SQLException {
+        try (PreparedStatement preparedStmt = statements.prepare(connect, query)) {
+            for (int i = 0; i < params.length; i++) {
+                preparedStmt.setInt(i + 1, params[i]);
+            }
+            try (ResultSet rs = preparedStmt.executeQuery()) {
+                return rs.next() ? (Integer) rs.getObject(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Wykonuje zapytanie, rejestrując je w tokenie anulowania bieżącego wątku (jeśli istnieje).
+     */
+    private static ResultSet executeQuery(PreparedStatement preparedStmt) throws SQLException {
+        CancellationToken.register(preparedStmt);
+        try {
+            return preparedStmt.executeQuery();
+        } finally {
+            CancellationToken.unregister(preparedStmt);
+        }
+    }
+
+    private static RuntimeException queryFailed(SQLException e) {
+        return CancellationToken.isCurrentCancelled() ? new QueryCancelledException(e) : new RuntimeException(e);
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.project.model.Zadanie;
+
+/**
+ * RowMapper zadania dla zapytań wybierających kolumny COLUMNS, począwszy od pierwszej.
+ */
+public final class ZadanieRowMapper implements RowMapper<Zadanie> {
+    public static final String COLUMNS = "zadanie_id, nazwa, opis, kolejnosc, dataczas_utworzenia, projekt_id";
+    public static final int COLUMN_COUNT = 6;
+
+    public static final ZadanieRowMapper INSTANCE = new ZadanieRowMapper();
+
+    private ZadanieRowMapper() {
+    }
+
+    @Override
+    public Zadanie mapRow(ResultSet rs) throws SQLException {
+        return new Zadanie(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getObject(4, Integer.class),
+                rs.getObject(5, LocalDateTime.class), rs.getInt(6));
+    }
+
+    @Override
+    public void mapAll(ResultSet rs, List<Zadanie> rows) throws SQLException {
+        while (rs.next()) {
+            rows.add(mapRow(rs));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.project.dao;
+
+/**
+ * Wpis dziennika zmian (tabela zmiana) zapisany przez wyzwalacz tabeli projekt lub zadanie.
+ *
+ * @param seq       - numer kolejny wpisu, rosnący w kolejności przydzielenia
+ * @param tabela    - tabela zmienionego wiersza
+ * @param operacja  - rodzaj zmiany
+ * @param rekordId  - ID zmienionego projektu lub zadania
+ * @param projektId - ID projektu, którego dotyczy zmiana (dla zadania - projekt zadania)
+ */
+public record Zmiana(long seq, Tabela tabela, Operacja operacja, int rekordId, int projektId) {
+
+    public enum Tabela {
+        PROJEKT, ZADANIE;
+
+        static Tabela of(String kod) {
+            return switch (kod) {
+                case "P" -> PROJEKT;
+                case "Z" -> ZADANIE;
+                default -> throw new IllegalArgumentException("Nieznana tabela w dzienniku zmian: " + kod);
+            };
+        }
+    }
+
+    public enum Operacja {
+        INSERT, UPDATE, DELETE;
+
+        static Operacja of(String kod) {
+            return switch (kod) {
+                case "I" -> INSERT;
+                case "U" -> UPDATE;
+                case "D" -> DELETE;
+                default -> throw new IllegalArgumentException("Nieznana operacja w dzienniku zmian: " + kod);
+            };
+        }
+    }
+}
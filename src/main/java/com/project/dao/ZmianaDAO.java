@@ -0,0 +1,17 @@
+package com.project.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ZmianaDAO {
+
+	long getLastSeq();
+
+	List<Zmiana> getZmianySince(long seq, int limit);
+
+	List<Zmiana> getZmianyWhereSeqIn(Collection<Long> seqs);
+
+	int deleteZmianyBefore(LocalDateTime dataczas);
+
+}
@@ -0,0 +1,106 @@
+package com.project.dao;
+
+import com.project.datasource.DataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Odczyt i czyszczenie dziennika zmian zasilanego wyzwalaczami tabel projekt i zadanie.
+ * Wpisy są odczytywane od numeru ostatniego przetworzonego wpisu po indeksie klucza głównego,
+ * więc koszt odczytu zależy od liczby nowych zmian, a nie od rozmiaru tabel.
+ */
+public class ZmianaDAOImpl implements ZmianaDAO {
+    private static final String SELECT_LAST_SEQ_QUERY = "SELECT MAX(seq) FROM zmiana";
+    private static final String SELECT_SINCE_QUERY = "SELECT seq, tabela, operacja, rekord_id, projekt_id"
+            + " FROM zmiana WHERE seq > ? ORDER BY seq LIMIT ?";
+    private static final String SELECT_WHERE_SEQ_IN_QUERY = "SELECT seq, tabela, operacja, rekord_id, projekt_id"
+            + " FROM zmiana WHERE seq IN (UNNEST(?)) ORDER BY seq";
+    private static final String DELETE_BEFORE_QUERY = "DELETE FROM zmiana WHERE dataczas < ?";
+
+    private final StatementCache statements = StatementCache.shared();
+
+    /**
+     * @return numer ostatniego wpisu dziennika lub 0, jeśli dziennik jest pusty
+     */
+    @Override
+    public long getLastSeq() {
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_LAST_SEQ_QUERY);
+             ResultSet rs = preparedStmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Pobiera wpisy dziennika nowsze niż podany numer, w kolejności numerów.
+     *
+     * @param seq   - numer ostatniego przetworzonego wpisu
+     * @param limit - maksymalna liczba wpisów
+     */
+    @Override
+    public List<Zmiana> getZmianySince(long seq, int limit) {
+        List<Zmiana> zmiany = new ArrayList<>();
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_SINCE_QUERY)) {
+            preparedStmt.setLong(1, seq);
+            preparedStmt.setInt(2, limit);
+            readZmiany(preparedStmt, zmiany);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return zmiany;
+    }
+
+    /**
+     * Pobiera wpisy dziennika o podanych numerach (istniejące), w kolejności numerów.
+     */
+    @Override
+    public List<Zmiana> getZmianyWhereSeqIn(Collection<Long> seqs) {
+        List<Zmiana> zmiany = new ArrayList<>();
+        if (seqs.isEmpty()) {
+            return zmiany;
+        }
+        try (Connection connect = DataSource.getReadConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, SELECT_WHERE_SEQ_IN_QUERY)) {
+            preparedStmt.setArray(1, connect.createArrayOf("BIGINT", seqs.toArray()));
+            readZmiany(preparedStmt, zmiany);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return zmiany;
+    }
+
+    private static void readZmiany(PreparedStatement preparedStmt, List<Zmiana> zmiany) throws SQLException {
+        try (ResultSet rs = preparedStmt.executeQuery()) {
+            while (rs.next()) {
+                zmiany.add(new Zmiana(rs.getLong(1), Zmiana.Tabela.of(rs.getString(2)),
+                        Zmiana.Operacja.of(rs.getString(3)), rs.getInt(4), rs.getInt(5)));
+            }
+        }
+    }
+
+    /**
+     * Usuwa wpisy dziennika zapisane przed podaną chwilą.
+     *
+     * @return liczba usuniętych wpisów
+     */
+    @Override
+    public int deleteZmianyBefore(LocalDateTime dataczas) {
+        try (Connection connect = DataSource.getConnection();
+             PreparedStatement preparedStmt = statements.prepare(connect, DELETE_BEFORE_QUERY)) {
+            preparedStmt.setObject(1, dataczas);
+            return preparedStmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
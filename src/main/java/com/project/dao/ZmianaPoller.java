@@ -0,0 +1,255 @@
+package com.project.dao;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.project.model.Projekt;
+
+/**
+ * Śledzi zmiany projektów i zadań wykonane przez wszystkich piszących (także inne instancje aplikacji
+ * korzystające z bazy w trybie serwera), odczytując w tle co interval nowe wpisy dziennika zmian.
+ * Wpisy z jednego odczytu są scalane w Zmiany - dodane i zmienione projekty są pobierane jednym zapytaniem
+ * w skróconej projekcji, a odbiorca dostaje tylko to, co się zmieniło, zamiast ponownie pobierać całą stronę.
+ * Przed pobraniem projektów powiadamiane są dekoratory ProjektDAO (changedExternally), aby pamięci
+ * podręczne nie zwróciły nieaktualnych danych.
+ * Numery wpisów są przydzielane przy zapisie, a nie przy zatwierdzeniu transakcji, więc luka w numeracji
+ * może oznaczać transakcję, która jeszcze trwa, albo transakcję wycofaną (jej numery nie pojawią się nigdy).
+ * Odczyt nie czeka na luki - nowsze wpisy są przetwarzane od razu, a numery z luk są zapamiętywane
+ * i przy każdym odczycie sprawdzane jednym zapytaniem po kluczu głównym, więc zmiany długiej transakcji
+ * są przekazywane po jej zatwierdzeniu. Numer z luki jest sprawdzany przez retention - wpisy starsze
+ * niż retention i tak są usuwane. Jeśli luk jest więcej niż MAX_GAPS, odbiorca dostaje pelneOdswiezenie.
+ * Co PRUNE_INTERVAL usuwane są wpisy starsze niż retention. Jeśli od ostatniego odczytu minęło więcej
+ * niż retention, potrzebne wpisy mogły zostać usunięte - odbiorca dostaje wtedy Zmiany z pelneOdswiezenie.
+ * Odbiorca jest wywoływany w wątku odczytu dziennika.
+ */
+public class ZmianaPoller implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ZmianaPoller.class);
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+    public static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+    private static final int MAX_GAPS = 10_000;
+    private static final Duration PRUNE_INTERVAL = Duration.ofMinutes(1);
+    private static final int BATCH_SIZE = 1000;
+
+    private final ZmianaDAO zmianaDAO;
+    private final ProjektDAO projektDAO;
+    private final Duration interval;
+    private final Duration retention;
+    private final Consumer<Zmiany> listener;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            task -> Thread.ofPlatform().daemon().name("zmiana-poller").unstarted(task));
+    //Stan odczytu - używany tylko w wątku executor
+    private long lastSeq = -1;
+    private long lastPollNanos;
+    private long lastPruneNanos;
+    //Numery z luk w numeracji -> chwila zauważenia luki
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    /**
+     * Zmiany od poprzedniego powiadomienia.
+     *
+     * @param dodane            - dodane projekty (skrócona projekcja)
+     * @param zmienione         - zmienione projekty (skrócona projekcja)
+     * @param usuniete          - ID usuniętych projektów
+     * @param zmienioneZadania  - ID istniejących projektów, których zadania dodano, zmieniono lub usunięto
+     * @param pelneOdswiezenie  - czy zmiany są nieznane i dane trzeba pobrać od nowa (pozostałe pola są puste)
+     */
+    public record Zmiany(List<Projekt> dodane, List<Projekt> zmienione, Set<Integer> usuniete,
+                         Set<Integer> zmienioneZadania, boolean pelneOdswiezenie) {
+
+        static Zmiany pelne() {
+            return new Zmiany(List.of(), List.of(), Set.of(), Set.of(), true);
+        }
+    }
+
+    /**
+     * @param projektDAO - DAO, przez które są pobierane zmienione projekty (i którego dekoratory są powiadamiane)
+     * @param interval   - odstęp między odczytami dziennika
+     * @param retention  - czas przechowywania wpisów dziennika
+     * @param listener   - odbiorca zmian, wywoływany w wątku odczytu dziennika
+     */
+    public ZmianaPoller(ZmianaDAO zmianaDAO, ProjektDAO projektDAO, Duration interval, Duration retention,
+                        Consumer<Zmiany> listener) {
+        this.zmianaDAO = zmianaDAO;
+        this.projektDAO = projektDAO;
+        this.interval = interval;
+        this.retention = retention;
+        this.listener = listener;
+    }
+
+    /**
+     * Rozpoczyna odczyt dziennika - zmiany zapisane przed wywołaniem są pomijane.
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(this::pollSafely, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            //Wyjątek zatrzymałby kolejne odczyty - następna próba po interval
+            logger.warn("Błąd odczytu dziennika zmian", e);
+        }
+    }
+
+    private void poll() {
+        long now = System.nanoTime();
+        if (lastSeq < 0) {
+            lastSeq = zmianaDAO.getLastSeq();
+            lastPollNanos = now;
+            lastPruneNanos = now;
+            logger.info("Śledzenie zmian od wpisu {} (co {} ms)", lastSeq, interval.toMillis());
+            return;
+        }
+        if (now - lastPollNanos > retention.toNanos()) {
+            logger.warn("Dziennik zmian nie był odczytywany dłużej niż {} - pełne odświeżenie danych", retention);
+            fullRefresh(now);
+            return;
+        }
+        if (!gaps.isEmpty()) {
+            //Wpisy transakcji zatwierdzonych po odczycie nowszych wpisów
+            List<Zmiana> late = zmianaDAO.getZmianyWhereSeqIn(gaps.keySet());
+            if (!late.isEmpty()) {
+                late.forEach(zmiana -> gaps.remove(zmiana.seq()));
+                logger.debug("Wypełniono {} luk w numeracji dziennika zmian", late.size());
+                publish(late);
+            }
+            expireGaps(now);
+        }
+        List<Zmiana> zmiany;
+        do {
+            zmiany = zmianaDAO.getZmianySince(lastSeq, BATCH_SIZE);
+            if (!accept(zmiany, now)) {
+                logger.warn("Więcej niż {} luk w numeracji dziennika zmian - pełne odświeżenie danych", MAX_GAPS);
+                fullRefresh(now);
+                return;
+            }
+            if (!zmiany.isEmpty()) {
+                publish(zmiany);
+            }
+        } while (zmiany.size() == BATCH_SIZE);
+        lastPollNanos = now;
+        if (now - lastPruneNanos >= PRUNE_INTERVAL.toNanos()) {
+            lastPruneNanos = now;
+            int deleted = zmianaDAO.deleteZmianyBefore(LocalDateTime.now().minus(retention));
+            logger.debug("Usunięto {} wpisów dziennika zmian starszych niż {}", deleted, retention);
+        }
+    }
+
+    /**
+     * Przesuwa lastSeq za odczytane wpisy i zapamiętuje numery z luk w numeracji.
+     *
+     * @return false, jeśli luk jest więcej niż MAX_GAPS
+     */
+    private boolean accept(List<Zmiana> zmiany, long now) {
+        for (Zmiana zmiana : zmiany) {
+            if (zmiana.seq() - lastSeq - 1 + gaps.size() > MAX_GAPS) {
+                return false;
+            }
+            for (long seq = lastSeq + 1; seq < zmiana.seq(); seq++) {
+                gaps.put(seq, now);
+            }
+            lastSeq = zmiana.seq();
+        }
+        return true;
+    }
+
+    /**
+     * Przestaje sprawdzać luki starsze niż retention - ich wpisy, gdyby się pojawiły, zostałyby usunięte.
+     */
+    private void expireGaps(long now) {
+        int before = gaps.size();
+        gaps.values().removeIf(since -> now - since > retention.toNanos());
+        if (gaps.size() < before) {
+            logger.debug("Luki w numeracji dziennika zmian bez wpisów przez {} uznane za wycofane transakcje: {}",
+                    retention, before - gaps.size());
+        }
+    }
+
+    private void fullRefresh(long now) {
+        lastSeq = zmianaDAO.getLastSeq();
+        lastPollNanos = now;
+        gaps.clear();
+        invalidateAll(projektDAO);
+        listener.accept(Zmiany.pelne());
+    }
+
+    private void publish(List<Zmiana> zmiany) {
+        //ID projektu -> czy pierwszą zmianą projektu w tej grupie było jego dodanie
+        Map<Integer, Boolean> projekty = new LinkedHashMap<>();
+        Set<Integer> zmienioneZadania = new LinkedHashSet<>();
+        for (Zmiana zmiana : zmiany) {
+            if (zmiana.tabela() == Zmiana.Tabela.PROJEKT) {
+                projekty.putIfAbsent(zmiana.rekordId(), zmiana.operacja() == Zmiana.Operacja.INSERT);
+            } else {
+                zmienioneZadania.add(zmiana.projektId());
+            }
+        }
+        List<Projekt> dodane = new ArrayList<>();
+        List<Projekt> zmienione = new ArrayList<>();
+        Set<Integer> usuniete = new HashSet<>();
+        if (!projekty.isEmpty()) {
+            if (projektDAO instanceof ProjektDAODecorator decorator) {
+                decorator.changedExternally(projekty.keySet());
+            }
+            Set<Integer> nieistniejace = new HashSet<>(projekty.keySet());
+            for (Projekt projekt : projektDAO.getProjektySummaryWhereIdIn(new ArrayList<>(projekty.keySet()))) {
+                nieistniejace.remove(projekt.getProjektId());
+                (projekty.get(projekt.getProjektId()) ? dodane : zmienione).add(projekt);
+            }
+            //Projekt dodany i usunięty między odczytami nie był nigdy widoczny
+            nieistniejace.stream().filter(projektId -> !projekty.get(projektId)).forEach(usuniete::add);
+        }
+        //Zadania usuniętego projektu znikają razem z nim
+        zmienioneZadania.removeAll(usuniete);
+        if (dodane.isEmpty() && zmienione.isEmpty() && usuniete.isEmpty() && zmienioneZadania.isEmpty()) {
+            return;
+        }
+        logger.debug("Zmiany: dodane {}, zmienione {}, usunięte {}, zmienione zadania {} projektów (do wpisu {})",
+                dodane.size(), zmienione.size(), usuniete.size(), zmienioneZadania.size(), lastSeq);
+        listener.accept(new Zmiany(dodane, zmienione, usuniete, zmienioneZadania, false));
+    }
+
+    private static void invalidateAll(ProjektDAO projektDAO) {
+        if (projektDAO instanceof CachingProjektDAO cachingDAO) {
+            cachingDAO.invalidateAll();
+        }
+        if (projektDAO instanceof QueryCachingProjektDAO queryCachingDAO) {
+            queryCachingDAO.invalidateAll();
+        }
+        if (projektDAO instanceof SearchIndexProjektDAO searchIndexDAO) {
+            searchIndexDAO.rebuildIndex();
+        }
+        if (projektDAO instanceof ProjektDAODecorator decorator) {
+            invalidateAll(decorator.getDelegate());
+        }
+    }
+
+    /**
+     * Zatrzymuje odczyt dziennika i czeka na zakończenie trwającego odczytu.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
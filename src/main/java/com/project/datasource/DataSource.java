@@ -3,48 +3,111 @@ package com.project.datasource;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 public class DataSource {
+	private static final Logger logger = LoggerFactory.getLogger(DataSource.class);
 	/*
-	parametry do połączenia z bazą danych
-	1. DB_DIR - katalog, w którym znajduje się baza danych
-	2. DB_NAME - nazwa bazy danych
-	3. DB_USERNAME - nazwa użytkownika bazy danych
-	4. DB_USER_PASSWORD - hasło użytkownika bazy danych
-	5. HSQL_ADDITIONAL_PARAMS - dodatkowe parametry do połączenia z bazą danych
-
+	parametry połączenia z bazą danych i puli połączeń są wczytywane przez DataSourceConfig
+	(plik datasource.properties, plik wskazany przez db.config, zmienne środowiskowe, właściwości systemowe)
+	1. db.dir, db.name - katalog i nazwa bazy danych
+	2. db.username, db.password - użytkownik bazy danych i jego hasło
+	3. db.urlParams - dodatkowe parametry adresu HSQLDB, db.url - pełny adres JDBC
+	4. db.pool.* - rozmiar puli, czasy oczekiwania, wykrywanie wycieków połączeń
+	5. db.pool.splitReadWrite - osobna pula połączeń tylko do odczytu (db.pool.read.*)
+	6. db.mode, db.server.* - baza w procesie aplikacji albo wspólna baza na serwerze HSQLDB (DbMode)
 	 */
-	private final static String DB_DIR = "db";
-	private final static String DB_NAME = "projekty";
-	private final static String DB_USERNAME = "admin";
-	private final static String DB_USER_PASSWORD = "admin";
-	/*
-	1. sql.syntax_pgs - this property, when set true, enables support for TEXT and SERIAL types.
-		It also enables NEXTVAL, CURRVAL and LASTVAL syntax and also allow compatibility with some other aspects of this dialect.
-	2. hsqldb.write_delay - If the property is true, the default WRITE DELAY property of the database is used, which is 500 milliseconds.
-		If the property is false, the WRITE DELAY is set to 0 seconds.
-	*/
-	private final static String HSQL_ADDITIONAL_PARAMS = ";hsqldb.write_delay=false;sql.syntax_pgs=true";
-	private final static String DB_URL = String.format("jdbc:hsqldb:file:%s/%s%s", DB_DIR, DB_NAME, HSQL_ADDITIONAL_PARAMS);
-
-
+	private final static DataSourceConfig config;
 	private final static HikariDataSource ds;
+	private final static HikariPoolMetrics metrics;
+	private final static HikariDataSource readDs;
+	private final static HikariPoolMetrics readMetrics;
+	//Serwer bazy uruchomiony przez ten proces (db.mode=SERVER), w pozostałych trybach null
+	private final static DbServer server;
 
 	static {
-			HikariConfig config = new HikariConfig();
-			config.setJdbcUrl(DB_URL);
-			config.setUsername(DB_USERNAME);
-			config.setPassword(DB_USER_PASSWORD);
-			config.setMaximumPoolSize(1);
-			ds = new HikariDataSource(config);
+			config = DataSourceConfig.load();
+			logger.info("Konfiguracja bazy danych: {}", config);
+			server = config.getMode() == DbMode.SERVER ? DbServer.start(config, true) : null;
+			metrics = new HikariPoolMetrics("projekt-pool");
+			ds = createPool(metrics, false);
+			if (config.isSplitReadWrite()) {
+				readMetrics = new HikariPoolMetrics("projekt-read-pool");
+				readDs = createPool(readMetrics, true);
+			} else {
+				readMetrics = metrics;
+				readDs = ds;
+			}
 	}
 
 	private DataSource() {}
 
+	private static HikariDataSource createPool(HikariPoolMetrics poolMetrics, boolean readOnly) {
+		HikariConfig hikariConfig = config.toHikariConfig(poolMetrics.getPoolName(), readOnly);
+		hikariConfig.setMetricsTrackerFactory(poolMetrics);
+		HikariDataSource pool = new HikariDataSource(hikariConfig);
+		poolMetrics.bind(pool);
+		return pool;
+	}
+
+	/**
+	 * @return połączenie do odczytu i zapisu
+	 */
 	public static Connection getConnection() throws SQLException {
 		return ds.getConnection();
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Zwraca połączenie dla zapytań, które tylko odczytują dane. Przy db.pool.splitReadWrite=true
+	 * pochodzi ono z osobnej puli połączeń tylko do odczytu, więc długie odczyty nie zajmują
+	 * połączeń potrzebnych do zapisu; w przeciwnym razie z tej samej puli co getConnection().
+	 */
+	public static Connection getReadConnection() throws SQLException {
+		return readDs.getConnection();
+	}
+
+	public static DataSourceConfig getConfig() {
+		return config;
+	}
+
+	public static PoolMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return metryki puli połączeń do odczytu - te same co getMetrics(), jeśli pule nie są rozdzielone
+	 */
+	public static PoolMetrics getReadMetrics() {
+		return readMetrics;
+	}
+
+	/**
+	 * Zamyka pule połączeń, a w trybie db.mode=SERVER także bazę i serwer - klienci innych instancji
+	 * tracą wtedy połączenie.
+	 */
+	public static void close() {
+		if (readDs != ds) {
+			readDs.close();
+		}
+		ds.close();
+		if (server != null) {
+			server.stop();
+		}
+	}
+
+	/**
+	 * Publikuje statystyki puli (i puli do odczytu, jeśli jest osobna) jako MBeany
+	 * com.project:type=Pool,name=&lt;nazwa puli&gt;.
+	 */
+	public static void registerMBeans() {
+		Jmx.register("type=Pool,name=" + metrics.getPoolName(), new PoolMetricsBean(metrics));
+		if (readMetrics != metrics) {
+			Jmx.register("type=Pool,name=" + readMetrics.getPoolName(), new PoolMetricsBean(readMetrics));
+		}
+	}
+
+}
@@ -0,0 +1,440 @@
+package com.project.datasource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import com.zaxxer.hikari.HikariConfig;
+
+/**
+ * Konfiguracja połączenia z bazą danych i puli połączeń.
+ * Wartości są ustalane w kolejności (każde kolejne źródło nadpisuje poprzednie):
+ * 1. wartości domyślne z DEFAULTS
+ * 2. plik datasource.properties z classpath
+ * 3. plik wskazany właściwością systemową db.config lub zmienną środowiskową DB_CONFIG
+ * 4. zmienne środowiskowe - nazwa klucza wielkimi literami z '_' zamiast '.', np. DB_POOL_MAXSIZE
+ * 5. właściwości systemowe o nazwie klucza, np. -Ddb.pool.maxSize=8
+ */
+public final class DataSourceConfig {
+	public static final String CONFIG_FILE_PROPERTY = "db.config";
+
+	public static final String DIR = "db.dir";
+	public static final String NAME = "db.name";
+	public static final String USERNAME = "db.username";
+	public static final String PASSWORD = "db.password";
+	/**
+	 * Pełny adres JDBC - jeśli jest ustawiony, db.dir, db.name i db.urlParams są pomijane.
+	 */
+	public static final String URL = "db.url";
+	public static final String URL_PARAMS = "db.urlParams";
+	public static final String POOL_MAX_SIZE = "db.pool.maxSize";
+	public static final String POOL_MIN_IDLE = "db.pool.minIdle";
+	public static final String POOL_CONNECTION_TIMEOUT_MS = "db.pool.connectionTimeoutMs";
+	public static final String POOL_IDLE_TIMEOUT_MS = "db.pool.idleTimeoutMs";
+	public static final String POOL_MAX_LIFETIME_MS = "db.pool.maxLifetimeMs";
+	/**
+	 * Czas wypożyczenia połączenia, po którym w logu pojawia się ostrzeżenie o możliwym wycieku (0 wyłącza).
+	 */
+	public static final String POOL_LEAK_DETECTION_MS = "db.pool.leakDetectionThresholdMs";
+	/**
+	 * Czy zapytania odczytujące mają korzystać z osobnej puli połączeń tylko do odczytu.
+	 */
+	public static final String POOL_SPLIT_READ_WRITE = "db.pool.splitReadWrite";
+	public static final String READ_POOL_MAX_SIZE = "db.pool.read.maxSize";
+	public static final String READ_POOL_MIN_IDLE = "db.pool.read.minIdle";
+	/**
+	 * Maksymalna liczba przygotowanych poleceń SQL przechowywanych dla jednego połączenia (0 wyłącza).
+	 */
+	public static final String STATEMENT_CACHE_SIZE = "db.statementCache.size";
+	/**
+	 * Sposób utrwalania zapisów - SYNC, GROUP_COMMIT lub WRITE_DELAY (zob. Durability).
+	 */
+	public static final String DURABILITY = "db.durability";
+	/**
+	 * Odstęp zapisu dziennika HSQLDB na dysk przy db.durability=WRITE_DELAY.
+	 */
+	public static final String WRITE_DELAY_MS = "db.writeDelayMs";
+	/**
+	 * Maksymalny czas oczekiwania pierwszego zapisu w kolejce na zatwierdzenie grupy.
+	 */
+	public static final String GROUP_COMMIT_MAX_DELAY_MS = "db.groupCommit.maxDelayMs";
+	public static final String GROUP_COMMIT_MAX_ROWS = "db.groupCommit.maxRows";
+	/**
+	 * Pojemność kolejki zapisów - po jej zapełnieniu zlecający zapis czeka na miejsce.
+	 */
+	public static final String GROUP_COMMIT_QUEUE_CAPACITY = "db.groupCommit.queueCapacity";
+	/**
+	 * Sposób przechowywania tabel - MEMORY lub CACHED (zob. TableType). Istniejące tabele innego
+	 * typu są przekształcane przy inicjalizacji bazy.
+	 */
+	public static final String TABLE_TYPE = "db.tableType";
+	/**
+	 * Maksymalna liczba wierszy tabel CACHED przechowywanych w pamięci.
+	 */
+	public static final String CACHE_ROWS = "db.cache.rows";
+	/**
+	 * Maksymalny łączny rozmiar wierszy tabel CACHED przechowywanych w pamięci (w KB).
+	 */
+	public static final String CACHE_SIZE_KB = "db.cache.sizeKb";
+	/**
+	 * Czy plik .data ma być odwzorowany w pamięci (NIO) - do rozmiaru db.nio.maxSizeMb.
+	 */
+	public static final String NIO_ENABLED = "db.nio.enabled";
+	public static final String NIO_MAX_SIZE_MB = "db.nio.maxSizeMb";
+	/**
+	 * Sposób dostępu do bazy - EMBEDDED, SERVER lub CLIENT (zob. DbMode).
+	 */
+	public static final String MODE = "db.mode";
+	/**
+	 * Adres serwera HSQLDB, z którym łączy się aplikacja w trybie CLIENT.
+	 */
+	public static final String SERVER_HOST = "db.server.host";
+	public static final String SERVER_PORT = "db.server.port";
+	/**
+	 * Adres sieciowy, na którym nasłuchuje serwer uruchomiony przez aplikację. Domyślnie 127.0.0.1 - serwer
+	 * przyjmuje tylko połączenia z tego komputera; udostępnienie go innym stacjom wymaga jawnego podania
+	 * adresu (0.0.0.0 - wszystkie adresy) i zmiany db.username/db.password.
+	 */
+	public static final String SERVER_ADDRESS = "db.server.address";
+	/**
+	 * Sterowanie współbieżnością transakcji bazy udostępnianej przez serwer - LOCKS, MVLOCKS lub MVCC.
+	 */
+	public static final String SERVER_TX_CONTROL = "db.server.txControl";
+
+	/*
+	1. sql.syntax_pgs - this property, when set true, enables support for TEXT and SERIAL types.
+		It also enables NEXTVAL, CURRVAL and LASTVAL syntax and also allow compatibility with some other aspects of this dialect.
+	2. hsqldb.write_delay - If the property is true, the default WRITE DELAY property of the database is used, which is 500 milliseconds.
+		If the property is false, the WRITE DELAY is set to 0 seconds.
+	*/
+	public static final Map<String, String> DEFAULTS;
+
+	static {
+		Map<String, String> defaults = new LinkedHashMap<>();
+		defaults.put(DIR, "db");
+		defaults.put(NAME, "projekty");
+		defaults.put(USERNAME, "admin");
+		defaults.put(PASSWORD, "admin");
+		defaults.put(URL, "");
+		defaults.put(URL_PARAMS, ";hsqldb.write_delay=false;sql.syntax_pgs=true");
+		defaults.put(POOL_MAX_SIZE, "4");
+		defaults.put(POOL_MIN_IDLE, "1");
+		defaults.put(POOL_CONNECTION_TIMEOUT_MS, "30000");
+		defaults.put(POOL_IDLE_TIMEOUT_MS, "600000");
+		defaults.put(POOL_MAX_LIFETIME_MS, "1800000");
+		defaults.put(POOL_LEAK_DETECTION_MS, "0");
+		defaults.put(POOL_SPLIT_READ_WRITE, "false");
+		defaults.put(READ_POOL_MAX_SIZE, "4");
+		defaults.put(READ_POOL_MIN_IDLE, "1");
+		defaults.put(STATEMENT_CACHE_SIZE, "64");
+		defaults.put(DURABILITY, Durability.SYNC.name());
+		defaults.put(WRITE_DELAY_MS, "500");
+		defaults.put(GROUP_COMMIT_MAX_DELAY_MS, "10");
+		defaults.put(GROUP_COMMIT_MAX_ROWS, "500");
+		defaults.put(GROUP_COMMIT_QUEUE_CAPACITY, "10000");
+		defaults.put(TABLE_TYPE, TableType.MEMORY.name());
+		defaults.put(CACHE_ROWS, "50000");
+		defaults.put(CACHE_SIZE_KB, "10000");
+		defaults.put(NIO_ENABLED, "true");
+		defaults.put(NIO_MAX_SIZE_MB, "256");
+		defaults.put(MODE, DbMode.EMBEDDED.name());
+		defaults.put(SERVER_HOST, "localhost");
+		defaults.put(SERVER_PORT, "9001");
+		defaults.put(SERVER_ADDRESS, "127.0.0.1");
+		defaults.put(SERVER_TX_CONTROL, "MVCC");
+		DEFAULTS = Collections.unmodifiableMap(defaults);
+	}
+
+	private static final String RESOURCE = "/datasource.properties";
+
+	private final Properties properties;
+
+	private DataSourceConfig(Properties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Wczytuje konfigurację ze wszystkich źródeł.
+	 */
+	public static DataSourceConfig load() {
+		Properties properties = new Properties();
+		properties.putAll(DEFAULTS);
+		try (InputStream in = DataSourceConfig.class.getResourceAsStream(RESOURCE)) {
+			if (in != null) {
+				properties.load(in);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		String file = System.getProperty(CONFIG_FILE_PROPERTY, System.getenv(toEnvName(CONFIG_FILE_PROPERTY)));
+		if (file != null && !file.isBlank()) {
+			try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+				properties.load(reader);
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		for (String key : DEFAULTS.keySet()) {
+			String value = System.getenv(toEnvName(key));
+			if (value != null) {
+				properties.setProperty(key, value);
+			}
+		}
+		for (String key : DEFAULTS.keySet()) {
+			String value = System.getProperty(key);
+			if (value != null) {
+				properties.setProperty(key, value);
+			}
+		}
+		return new DataSourceConfig(properties);
+	}
+
+	/**
+	 * Tworzy konfigurację z podanych wartości uzupełnionych wartościami domyślnymi.
+	 */
+	public static DataSourceConfig of(Map<String, String> values) {
+		Properties properties = new Properties();
+		properties.putAll(DEFAULTS);
+		properties.putAll(values);
+		return new DataSourceConfig(properties);
+	}
+
+	/**
+	 * Zwraca adres JDBC zależny od db.mode - plik bazy w trybie EMBEDDED, a w trybach SERVER i CLIENT
+	 * baza db.name na serwerze HSQLDB (w trybie SERVER na serwerze uruchomionym w tym procesie).
+	 */
+	public String getJdbcUrl() {
+		String url = get(URL);
+		if (!url.isBlank()) {
+			return url;
+		}
+		return switch (getMode()) {
+			case EMBEDDED -> String.format("jdbc:hsqldb:file:%s%s", getDatabaseFile(), get(URL_PARAMS));
+			case SERVER -> String.format("jdbc:hsqldb:hsql://%s:%d/%s", getServerLocalHost(), getServerPort(), get(NAME));
+			case CLIENT -> String.format("jdbc:hsqldb:hsql://%s:%d/%s", getServerHost(), getServerPort(), get(NAME));
+		};
+	}
+
+	/**
+	 * @return ścieżka bazy udostępnianej przez serwer HSQLDB - te same pliki co w trybie EMBEDDED,
+	 * z parametrami db.urlParams i sterowaniem transakcjami db.server.txControl
+	 */
+	public String getServerDatabasePath() {
+		return String.format("file:%s%s;hsqldb.tx=%s", getDatabaseFile(), get(URL_PARAMS),
+				getServerTxControl().toLowerCase(Locale.ROOT));
+	}
+
+	private String getDatabaseFile() {
+		return get(DIR) + "/" + get(NAME);
+	}
+
+	public String getDatabaseName() {
+		return get(NAME);
+	}
+
+	public String getUsername() {
+		return get(USERNAME);
+	}
+
+	public String getPassword() {
+		return get(PASSWORD);
+	}
+
+	public int getMaximumPoolSize() {
+		return getInt(POOL_MAX_SIZE);
+	}
+
+	public int getMinimumIdle() {
+		return getInt(POOL_MIN_IDLE);
+	}
+
+	public long getConnectionTimeoutMs() {
+		return getLong(POOL_CONNECTION_TIMEOUT_MS);
+	}
+
+	public long getIdleTimeoutMs() {
+		return getLong(POOL_IDLE_TIMEOUT_MS);
+	}
+
+	public long getMaxLifetimeMs() {
+		return getLong(POOL_MAX_LIFETIME_MS);
+	}
+
+	public long getLeakDetectionThresholdMs() {
+		return getLong(POOL_LEAK_DETECTION_MS);
+	}
+
+	public boolean isSplitReadWrite() {
+		return Boolean.parseBoolean(get(POOL_SPLIT_READ_WRITE).trim());
+	}
+
+	public int getReadMaximumPoolSize() {
+		return getInt(READ_POOL_MAX_SIZE);
+	}
+
+	public int getReadMinimumIdle() {
+		return getInt(READ_POOL_MIN_IDLE);
+	}
+
+	public int getStatementCacheSize() {
+		return getInt(STATEMENT_CACHE_SIZE);
+	}
+
+	public Durability getDurability() {
+		try {
+			return Durability.valueOf(get(DURABILITY).trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Niepoprawna wartość " + DURABILITY + ": " + get(DURABILITY), e);
+		}
+	}
+
+	public long getWriteDelayMs() {
+		return getLong(WRITE_DELAY_MS);
+	}
+
+	public long getGroupCommitMaxDelayMs() {
+		return getLong(GROUP_COMMIT_MAX_DELAY_MS);
+	}
+
+	public int getGroupCommitMaxRows() {
+		return getInt(GROUP_COMMIT_MAX_ROWS);
+	}
+
+	public int getGroupCommitQueueCapacity() {
+		return getInt(GROUP_COMMIT_QUEUE_CAPACITY);
+	}
+
+	public TableType getTableType() {
+		try {
+			return TableType.valueOf(get(TABLE_TYPE).trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Niepoprawna wartość " + TABLE_TYPE + ": " + get(TABLE_TYPE), e);
+		}
+	}
+
+	public int getCacheRows() {
+		return getInt(CACHE_ROWS);
+	}
+
+	public int getCacheSizeKb() {
+		return getInt(CACHE_SIZE_KB);
+	}
+
+	public boolean isNioEnabled() {
+		return Boolean.parseBoolean(get(NIO_ENABLED).trim());
+	}
+
+	public int getNioMaxSizeMb() {
+		return getInt(NIO_MAX_SIZE_MB);
+	}
+
+	public DbMode getMode() {
+		try {
+			return DbMode.valueOf(get(MODE).trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Niepoprawna wartość " + MODE + ": " + get(MODE), e);
+		}
+	}
+
+	public String getServerHost() {
+		return get(SERVER_HOST).trim();
+	}
+
+	public int getServerPort() {
+		return getInt(SERVER_PORT);
+	}
+
+	public String getServerAddress() {
+		String address = get(SERVER_ADDRESS).trim();
+		if (address.isEmpty()) {
+			throw new IllegalArgumentException("Brak adresu " + SERVER_ADDRESS
+					+ " - podaj 127.0.0.1 lub jawnie 0.0.0.0, aby nasłuchiwać na wszystkich adresach");
+		}
+		return address;
+	}
+
+	/**
+	 * @return adres, pod którym proces serwera łączy się z własnym serwerem - serwer nasłuchujący
+	 * na konkretnym adresie nie przyjmuje połączeń przez localhost
+	 */
+	public String getServerLocalHost() {
+		String address = getServerAddress();
+		return address.equals("0.0.0.0") ? "localhost" : address;
+	}
+
+	public String getServerTxControl() {
+		String txControl = get(SERVER_TX_CONTROL).trim().toUpperCase(Locale.ROOT);
+		if (!txControl.equals("LOCKS") && !txControl.equals("MVLOCKS") && !txControl.equals("MVCC")) {
+			throw new IllegalArgumentException("Niepoprawna wartość " + SERVER_TX_CONTROL + ": " + get(SERVER_TX_CONTROL));
+		}
+		return txControl;
+	}
+
+	public String get(String key) {
+		return properties.getProperty(key, "");
+	}
+
+	/**
+	 * Tworzy konfigurację puli HikariCP.
+	 *
+	 * @param poolName - nazwa puli widoczna w logach i metrykach
+	 * @param readOnly - czy pula ma dostarczać połączenia tylko do odczytu
+	 */
+	HikariConfig toHikariConfig(String poolName, boolean readOnly) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName(poolName);
+		config.setJdbcUrl(getJdbcUrl());
+		config.setUsername(getUsername());
+		config.setPassword(getPassword());
+		config.setMaximumPoolSize(readOnly ? getReadMaximumPoolSize() : getMaximumPoolSize());
+		config.setMinimumIdle(readOnly ? getReadMinimumIdle() : getMinimumIdle());
+		config.setConnectionTimeout(getConnectionTimeoutMs());
+		config.setIdleTimeout(getIdleTimeoutMs());
+		config.setMaxLifetime(getMaxLifetimeMs());
+		config.setLeakDetectionThreshold(getLeakDetectionThresholdMs());
+		config.setReadOnly(readOnly);
+		//Pula powstaje bez łączenia się z bazą - baza jest otwierana przy pierwszym połączeniu,
+		//więc utworzenie puli nie czeka na odtworzenie danych z plików bazy
+		config.setInitializationFailTimeout(-1);
+		return config;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (String key : DEFAULTS.keySet()) {
+			if (!key.equals(PASSWORD)) {
+				sb.append(sb.isEmpty() ? "" : ", ").append(key).append('=').append(get(key));
+			}
+		}
+		return sb.toString();
+	}
+
+	private int getInt(String key) {
+		try {
+			return Integer.parseInt(get(key).trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Niepoprawna wartość " + key + ": " + get(key), e);
+		}
+	}
+
+	private long getLong(String key) {
+		try {
+			return Long.parseLong(get(key).trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Niepoprawna wartość " + key + ": " + get(key), e);
+		}
+	}
+
+	private static String toEnvName(String key) {
+		return key.replace('.', '_').toUpperCase(Locale.ROOT);
+	}
+}
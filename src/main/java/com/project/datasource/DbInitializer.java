@@ -1,14 +1,37 @@
 package com.project.datasource;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Inicjalizuje schemat bazy danych migracjami o kolejnych numerach wersji.
+ * Instrukcje migracji są wykonywane pojedynczo - HSQLDB kompiluje całą listę instrukcji przed wykonaniem
+ * pierwszej z nich, więc instrukcja nie mogłaby odwołać się do obiektu utworzonego wcześniej w tej samej liście.
+ * Zastosowane migracje są zapisywane w tabeli schema_version razem z sumą kontrolną treści, więc
+ * przy uruchomieniu aktualnej bazy nie jest wykonywana żadna instrukcja DDL. Migracja, której treść
+ * zmieniła się od zastosowania, jest wykonywana ponownie (instrukcje są idempotentne - IF NOT EXISTS,
+ * a wyzwalacze są usuwane przez DROP TRIGGER IF EXISTS i tworzone od nowa).
+ * Nowe zmiany schematu należy dodawać jako kolejne elementy tablicy queries.
+ */
 public class DbInitializer {
 	private static final Logger logger = LoggerFactory.getLogger(DbInitializer.class);
+	//Migracja o wersji i + 1
 	private static final String[] queries = {
 		"""
 		CREATE TABLE IF NOT EXISTS projekt(
@@ -32,25 +55,111 @@ public class DbInitializer {
 		"""
 		CREATE INDEX IF NOT EXISTS projekt_nazwa_idx ON projekt(nazwa);
 		CREATE INDEX IF NOT EXISTS zadanie_nazwa_idx ON zadanie(nazwa);
+		CREATE INDEX IF NOT EXISTS projekt_dataczas_idx ON projekt(dataczas_utworzenia, projekt_id);
+		CREATE INDEX IF NOT EXISTS zadanie_projekt_idx ON zadanie(projekt_id, kolejnosc);
 		ALTER TABLE zadanie ADD CONSTRAINT IF NOT EXISTS zadanie_projekt_fk FOREIGN KEY (projekt_id) REFERENCES projekt (projekt_id) ON DELETE CASCADE;
 		ALTER TABLE zadanie ADD CONSTRAINT IF NOT EXISTS unique_kolejnosc UNIQUE (kolejnosc, projekt_id);
+		""",
+		"""
+		CREATE TABLE IF NOT EXISTS zmiana(
+		 seq BIGINT GENERATED BY DEFAULT AS IDENTITY(START WITH 1, INCREMENT BY 1),
+		 tabela CHAR(1) NOT NULL, --P - projekt, Z - zadanie
+		 operacja CHAR(1) NOT NULL, --I - INSERT, U - UPDATE, D - DELETE
+		 rekord_id INTEGER NOT NULL,
+		 projekt_id INTEGER NOT NULL,
+		 dataczas TIMESTAMP DEFAULT now() NOT NULL,
+		 CONSTRAINT zmiana_pk PRIMARY KEY (seq)
+		);
+		CREATE INDEX IF NOT EXISTS zmiana_dataczas_idx ON zmiana(dataczas);
+		DROP TRIGGER IF EXISTS projekt_zmiana_ins;
+		DROP TRIGGER IF EXISTS projekt_zmiana_upd;
+		DROP TRIGGER IF EXISTS projekt_zmiana_del;
+		DROP TRIGGER IF EXISTS zadanie_zmiana_ins;
+		DROP TRIGGER IF EXISTS zadanie_zmiana_upd;
+		DROP TRIGGER IF EXISTS zadanie_zmiana_del;
+		CREATE TRIGGER projekt_zmiana_ins AFTER INSERT ON projekt REFERENCING NEW ROW AS n FOR EACH ROW
+		 INSERT INTO zmiana(tabela, operacja, rekord_id, projekt_id) VALUES ('P', 'I', n.projekt_id, n.projekt_id);
+		CREATE TRIGGER projekt_zmiana_upd AFTER UPDATE ON projekt REFERENCING NEW ROW AS n FOR EACH ROW
+		 INSERT INTO zmiana(tabela, operacja, rekord_id, projekt_id) VALUES ('P', 'U', n.projekt_id, n.projekt_id);
+		CREATE TRIGGER projekt_zmiana_del AFTER DELETE ON projekt REFERENCING OLD ROW AS o FOR EACH ROW
+		 INSERT INTO zmiana(tabela, operacja, rekord_id, projekt_id) VALUES ('P', 'D', o.projekt_id, o.projekt_id);
+		CREATE TRIGGER zadanie_zmiana_ins AFTER INSERT ON zadanie REFERENCING NEW ROW AS n FOR EACH ROW
+		 INSERT INTO zmiana(tabela, operacja, rekord_id, projekt_id) VALUES ('Z', 'I', n.zadanie_id, n.projekt_id);
+		CREATE TRIGGER zadanie_zmiana_upd AFTER UPDATE ON zadanie REFERENCING NEW ROW AS n FOR EACH ROW
+		 INSERT INTO zmiana(tabela, operacja, rekord_id, projekt_id) VALUES ('Z', 'U', n.zadanie_id, n.projekt_id);
+		CREATE TRIGGER zadanie_zmiana_del AFTER DELETE ON zadanie REFERENCING OLD ROW AS o FOR EACH ROW
+		 INSERT INTO zmiana(tabela, operacja, rekord_id, projekt_id) VALUES ('Z', 'D', o.zadanie_id, o.projekt_id);
+		""",
+		"""
+		UPDATE projekt SET dataczas_utworzenia = COALESCE((SELECT MIN(dataczas_utworzenia) FROM projekt), now()) WHERE dataczas_utworzenia IS NULL;
+		ALTER TABLE projekt ALTER COLUMN dataczas_utworzenia SET NOT NULL;
 		"""
 	};
-	
+	private static final String[] descriptions = {
+		"tabele projekt i zadanie",
+		"indeksy i ograniczenia",
+		"dziennik zmian zmiana zasilany wyzwalaczami",
+		"wymagany czas utworzenia projektu (klucz stronicowania)"
+	};
+	//Koniec instrukcji - średnik na końcu wiersza (treść instrukcji migracji nie zawiera średników)
+	private static final Pattern STATEMENT_END = Pattern.compile(";\\s*(\\R|$)");
+	private static final String SCHEMA_VERSION_TABLE = "SCHEMA_VERSION";
+	private static final String CREATE_SCHEMA_VERSION_QUERY = """
+		CREATE TABLE IF NOT EXISTS schema_version(
+		 version INTEGER NOT NULL,
+		 opis VARCHAR(200),
+		 checksum VARCHAR(64) NOT NULL,
+		 dataczas_zastosowania TIMESTAMP DEFAULT now(),
+		 czas_ms INTEGER,
+		 CONSTRAINT schema_version_pk PRIMARY KEY (version)
+		);
+		""";
+	private static final String SELECT_SCHEMA_VERSIONS_QUERY = "SELECT version, checksum FROM schema_version";
+	private static final String MERGE_SCHEMA_VERSION_QUERY = "MERGE INTO schema_version USING (VALUES(?, ?, ?, ?))"
+			+ " AS v(version, opis, checksum, czas_ms) ON schema_version.version = v.version"
+			+ " WHEN MATCHED THEN UPDATE SET opis = v.opis, checksum = v.checksum, czas_ms = v.czas_ms,"
+			+ " dataczas_zastosowania = now()"
+			+ " WHEN NOT MATCHED THEN INSERT (version, opis, checksum, czas_ms) VALUES (v.version, v.opis, v.checksum, v.czas_ms)";
+	private static final String TABLE_TYPES_QUERY = "SELECT TABLE_NAME, HSQLDB_TYPE FROM INFORMATION_SCHEMA.SYSTEM_TABLES"
+			+ " WHERE TABLE_SCHEM = 'PUBLIC' AND HSQLDB_TYPE IN ('MEMORY', 'CACHED')";
+	private static final String FILE_PROPERTIES_QUERY = "SELECT PROPERTY_NAME, PROPERTY_VALUE"
+			+ " FROM INFORMATION_SCHEMA.SYSTEM_PROPERTIES WHERE PROPERTY_NAME LIKE 'hsqldb.%'";
+
+	/**
+	 * Czasy etapów inicjalizacji.
+	 *
+	 * @param poolOpenMs        - utworzenie puli połączeń (bez otwierania bazy)
+	 * @param databaseOpenMs    - pierwsze połączenie - otwarcie bazy, w tym odtworzenie plików .script i .log
+	 * @param migrationsMs      - sprawdzenie i zastosowanie migracji oraz ustawień plików bazy
+	 * @param migrationsApplied - liczba zastosowanych migracji (0 dla aktualnej bazy)
+	 */
+	public record Timings(long poolOpenMs, long databaseOpenMs, long migrationsMs, int migrationsApplied) {
+	}
+
 	private DbInitializer() {}
+
 	/**
-	 * Metoda inicjalizująca bazę danych. Tworzy tabele i indeksy, jeśli nie istnieją.
-	 * Używa transakcji, aby zapewnić, że wszystkie zapytania są wykonane lub żadne z nich.
+	 * Metoda inicjalizująca bazę danych. Stosuje migracje, których nie ma w tabeli schema_version
+	 * lub których treść się zmieniła; aktualna baza jest tylko sprawdzana.
+	 * Używa transakcji, aby zapewnić, że wszystkie migracje są zastosowane lub żadna z nich.
+	 * Tabele są tworzone jako db.tableType, a istniejące tabele innego typu są przekształcane.
+	 *
+	 * @return czasy etapów inicjalizacji
 	 */
-	public static void init() {
+	public static Timings init() {
+		long start = System.nanoTime();
+		DataSourceConfig config = DataSource.getConfig();
+		long poolOpened = System.nanoTime();
 		try (Connection conection = DataSource.getConnection()) {
+			long databaseOpened = System.nanoTime();
 			boolean initialAutocommit = conection.getAutoCommit();
 			conection.setAutoCommit(false);
+			int applied;
+			boolean converted;
 			try (Statement stmt = conection.createStatement()) {
-				for (int i = 0; i < queries.length; i++) {
-					stmt.executeUpdate(queries[i]);
-					logger.info("QUERY {}:\n{}", i + 1, queries[i]);
-				}
+				applied = migrate(conection, stmt, config.getTableType());
+				converted = convertTables(stmt, config.getTableType());
+				applyFileSettings(stmt, config);
 				conection.commit();
 			} catch (SQLException e) {
 				conection.rollback();
@@ -59,9 +168,159 @@ public class DbInitializer {
 				if (initialAutocommit)
 					conection.setAutoCommit(true);
 			}
+			if (converted) {
+				//Zapisuje bazę w nowej postaci - dane tabel CACHED znikają z pliku .script
+				try (Statement stmt = conection.createStatement()) {
+					stmt.execute("CHECKPOINT");
+				}
+			}
+			Timings timings = new Timings(toMillis(poolOpened - start), toMillis(databaseOpened - poolOpened),
+					toMillis(System.nanoTime() - databaseOpened), applied);
+			logger.info("Inicjalizacja bazy: {}", timings);
+			return timings;
 		} catch (SQLException e) {
 			throw new RuntimeException(e);
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Stosuje migracje nowsze niż zapisane w schema_version oraz te, których suma kontrolna się zmieniła.
+	 *
+	 * @return liczba zastosowanych migracji
+	 */
+	private static int migrate(Connection conection, Statement stmt, TableType tableType) throws SQLException {
+		Map<Integer, String> appliedChecksums = new HashMap<>();
+		try (ResultSet tables = conection.getMetaData().getTables(null, "PUBLIC", SCHEMA_VERSION_TABLE, null)) {
+			if (tables.next()) {
+				try (ResultSet rs = stmt.executeQuery(SELECT_SCHEMA_VERSIONS_QUERY)) {
+					while (rs.next()) {
+						appliedChecksums.put(rs.getInt(1), rs.getString(2));
+					}
+				}
+			}
+		}
+		int applied = 0;
+		for (int i = 0; i < queries.length; i++) {
+			int version = i + 1;
+			String checksum = checksum(queries[i]);
+			String appliedChecksum = appliedChecksums.get(version);
+			if (checksum.equals(appliedChecksum)) {
+				continue;
+			}
+			if (applied == 0) {
+				//Nowe tabele mają typ db.tableType
+				stmt.execute("SET DATABASE DEFAULT TABLE TYPE " + tableType);
+				stmt.execute(CREATE_SCHEMA_VERSION_QUERY);
+			}
+			if (appliedChecksum != null) {
+				logger.warn("Treść migracji {} zmieniła się od jej zastosowania - migracja zostanie wykonana ponownie",
+						version);
+			}
+			long start = System.nanoTime();
+			for (String sql : statements(queries[i])) {
+				stmt.execute(sql);
+			}
+			long millis = toMillis(System.nanoTime() - start);
+			logger.debug("QUERY {}:\n{}", version, queries[i]);
+			try (PreparedStatement prepStmt = conection.prepareStatement(MERGE_SCHEMA_VERSION_QUERY)) {
+				prepStmt.setInt(1, version);
+				prepStmt.setString(2, descriptions[i]);
+				prepStmt.setString(3, checksum);
+				prepStmt.setLong(4, millis);
+				prepStmt.executeUpdate();
+			}
+			logger.info("Migracja {} ({}) zastosowana w {} ms", version, descriptions[i], millis);
+			applied++;
+		}
+		if (applied == 0) {
+			logger.info("Schemat bazy jest aktualny (wersja {})", queries.length);
+		}
+		return applied;
+	}
+
+	/**
+	 * @return instrukcje migracji w kolejności wykonania
+	 */
+	static List<String> statements(String migration) {
+		List<String> statements = new ArrayList<>();
+		for (String sql : STATEMENT_END.split(migration)) {
+			if (!sql.isBlank()) {
+				statements.add(sql.strip());
+			}
+		}
+		return statements;
+	}
+
+	private static String checksum(String sql) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(sql.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Przekształca tabele o typie innym niż wybrany (np. tabele MEMORY istniejącej bazy w CACHED).
+	 * W bazie w pamięci (mem:) zmiana typu nie ma skutku.
+	 *
+	 * @return czy któraś tabela została przekształcona
+	 */
+	private static boolean convertTables(Statement stmt, TableType tableType) throws SQLException {
+		List<String> tables = new ArrayList<>();
+		try (ResultSet rs = stmt.executeQuery(TABLE_TYPES_QUERY)) {
+			while (rs.next()) {
+				if (!tableType.name().equals(rs.getString(2))) {
+					tables.add(rs.getString(1));
+				}
+			}
+		}
+		for (String table : tables) {
+			long start = System.nanoTime();
+			stmt.execute("SET TABLE " + table + " TYPE " + tableType);
+			logger.info("Tabela {} przekształcona w {} w {} ms", table, tableType, toMillis(System.nanoTime() - start));
+		}
+		return !tables.isEmpty();
+	}
+
+	/**
+	 * Ustawia trwałe parametry plików bazy, które różnią się od konfiguracji - nadpisują one
+	 * parametry hsqldb.* z adresu połączenia.
+	 */
+	private static void applyFileSettings(Statement stmt, DataSourceConfig config) throws SQLException {
+		boolean writeDelay = config.getDurability() == Durability.WRITE_DELAY;
+		//Właściwość bazy -> oczekiwana wartość i instrukcja, która ją ustawia
+		Map<String, String[]> settings = new LinkedHashMap<>();
+		settings.put("hsqldb.write_delay_millis", new String[]{writeDelay ? String.valueOf(config.getWriteDelayMs()) : "0",
+				writeDelay ? "SET FILES WRITE DELAY " + config.getWriteDelayMs() + " MILLIS" : "SET FILES WRITE DELAY FALSE"});
+		settings.put("hsqldb.cache_rows", new String[]{String.valueOf(config.getCacheRows()),
+				"SET FILES CACHE ROWS " + config.getCacheRows()});
+		settings.put("hsqldb.cache_size", new String[]{String.valueOf(config.getCacheSizeKb()),
+				"SET FILES CACHE SIZE " + config.getCacheSizeKb()});
+		settings.put("hsqldb.nio_data_file", new String[]{String.valueOf(config.isNioEnabled()),
+				"SET FILES NIO " + (config.isNioEnabled() ? "TRUE" : "FALSE")});
+		settings.put("hsqldb.nio_max_size", new String[]{String.valueOf(config.getNioMaxSizeMb()),
+				"SET FILES NIO SIZE " + config.getNioMaxSizeMb()});
+		Map<String, String> current = new HashMap<>();
+		try (ResultSet rs = stmt.executeQuery(FILE_PROPERTIES_QUERY)) {
+			while (rs.next()) {
+				current.put(rs.getString(1), rs.getString(2));
+			}
+		}
+		for (Map.Entry<String, String[]> setting : settings.entrySet()) {
+			String[] expected = setting.getValue();
+			if (!expected[0].equalsIgnoreCase(current.get(setting.getKey()))) {
+				stmt.execute(expected[1]);
+				logger.info("Ustawienie bazy: {}", expected[1]);
+			}
+		}
+		logger.info("Utrwalanie zapisów: {}, tabele {}, pamięć podręczna wierszy: {} wierszy / {} KB, NIO: {} ({} MB)",
+				config.getDurability(), config.getTableType(), config.getCacheRows(), config.getCacheSizeKb(),
+				config.isNioEnabled(), config.getNioMaxSizeMb());
+	}
+
+	private static long toMillis(long nanos) {
+		return nanos / 1_000_000;
+	}
+
+}
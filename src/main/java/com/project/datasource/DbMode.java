@@ -0,0 +1,23 @@
+package com.project.datasource;
+
+/**
+ * Sposób dostępu do bazy danych (właściwość db.mode).
+ */
+public enum DbMode {
+	/**
+	 * Baza w plikach db.dir/db.name otwierana w procesie aplikacji (jdbc:hsqldb:file:) - pliki może
+	 * mieć otwarte tylko jeden proces.
+	 */
+	EMBEDDED,
+	/**
+	 * Aplikacja uruchamia w swoim procesie serwer HSQLDB (DbServer) nad plikami db.dir/db.name na porcie
+	 * db.server.port i sama łączy się z nim przez jdbc:hsqldb:hsql:// - inne instancje mogą łączyć się
+	 * z tą samą bazą w trybie CLIENT.
+	 */
+	SERVER,
+	/**
+	 * Aplikacja łączy się z serwerem HSQLDB działającym pod adresem db.server.host:db.server.port
+	 * (uruchomionym przez instancję w trybie SERVER lub samodzielnie przez DbServer.main).
+	 */
+	CLIENT
+}
@@ -0,0 +1,101 @@
+package com.project.datasource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.hsqldb.server.Server;
+import org.hsqldb.server.ServerConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serwer HSQLDB udostępniający bazę db.dir/db.name wielu procesom przez jdbc:hsqldb:hsql://.
+ * Uruchamiany przez DataSource w trybie db.mode=SERVER albo samodzielnie metodą main, np.:
+ * <pre>
+ * java -cp target/classes:... -Ddb.server.port=9001 com.project.datasource.DbServer
+ * </pre>
+ * Klienci łączą się z nim w trybie db.mode=CLIENT. Baza jest otwierana z db.server.txControl
+ * (domyślnie MVCC), więc odczyty wielu klientów nie czekają na blokady zapisujących.
+ */
+public final class DbServer {
+	private static final Logger logger = LoggerFactory.getLogger(DbServer.class);
+
+	private final Server server;
+	private final DataSourceConfig config;
+
+	private DbServer(Server server, DataSourceConfig config) {
+		this.server = server;
+		this.config = config;
+	}
+
+	/**
+	 * Uruchamia serwer i czeka, aż otworzy bazę i zacznie przyjmować połączenia.
+	 *
+	 * @param daemon - czy wątek serwera ma nie wstrzymywać zakończenia JVM
+	 */
+	public static DbServer start(DataSourceConfig config, boolean daemon) {
+		Server server = new Server();
+		server.setDatabaseName(0, config.getDatabaseName());
+		//Nowa baza jest tworzona z użytkownikiem z konfiguracji zamiast domyślnego SA
+		server.setDatabasePath(0, config.getServerDatabasePath() + ";user=" + config.getUsername()
+				+ ";password=" + config.getPassword());
+		server.setPort(config.getServerPort());
+		//Domyślnie tylko połączenia z tego komputera - udostępnienie w sieci wymaga jawnego db.server.address
+		server.setAddress(config.getServerAddress());
+		//Serwer nie może kończyć JVM ani pisać na standardowe wyjście - błędy trafiają do logu
+		server.setNoSystemExit(true);
+		server.setSilent(true);
+		server.setTrace(false);
+		server.setLogWriter(null);
+		server.setErrWriter(null);
+		server.setDaemon(daemon);
+		long start = System.nanoTime();
+		server.start();
+		if (server.getState() != ServerConstants.SERVER_STATE_ONLINE) {
+			Throwable error = server.getServerError();
+			server.stop();
+			throw new RuntimeException("Nie udało się uruchomić serwera HSQLDB na porcie " + config.getServerPort(),
+					error);
+		}
+		logger.info("Serwer HSQLDB uruchomiony w {} ms: {} na {}:{} ({}, transakcje {})",
+				(System.nanoTime() - start) / 1_000_000, config.getDatabaseName(), config.getServerAddress(),
+				config.getServerPort(), config.getServerDatabasePath(), config.getServerTxControl());
+		return new DbServer(server, config);
+	}
+
+	/**
+	 * Zamyka bazę (SHUTDOWN - zapis plików bazy) i zatrzymuje serwer; połączenia klientów są zrywane.
+	 */
+	public void stop() {
+		if (server.getState() == ServerConstants.SERVER_STATE_SHUTDOWN) {
+			return;
+		}
+		String url = String.format("jdbc:hsqldb:hsql://%s:%d/%s", config.getServerLocalHost(), config.getServerPort(),
+				config.getDatabaseName());
+		try (Connection connect = DriverManager.getConnection(url, config.getUsername(), config.getPassword());
+			 Statement stmt = connect.createStatement()) {
+			stmt.execute("SHUTDOWN");
+		} catch (SQLException e) {
+			logger.warn("Nie udało się zamknąć bazy przed zatrzymaniem serwera", e);
+		}
+		server.shutdown();
+		logger.info("Serwer HSQLDB zatrzymany");
+	}
+
+	/**
+	 * Uruchamia samodzielny serwer bazy z konfiguracją DataSourceConfig (db.mode jest pomijane)
+	 * i inicjalizuje schemat bazy. Serwer działa do zakończenia procesu (np. Ctrl+C), a przy
+	 * zakończeniu zamyka bazę.
+	 */
+	public static void main(String[] args) {
+		DataSourceConfig config = DataSourceConfig.load();
+		DbServer dbServer = start(config, false);
+		Runtime.getRuntime().addShutdownHook(new Thread(dbServer::stop, "db-server-shutdown"));
+		//Schemat jest tworzony przez połączenie z właśnie uruchomionym serwerem
+		System.setProperty(DataSourceConfig.MODE, DbMode.CLIENT.name());
+		System.setProperty(DataSourceConfig.SERVER_HOST, config.getServerLocalHost());
+		DbInitializer.init();
+	}
+}
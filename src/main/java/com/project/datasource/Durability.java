@@ -0,0 +1,21 @@
+package com.project.datasource;
+
+/**
+ * Sposób utrwalania zapisów (właściwość db.durability).
+ */
+public enum Durability {
+	/**
+	 * Każdy zapis jest osobną transakcją, a jej zatwierdzenie czeka na zapis dziennika na dysk.
+	 */
+	SYNC,
+	/**
+	 * Zapisy są zbierane w kolejce i zatwierdzane grupami (WriteBehindProjektDAO) - jedna synchronizacja
+	 * dziennika na grupę; wywołujący czeka, aż grupa z jego zapisem zostanie zatwierdzona.
+	 */
+	GROUP_COMMIT,
+	/**
+	 * Każdy zapis jest osobną transakcją, ale HSQLDB zapisuje dziennik na dysk co db.writeDelayMs
+	 * (SET FILES WRITE DELAY) - zatwierdzone zmiany z tego okresu mogą zostać utracone przy awarii.
+	 */
+	WRITE_DELAY
+}
@@ -0,0 +1,106 @@
+package com.project.datasource;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * PoolMetrics dla puli HikariCP. Histogramy są zasilane przez IMetricsTracker, który Hikari
+ * tworzy za pomocą tej fabryki, a liczniki połączeń są odczytywane na bieżąco z HikariPoolMXBean.
+ */
+final class HikariPoolMetrics implements PoolMetrics, MetricsTrackerFactory {
+	private final String poolName;
+	private final LatencyHistogram acquireTime = new LatencyHistogram();
+	private final LatencyHistogram usageTime = new LatencyHistogram();
+	private final LongAdder timeouts = new LongAdder();
+	private volatile HikariDataSource dataSource;
+
+	HikariPoolMetrics(String poolName) {
+		this.poolName = poolName;
+	}
+
+	void bind(HikariDataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		return new IMetricsTracker() {
+			@Override
+			public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+				acquireTime.record(elapsedAcquiredNanos);
+			}
+
+			@Override
+			public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+				usageTime.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+			}
+
+			@Override
+			public void recordConnectionTimeout() {
+				timeouts.increment();
+			}
+		};
+	}
+
+	@Override
+	public String getPoolName() {
+		return poolName;
+	}
+
+	@Override
+	public int getMaximumPoolSize() {
+		HikariDataSource ds = dataSource;
+		return ds != null ? ds.getMaximumPoolSize() : 0;
+	}
+
+	@Override
+	public int getActiveConnections() {
+		HikariPoolMXBean pool = pool();
+		return pool != null ? pool.getActiveConnections() : 0;
+	}
+
+	@Override
+	public int getIdleConnections() {
+		HikariPoolMXBean pool = pool();
+		return pool != null ? pool.getIdleConnections() : 0;
+	}
+
+	@Override
+	public int getPendingThreads() {
+		HikariPoolMXBean pool = pool();
+		return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+	}
+
+	@Override
+	public LatencyHistogram getAcquireTime() {
+		return acquireTime;
+	}
+
+	@Override
+	public LatencyHistogram getUsageTime() {
+		return usageTime;
+	}
+
+	@Override
+	public long getTimeouts() {
+		return timeouts.sum();
+	}
+
+	@Override
+	public String toString() {
+		return poolName + " [max=" + getMaximumPoolSize() + ", active=" + getActiveConnections()
+				+ ", idle=" + getIdleConnections() + ", pending=" + getPendingThreads()
+				+ ", timeouts=" + getTimeouts() + "]\n  acquire: " + acquireTime + "\n  usage: " + usageTime;
+	}
+
+	private HikariPoolMXBean pool() {
+		HikariDataSource ds = dataSource;
+		return ds != null ? ds.getHikariPoolMXBean() : null;
+	}
+}
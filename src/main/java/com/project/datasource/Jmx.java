@@ -0,0 +1,41 @@
+package com.project.datasource;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rejestracja MBeanów aplikacji w domenie com.project platformowego serwera MBean,
+ * widocznych np. w JConsole lub JMC.
+ */
+public final class Jmx {
+	private static final Logger logger = LoggerFactory.getLogger(Jmx.class);
+	public static final String DOMAIN = "com.project";
+
+	private Jmx() {}
+
+	/**
+	 * Rejestruje MBean, zastępując wcześniej zarejestrowany pod tą samą nazwą.
+	 * Błąd rejestracji jest tylko zapisywany w logu - brak MBeanów nie przeszkadza w działaniu aplikacji.
+	 *
+	 * @param properties - właściwości nazwy obiektu, np. "type=Pool,name=projekt-pool"
+	 * @param mbean      - obiekt implementujący interfejs *MXBean
+	 */
+	public static void register(String properties, Object mbean) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(DOMAIN + ":" + properties);
+			if (server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(mbean, name);
+		} catch (JMException e) {
+			logger.warn("Nie udało się zarejestrować MBean {}", properties, e);
+		}
+	}
+}
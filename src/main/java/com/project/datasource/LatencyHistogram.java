@@ -0,0 +1,122 @@
+package com.project.datasource;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram czasów w nanosekundach o stałej względnej dokładności, bezpieczny wielowątkowo.
+ * Przedział wartości od 2^k do 2^(k+1) jest dzielony na 8 równych kubełków, więc wartość
+ * percentyla jest wyznaczana z błędem nie większym niż 12,5%, niezależnie od skali.
+ * Zapis jest pojedynczą operacją atomową bez alokacji i blokad.
+ */
+public final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Zapisuje pojedynczy pomiar.
+	 *
+	 * @param nanos - zmierzony czas w nanosekundach; wartości ujemne są traktowane jak 0
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		counts.incrementAndGet(bucketIndex(value));
+		count.increment();
+		sum.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long n = count.sum();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * @param percentile - percentyl z przedziału 0-100
+	 * @return górna granica kubełka zawierającego dany percentyl (w nanosekundach), 0 dla pustego histogramu
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = Math.max((long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0), 1);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(bucketUpperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Łączy pomiary z innego histogramu z pomiarami tego histogramu.
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			long n = other.counts.get(i);
+			if (n != 0) {
+				counts.addAndGet(i, n);
+			}
+		}
+		count.add(other.count.sum());
+		sum.add(other.sum.sum());
+		max.accumulateAndGet(other.max.get(), Math::max);
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("count=%d, mean=%.3f ms, p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, max=%.3f ms",
+				getCount(), getMean() / 1e6, getValueAtPercentile(50) / 1e6, getValueAtPercentile(90) / 1e6,
+				getValueAtPercentile(99) / 1e6, getMax() / 1e6);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / SUB_BUCKETS - 1;
+		long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lower + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,42 @@
+package com.project.datasource;
+
+/**
+ * Bieżący stan i statystyki puli połączeń - pozwalają dobrać rozmiar puli do liczby
+ * równoczesnych czytelników.
+ */
+public interface PoolMetrics {
+
+	String getPoolName();
+
+	int getMaximumPoolSize();
+
+	/**
+	 * @return liczba połączeń wypożyczonych z puli
+	 */
+	int getActiveConnections();
+
+	/**
+	 * @return liczba otwartych połączeń oczekujących w puli na wypożyczenie
+	 */
+	int getIdleConnections();
+
+	/**
+	 * @return liczba wątków czekających na połączenie
+	 */
+	int getPendingThreads();
+
+	/**
+	 * @return histogram czasu oczekiwania na wypożyczenie połączenia
+	 */
+	LatencyHistogram getAcquireTime();
+
+	/**
+	 * @return histogram czasu od wypożyczenia do zwrotu połączenia
+	 */
+	LatencyHistogram getUsageTime();
+
+	/**
+	 * @return liczba prób wypożyczenia zakończonych przekroczeniem connectionTimeout
+	 */
+	long getTimeouts();
+}
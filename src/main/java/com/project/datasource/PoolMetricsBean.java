@@ -0,0 +1,83 @@
+package com.project.datasource;
+
+/**
+ * PoolMetricsMXBean odczytujący wartości z PoolMetrics przy każdym odwołaniu.
+ */
+final class PoolMetricsBean implements PoolMetricsMXBean {
+	private final PoolMetrics metrics;
+
+	PoolMetricsBean(PoolMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public String getPoolName() {
+		return metrics.getPoolName();
+	}
+
+	@Override
+	public int getMaximumPoolSize() {
+		return metrics.getMaximumPoolSize();
+	}
+
+	@Override
+	public int getActiveConnections() {
+		return metrics.getActiveConnections();
+	}
+
+	@Override
+	public int getIdleConnections() {
+		return metrics.getIdleConnections();
+	}
+
+	@Override
+	public int getPendingThreads() {
+		return metrics.getPendingThreads();
+	}
+
+	@Override
+	public long getTimeouts() {
+		return metrics.getTimeouts();
+	}
+
+	@Override
+	public long getAcquireCount() {
+		return metrics.getAcquireTime().getCount();
+	}
+
+	@Override
+	public double getAcquireP50Ms() {
+		return metrics.getAcquireTime().getValueAtPercentile(50) / 1e6;
+	}
+
+	@Override
+	public double getAcquireP99Ms() {
+		return metrics.getAcquireTime().getValueAtPercentile(99) / 1e6;
+	}
+
+	@Override
+	public double getAcquireMaxMs() {
+		return metrics.getAcquireTime().getMax() / 1e6;
+	}
+
+	@Override
+	public double getUsageP50Ms() {
+		return metrics.getUsageTime().getValueAtPercentile(50) / 1e6;
+	}
+
+	@Override
+	public double getUsageP99Ms() {
+		return metrics.getUsageTime().getValueAtPercentile(99) / 1e6;
+	}
+
+	@Override
+	public double getUsageMaxMs() {
+		return metrics.getUsageTime().getMax() / 1e6;
+	}
+
+	@Override
+	public void resetHistograms() {
+		metrics.getAcquireTime().reset();
+		metrics.getUsageTime().reset();
+	}
+}
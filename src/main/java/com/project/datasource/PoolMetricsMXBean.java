@@ -0,0 +1,39 @@
+package com.project.datasource;
+
+/**
+ * Stan i statystyki puli połączeń publikowane przez JMX (com.project:type=Pool,name=...).
+ * Czasy są podawane w milisekundach.
+ */
+public interface PoolMetricsMXBean {
+
+	String getPoolName();
+
+	int getMaximumPoolSize();
+
+	int getActiveConnections();
+
+	int getIdleConnections();
+
+	int getPendingThreads();
+
+	long getTimeouts();
+
+	long getAcquireCount();
+
+	double getAcquireP50Ms();
+
+	double getAcquireP99Ms();
+
+	double getAcquireMaxMs();
+
+	double getUsageP50Ms();
+
+	double getUsageP99Ms();
+
+	double getUsageMaxMs();
+
+	/**
+	 * Zeruje histogramy czasów, np. przed pomiarem pod obciążeniem.
+	 */
+	void resetHistograms();
+}
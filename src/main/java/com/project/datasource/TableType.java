@@ -0,0 +1,16 @@
+package com.project.datasource;
+
+/**
+ * Sposób przechowywania tabel HSQLDB (właściwość db.tableType).
+ */
+public enum TableType {
+	/**
+	 * Wszystkie wiersze są w pamięci; przy każdym uruchomieniu baza odtwarza je z pliku .script.
+	 */
+	MEMORY,
+	/**
+	 * Wiersze są w pliku .data, a w pamięci jest tylko ich część (db.cache.*) - baza otwiera się
+	 * bez wczytywania danych, a jej rozmiar nie jest ograniczony wielkością sterty.
+	 */
+	CACHED
+}
@@ -0,0 +1,69 @@
+package com.project.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Zapis wierszy w formacie CSV (RFC 4180). Wartości null zapisywane są jako puste pola.
+ */
+class CsvRowWriter extends RowWriter {
+	private static final String PROJEKT_HEADER = "projekt_id,nazwa,opis,dataczas_utworzenia,data_oddania";
+	private static final String ZADANIE_HEADER = ",zadanie_id,zadanie_nazwa,zadanie_opis,kolejnosc,zadanie_dataczas_utworzenia";
+
+	private final int columns;
+
+	CsvRowWriter(Writer out, boolean includeZadania) {
+		super(out, includeZadania);
+		this.columns = includeZadania ? 10 : 5;
+	}
+
+	@Override
+	void writeHeader() throws IOException {
+		out.write(PROJEKT_HEADER);
+		if (includeZadania) {
+			out.write(ZADANIE_HEADER);
+		}
+		out.write("\r\n");
+	}
+
+	@Override
+	void writeRow(ResultSet rs) throws SQLException, IOException {
+		for (int i = 1; i <= columns; i++) {
+			if (i > 1) {
+				out.write(',');
+			}
+			writeField(text(rs, i));
+		}
+		out.write("\r\n");
+	}
+
+	@Override
+	void finish() {
+	}
+
+	private void writeField(String value) throws IOException {
+		if (value == null) {
+			return;
+		}
+		boolean quote = false;
+		for (int i = 0; i < value.length() && !quote; i++) {
+			char c = value.charAt(i);
+			quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+		}
+		if (!quote) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				out.write('"');
+			}
+			out.write(c);
+		}
+		out.write('"');
+	}
+}
@@ -0,0 +1,11 @@
+package com.project.export;
+
+/**
+ * Format pliku eksportu.
+ * CSV - jeden wiersz tekstu na wiersz wyniku zapytania (przy eksporcie zadań: na parę projekt-zadanie),
+ * JSONL - jeden obiekt JSON na projekt, z zadaniami zagnieżdżonymi w tablicy "zadania".
+ */
+public enum ExportFormat {
+	CSV,
+	JSONL
+}
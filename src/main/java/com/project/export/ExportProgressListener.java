@@ -0,0 +1,16 @@
+package com.project.export;
+
+/**
+ * Odbiorca informacji o postępie eksportu.
+ */
+@FunctionalInterface
+public interface ExportProgressListener {
+
+	/**
+	 * Wywoływana co określoną liczbę wierszy oraz po zakończeniu eksportu.
+	 *
+	 * @param rowsWritten - liczba wierszy wyniku zapytania zapisanych do tej pory
+	 * @param finished    - true, jeśli eksport został zakończony
+	 */
+	void onProgress(long rowsWritten, boolean finished);
+}
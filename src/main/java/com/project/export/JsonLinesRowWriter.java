@@ -0,0 +1,109 @@
+package com.project.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Zapis w formacie JSON Lines - jeden obiekt projektu na linię.
+ * Przy eksporcie zadań wiersze muszą być posortowane według projekt_id; zadania kolejnych
+ * wierszy tego samego projektu są dopisywane do tablicy "zadania", więc w pamięci
+ * przechowywany jest tylko identyfikator bieżącego projektu.
+ */
+class JsonLinesRowWriter extends RowWriter {
+	private static final String[] PROJEKT_FIELDS = {"projekt_id", "nazwa", "opis", "dataczas_utworzenia", "data_oddania"};
+	private static final String[] ZADANIE_FIELDS = {"zadanie_id", "nazwa", "opis", "kolejnosc", "dataczas_utworzenia"};
+
+	private int currentProjektId;
+	private boolean projektOpen;
+	private boolean firstZadanie;
+
+	JsonLinesRowWriter(Writer out, boolean includeZadania) {
+		super(out, includeZadania);
+	}
+
+	@Override
+	void writeHeader() {
+	}
+
+	@Override
+	void writeRow(ResultSet rs) throws SQLException, IOException {
+		int projektId = rs.getInt(1);
+		if (!projektOpen || projektId != currentProjektId) {
+			closeProjekt();
+			writeObjectFields(rs, PROJEKT_FIELDS, 1);
+			if (!includeZadania) {
+				out.write("}\n");
+				return;
+			}
+			out.write(",\"zadania\":[");
+			currentProjektId = projektId;
+			projektOpen = true;
+			firstZadanie = true;
+		}
+		//LEFT JOIN zwraca null w kolumnach zadania dla projektów bez zadań
+		if (rs.getObject(6) != null) {
+			if (!firstZadanie) {
+				out.write(',');
+			}
+			writeObjectFields(rs, ZADANIE_FIELDS, 6);
+			out.write('}');
+			firstZadanie = false;
+		}
+	}
+
+	@Override
+	void finish() throws IOException {
+		closeProjekt();
+	}
+
+	private void closeProjekt() throws IOException {
+		if (projektOpen) {
+			out.write("]}\n");
+			projektOpen = false;
+		}
+	}
+
+	private void writeObjectFields(ResultSet rs, String[] fields, int firstColumn) throws SQLException, IOException {
+		out.write('{');
+		for (int i = 0; i < fields.length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+			out.write('"');
+			out.write(fields[i]);
+			out.write("\":");
+			Object value = value(rs, firstColumn + i);
+			if (value == null) {
+				out.write("null");
+			} else if (value instanceof Number) {
+				out.write(value.toString());
+			} else {
+				writeString(value.toString());
+			}
+		}
+	}
+
+	private void writeString(String value) throws IOException {
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"' -> out.write("\\\"");
+				case '\\' -> out.write("\\\\");
+				case '\n' -> out.write("\\n");
+				case '\r' -> out.write("\\r");
+				case '\t' -> out.write("\\t");
+				default -> {
+					if (c < 0x20) {
+						out.write(String.format("\\u%04x", (int) c));
+					} else {
+						out.write(c);
+					}
+				}
+			}
+		}
+		out.write('"');
+	}
+}
@@ -0,0 +1,153 @@
+package com.project.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.project.datasource.DataSource;
+
+/**
+ * Strumieniowy eksport tabeli projekt (opcjonalnie razem z zadaniami) do pliku CSV lub JSON Lines.
+ * Wiersze są czytane z jednokierunkowego ResultSet i od razu zapisywane przez bufor do FileChannel,
+ * bez tworzenia listy obiektów Projekt, więc zużycie pamięci nie zależy od liczby wierszy.
+ */
+public class ProjektExporter {
+	private static final Logger logger = LoggerFactory.getLogger(ProjektExporter.class);
+
+	private static final String PROJEKT_QUERY =
+			"SELECT projekt_id, nazwa, opis, dataczas_utworzenia, data_oddania FROM projekt ORDER BY projekt_id";
+	private static final String PROJEKT_ZADANIE_QUERY =
+			"SELECT p.projekt_id, p.nazwa, p.opis, p.dataczas_utworzenia, p.data_oddania,"
+			+ " z.zadanie_id, z.nazwa, z.opis, z.kolejnosc, z.dataczas_utworzenia"
+			+ " FROM projekt p LEFT JOIN zadanie z ON z.projekt_id = p.projekt_id"
+			+ " ORDER BY p.projekt_id, z.kolejnosc";
+
+	public static final int DEFAULT_FETCH_SIZE = 1000;
+	public static final int DEFAULT_PROGRESS_INTERVAL = 10_000;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final ExportFormat format;
+	private boolean includeZadania;
+	private boolean gzip;
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+	private int progressInterval = DEFAULT_PROGRESS_INTERVAL;
+	private ExportProgressListener progressListener = (rows, finished) -> {};
+
+	public ProjektExporter(ExportFormat format) {
+		this.format = format;
+	}
+
+	/**
+	 * @param includeZadania - true, jeśli eksport ma zawierać zadania projektów (LEFT JOIN z tabelą zadanie)
+	 */
+	public void setIncludeZadania(boolean includeZadania) {
+		this.includeZadania = includeZadania;
+	}
+
+	/**
+	 * @param gzip - true, jeśli plik wynikowy ma być skompresowany gzipem
+	 */
+	public void setGzip(boolean gzip) {
+		this.gzip = gzip;
+	}
+
+	/**
+	 * Ustawia liczbę wierszy pobieranych z bazy jednorazowo. Dla połączenia wbudowanego
+	 * ta sama wartość ogranicza liczbę wierszy wyniku trzymanych w pamięci - nadmiarowe
+	 * wiersze HSQLDB przechowuje na dysku.
+	 *
+	 * @param fetchSize - liczba wierszy pobieranych jednorazowo (dodatnia)
+	 */
+	public void setFetchSize(int fetchSize) {
+		if (fetchSize <= 0) {
+			throw new IllegalArgumentException("Liczba pobieranych wierszy musi być dodatnia: " + fetchSize);
+		}
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * @param progressInterval - co ile zapisanych wierszy powiadamiać odbiorcę postępu
+	 *                         (0 - tylko powiadomienie o zakończeniu eksportu)
+	 */
+	public void setProgressInterval(int progressInterval) {
+		if (progressInterval < 0) {
+			throw new IllegalArgumentException("Odstęp powiadomień o postępie nie może być ujemny: " + progressInterval);
+		}
+		this.progressInterval = progressInterval;
+	}
+
+	public void setProgressListener(ExportProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	/**
+	 * Eksportuje dane do podanego pliku, nadpisując go, jeśli istnieje.
+	 *
+	 * @param target - ścieżka pliku wynikowego
+	 * @return liczba zapisanych wierszy wyniku zapytania
+	 * @throws IOException w przypadku błędu zapisu pliku
+	 */
+	public long export(Path target) throws IOException {
+		long start = System.nanoTime();
+		long rows = 0;
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+			 Writer out = openWriter(channel);
+			 Connection connect = DataSource.getReadConnection()) {
+			RowWriter rowWriter = RowWriter.create(format, out, includeZadania);
+			rowWriter.writeHeader();
+			try (Statement session = connect.createStatement()) {
+				session.execute("SET SESSION RESULT MEMORY ROWS " + fetchSize);
+			}
+			try (PreparedStatement preparedStmt = connect.prepareStatement(
+					includeZadania ? PROJEKT_ZADANIE_QUERY : PROJEKT_QUERY,
+					ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+				preparedStmt.setFetchSize(fetchSize);
+				try (ResultSet rs = preparedStmt.executeQuery()) {
+					while (rs.next()) {
+						rowWriter.writeRow(rs);
+						rows++;
+						if (progressInterval > 0 && rows % progressInterval == 0) {
+							progressListener.onProgress(rows, false);
+						}
+					}
+				}
+			} finally {
+				//Połączenie wraca do puli, więc przywracamy domyślne ustawienie sesji
+				try (Statement session = connect.createStatement()) {
+					session.execute("SET SESSION RESULT MEMORY ROWS 0");
+				}
+			}
+			rowWriter.finish();
+		} catch (SQLException e) {
+			throw new RuntimeException(e);
+		}
+		progressListener.onProgress(rows, true);
+		logger.info("Wyeksportowano {} wierszy do {} w {} ms", rows, target, (System.nanoTime() - start) / 1_000_000);
+		return rows;
+	}
+
+	private Writer openWriter(FileChannel channel) throws IOException {
+		OutputStream stream = Channels.newOutputStream(channel);
+		if (gzip) {
+			stream = new GZIPOutputStream(stream, BUFFER_SIZE);
+		}
+		return new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+	}
+}
@@ -0,0 +1,57 @@
+package com.project.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Zapisuje wiersze wyniku zapytania eksportu bezpośrednio z ResultSet do strumienia tekstowego,
+ * bez tworzenia obiektów modelu.
+ * Kolumny 1-5 to kolumny projektu, a przy eksporcie zadań kolumny 6-10 to kolumny zadania.
+ */
+abstract class RowWriter {
+	protected final Writer out;
+	protected final boolean includeZadania;
+
+	RowWriter(Writer out, boolean includeZadania) {
+		this.out = out;
+		this.includeZadania = includeZadania;
+	}
+
+	static RowWriter create(ExportFormat format, Writer out, boolean includeZadania) {
+		return switch (format) {
+			case CSV -> new CsvRowWriter(out, includeZadania);
+			case JSONL -> new JsonLinesRowWriter(out, includeZadania);
+		};
+	}
+
+	abstract void writeHeader() throws IOException;
+
+	abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+	abstract void finish() throws IOException;
+
+	/**
+	 * Zwraca wartość kolumny, zamieniając typy dat JDBC na java.time (format ISO-8601 w toString).
+	 */
+	protected static Object value(ResultSet rs, int column) throws SQLException {
+		Object value = rs.getObject(column);
+		if (value instanceof Timestamp timestamp) {
+			return timestamp.toLocalDateTime();
+		}
+		if (value instanceof java.sql.Date date) {
+			return date.toLocalDate();
+		}
+		return value;
+	}
+
+	/**
+	 * Zwraca wartość kolumny w postaci tekstowej lub null.
+	 */
+	protected static String text(ResultSet rs, int column) throws SQLException {
+		Object value = value(rs, column);
+		return value == null ? null : value.toString();
+	}
+}
@@ -13,6 +13,8 @@ public class Projekt {
     private String opis;
     private LocalDateTime dataCzasUtworzenia;
     private LocalDate dataOddania;
+    //true, jeśli opis zawiera tylko początek pełnego opisu (projekcja skrócona listy projektów)
+    private boolean opisSkrocony;
 
     public Projekt( String nazwa, String opis, LocalDate dataOddania) {
         this.nazwa = nazwa;
@@ -32,6 +34,11 @@ public class Projekt {
 
     }
 
+    public Projekt(Projekt other) {
+        this(other.projektId, other.nazwa, other.opis, other.dataCzasUtworzenia, other.dataOddania);
+        this.opisSkrocony = other.opisSkrocony;
+    }
+
     public Integer getProjektId() {
         return projektId;
     }
@@ -56,6 +63,14 @@ public class Projekt {
         this.opis = opis;
     }
 
+    public boolean isOpisSkrocony() {
+        return opisSkrocony;
+    }
+
+    public void setOpisSkrocony(boolean opisSkrocony) {
+        this.opisSkrocony = opisSkrocony;
+    }
+
     public LocalDateTime getDataCzasUtworzenia() {
         return dataCzasUtworzenia;
     }
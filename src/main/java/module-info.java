@@ -1,6 +1,7 @@
 module project.jfx.client {
 	exports com.project.datasource;
 	exports com.project.dao;
+	exports com.project.export;
 	exports com.project.model;
 	exports com.project.app;
 	exports com.project.controller;
@@ -16,6 +17,7 @@ module project.jfx.client {
 	requires ch.qos.logback.classic;
 	requires ch.qos.logback.core;
 	requires java.desktop;
+	requires java.management;
 
 	opens com.project.app to javafx.graphics, javafx.fxml, javafx.base, javafx.controls;
 	opens com.project.model to javafx.graphics, javafx.fxml, javafx.base, javafx.controls;
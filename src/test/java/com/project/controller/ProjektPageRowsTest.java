@@ -0,0 +1,84 @@
+package com.project.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Projekt;
+
+class ProjektPageRowsTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final int PAGE_SIZE = 5;
+
+    @Test
+    void pollerBeforeInsertCallbackLeavesOneRow() {
+        List<Projekt> rows = page(PAGE_SIZE);
+        Projekt wstawiany = new Projekt("nowy", "opis", LocalDate.of(2024, 6, 1));
+        wstawiany.setDataCzasUtworzenia(START.plusHours(1));
+        ProjektPageRows.insert(rows, wstawiany);
+        assertSame(wstawiany, rows.get(0));
+
+        //Zapis się zakończył, ale ZmianaPoller dostarczył projekt przed wywołaniem zwrotnym zapisu
+        Projekt zapisany = new Projekt(wstawiany);
+        zapisany.setProjektId(100);
+        ProjektPageRows.addDodane(rows, List.of(zapisany), PAGE_SIZE);
+        //Duplikat nie wypycha ze strony wiersza, który po zapisie nadal się na niej mieści
+        assertEquals(PAGE_SIZE + 1, rows.size());
+
+        wstawiany.setProjektId(zapisany.getProjektId());
+        ProjektPageRows.removeDuplicates(rows, wstawiany);
+        assertSame(wstawiany, rows.get(0));
+        assertEquals(List.of(100, 5, 4, 3, 2), ids(rows));
+    }
+
+    @Test
+    void insertCallbackBeforePollerLeavesOneRow() {
+        List<Projekt> rows = page(4);
+        Projekt wstawiany = new Projekt("nowy", "opis", LocalDate.of(2024, 6, 1));
+        wstawiany.setDataCzasUtworzenia(START.plusHours(1));
+        ProjektPageRows.insert(rows, wstawiany);
+
+        wstawiany.setProjektId(100);
+        ProjektPageRows.removeDuplicates(rows, wstawiany);
+        Projekt zapisany = new Projekt(wstawiany);
+        ProjektPageRows.addDodane(rows, List.of(zapisany), PAGE_SIZE);
+
+        assertSame(wstawiany, rows.get(0));
+        assertEquals(List.of(100, 4, 3, 2, 1), ids(rows));
+    }
+
+    @Test
+    void addedProjektyKeepPageOrderAndSize() {
+        List<Projekt> rows = page(5);
+        Projekt nowszy = projekt(10, START.plusMinutes(30));
+        //Ten sam czas co projekt 3 - kolejność rozstrzyga ID
+        Projekt rownoczesny = projekt(11, START.plusMinutes(3));
+        Projekt starszy = projekt(12, START.minusMinutes(1));
+
+        ProjektPageRows.addDodane(rows, List.of(starszy, rownoczesny, nowszy), PAGE_SIZE);
+
+        assertEquals(List.of(10, 5, 4, 11, 3), ids(rows));
+    }
+
+    private static List<Projekt> page(int count) {
+        List<Projekt> rows = new ArrayList<>();
+        for (int id = count; id >= 1; id--) {
+            rows.add(projekt(id, START.plusMinutes(id)));
+        }
+        return rows;
+    }
+
+    private static Projekt projekt(int id, LocalDateTime dataCzasUtworzenia) {
+        return new Projekt(id, "Projekt " + id, "opis", dataCzasUtworzenia, LocalDate.of(2024, 6, 1));
+    }
+
+    private static List<Integer> ids(List<Projekt> rows) {
+        return rows.stream().map(Projekt::getProjektId).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Projekt;
+
+class CachingProjektDAOTest {
+
+    /**
+     * DAO w pamięci; runDuringWrite jest wywoływane w trakcie zapisu, przed jego zatwierdzeniem.
+     */
+    private static final class InMemoryProjektDAO extends ProjektDAODecorator {
+        private final Map<Integer, Projekt> projekty = new ConcurrentHashMap<>();
+        private volatile Runnable runDuringWrite = () -> {};
+        private volatile CountDownLatch readBlocker;
+
+        InMemoryProjektDAO() {
+            super(null);
+        }
+
+        @Override
+        public Projekt getProjekt(Integer projektId) {
+            Projekt projekt = projekty.get(projektId);
+            CountDownLatch blocker = readBlocker;
+            if (blocker != null) {
+                await(blocker);
+            }
+            return projekt == null ? null : new Projekt(projekt);
+        }
+
+        @Override
+        public void setProjekt(Projekt projekt) {
+            runDuringWrite.run();
+            projekty.put(projekt.getProjektId(), new Projekt(projekt));
+        }
+
+        @Override
+        public void deleteProjekt(Integer projektId) {
+            runDuringWrite.run();
+            projekty.remove(projektId);
+        }
+    }
+
+    @Test
+    void readDuringUpdateDoesNotCacheOldValue() throws InterruptedException {
+        InMemoryProjektDAO store = new InMemoryProjektDAO();
+        store.projekty.put(1, projekt("stara"));
+        CachingProjektDAO cachingDAO = new CachingProjektDAO(store);
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch writeDone = new CountDownLatch(1);
+        Thread[] reader = new Thread[1];
+        store.runDuringWrite = () -> {
+            //Odczyt pobiera wartość sprzed zatwierdzenia zapisu, ale zapisuje ją w pamięci dopiero po nim
+            store.readBlocker = writeDone;
+            reader[0] = Thread.ofPlatform().start(() -> {
+                readStarted.countDown();
+                cachingDAO.getProjekt(1);
+            });
+            await(readStarted);
+            store.runDuringWrite = () -> {};
+        };
+
+        cachingDAO.setProjekt(projekt("nowa"));
+        store.readBlocker = null;
+        writeDone.countDown();
+        reader[0].join();
+
+        assertEquals("nowa", cachingDAO.getProjekt(1).getNazwa());
+    }
+
+    @Test
+    void readDuringDeleteDoesNotCacheDeletedProjekt() throws InterruptedException {
+        InMemoryProjektDAO store = new InMemoryProjektDAO();
+        store.projekty.put(1, projekt("usuwany"));
+        CachingProjektDAO cachingDAO = new CachingProjektDAO(store);
+        store.runDuringWrite = () -> {
+            Thread reader = Thread.ofPlatform().start(() -> cachingDAO.getProjekt(1));
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        };
+
+        cachingDAO.deleteProjekt(1);
+
+        assertNull(cachingDAO.getProjekt(1));
+    }
+
+    @Test
+    void failedUpdateLeavesNoEntry() {
+        InMemoryProjektDAO store = new InMemoryProjektDAO();
+        store.projekty.put(1, projekt("stara"));
+        CachingProjektDAO cachingDAO = new CachingProjektDAO(store);
+        cachingDAO.getProjekt(1);
+        store.runDuringWrite = () -> {
+            store.projekty.put(1, projekt("zmieniona z pominięciem pamięci"));
+            throw new IllegalStateException("błąd zapisu");
+        };
+
+        try {
+            cachingDAO.setProjekt(projekt("nowa"));
+        } catch (IllegalStateException expected) {
+            //zapis się nie powiódł
+        }
+
+        assertEquals("zmieniona z pominięciem pamięci", cachingDAO.getProjekt(1).getNazwa());
+    }
+
+    private static Projekt projekt(String nazwa) {
+        return new Projekt(1, nazwa, null, null, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Przekroczono czas oczekiwania");
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
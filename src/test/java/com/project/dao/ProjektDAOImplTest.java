@@ -0,0 +1,186 @@
+package com.project.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.project.datasource.DataSource;
+import com.project.datasource.DataSourceConfig;
+import com.project.datasource.DbInitializer;
+import com.project.model.Projekt;
+
+/**
+ * Sprawdza stronicowanie keyset (seekProjekty) w bazie w pamięci względem kolejności
+ * (dataczas_utworzenia DESC, projekt_id DESC), również dla projektów o tym samym czasie utworzenia.
+ */
+class ProjektDAOImplTest {
+    private static final int COUNT = 23;
+    private static final int LIMIT = 5;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final LocalDate ODDANIE = LocalDate.of(2024, 6, 1);
+
+    private static ProjektDAOImpl projektDAO;
+    //Wszystkie projekty w kolejności stron
+    private static List<Projekt> expected;
+
+    @BeforeAll
+    static void createProjekty() {
+        System.setProperty(DataSourceConfig.URL, "jdbc:hsqldb:mem:projekt-dao-test;sql.syntax_pgs=true");
+        DbInitializer.init();
+        projektDAO = new ProjektDAOImpl();
+        List<Projekt> projekty = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            Projekt projekt = new Projekt(i % 2 == 0 ? "Projekt parzysty " + i : "Projekt nieparzysty " + i, "opis",
+                    i % 3 == 0 ? ODDANIE : ODDANIE.plusDays(1));
+            //Po cztery projekty o tym samym czasie utworzenia - kolejność rozstrzyga projekt_id
+            projekt.setDataCzasUtworzenia(START.plusMinutes(i / 4));
+            projekty.add(projekt);
+        }
+        projektDAO.setProjekty(projekty);
+        expected = projekty.stream()
+                .sorted(Comparator.comparing(Projekt::getDataCzasUtworzenia)
+                        .thenComparing(Projekt::getProjektId).reversed())
+                .toList();
+    }
+
+    @AfterAll
+    static void closeDataSource() {
+        DataSource.close();
+        System.clearProperty(DataSourceConfig.URL);
+    }
+
+    @Test
+    void nextPagesWalkWholeOrderAcrossTies() {
+        List<Integer> ids = new ArrayList<>();
+        CursorPage<Projekt> page = projektDAO.seekProjekty(ProjektFilter.all(), null, PageDirection.NEXT, LIMIT);
+        assertFalse(page.hasPrevious());
+        while (true) {
+            assertTrue(!page.getRows().isEmpty() && page.getRows().size() <= LIMIT);
+            ids.addAll(ids(page.getRows()));
+            if (!page.hasNext()) {
+                break;
+            }
+            page = projektDAO.seekProjekty(ProjektFilter.all(), page.getLastCursor(), PageDirection.NEXT, LIMIT);
+            assertTrue(page.hasPrevious());
+        }
+        assertEquals(ids(expected), ids);
+    }
+
+    @Test
+    void previousPagesWalkBackToFirstPage() {
+        CursorPage<Projekt> page = projektDAO.seekProjekty(ProjektFilter.all(), null, PageDirection.PREVIOUS, LIMIT);
+        assertEquals(ids(expected.subList(COUNT - LIMIT, COUNT)), ids(page.getRows()));
+        assertFalse(page.hasNext());
+        assertTrue(page.hasPrevious());
+        int from = COUNT - LIMIT;
+        while (page.hasPrevious()) {
+            page = projektDAO.seekProjekty(ProjektFilter.all(), page.getFirstCursor(), PageDirection.PREVIOUS, LIMIT);
+            assertTrue(page.hasNext());
+            from = Math.max(from - LIMIT, 0);
+            assertEquals(ids(expected.subList(from, from + LIMIT)), ids(page.getRows()));
+        }
+        assertEquals(0, from);
+    }
+
+    @Test
+    void previousStepOntoFirstPageReturnsFullFirstPage() {
+        //Przed kursorem są tylko trzy projekty - zamiast krótkiej strony zwracana jest pełna pierwsza
+        CursorPage<Projekt> page = projektDAO.seekProjekty(ProjektFilter.all(), PageCursor.of(expected.get(3)),
+                PageDirection.PREVIOUS, LIMIT);
+        assertEquals(ids(expected.subList(0, LIMIT)), ids(page.getRows()));
+        assertFalse(page.hasPrevious());
+        assertTrue(page.hasNext());
+        assertEquals(PageCursor.of(expected.get(0)), page.getFirstCursor());
+        assertEquals(PageCursor.of(expected.get(LIMIT - 1)), page.getLastCursor());
+    }
+
+    @Test
+    void previousStepExactlyOntoFirstPage() {
+        CursorPage<Projekt> page = projektDAO.seekProjekty(ProjektFilter.all(), PageCursor.of(expected.get(LIMIT)),
+                PageDirection.PREVIOUS, LIMIT);
+        assertEquals(ids(expected.subList(0, LIMIT)), ids(page.getRows()));
+        assertFalse(page.hasPrevious());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    void cursorInsideTieContinuesByProjektId() {
+        //expected.get(1) ma ten sam czas utworzenia co sąsiednie projekty
+        assertEquals(expected.get(1).getDataCzasUtworzenia(), expected.get(2).getDataCzasUtworzenia());
+        CursorPage<Projekt> next = projektDAO.seekProjekty(ProjektFilter.all(), PageCursor.of(expected.get(1)),
+                PageDirection.NEXT, LIMIT);
+        assertEquals(ids(expected.subList(2, 2 + LIMIT)), ids(next.getRows()));
+
+        CursorPage<Projekt> previous = projektDAO.seekProjekty(ProjektFilter.all(), PageCursor.of(expected.get(12)),
+                PageDirection.PREVIOUS, LIMIT);
+        assertEquals(ids(expected.subList(12 - LIMIT, 12)), ids(previous.getRows()));
+        assertTrue(previous.hasPrevious());
+        assertTrue(previous.hasNext());
+    }
+
+    @Test
+    void nextFromLastRowReturnsEmptyPage() {
+        CursorPage<Projekt> page = projektDAO.seekProjekty(ProjektFilter.all(), PageCursor.of(expected.get(COUNT - 1)),
+                PageDirection.NEXT, LIMIT);
+        assertTrue(page.getRows().isEmpty());
+        assertFalse(page.hasNext());
+        assertTrue(page.hasPrevious());
+        assertNull(page.getFirstCursor());
+        assertNull(page.getLastCursor());
+    }
+
+    @Test
+    void filteredPagesFollowFilter() {
+        ProjektFilter nazwa = ProjektFilter.nazwaLike("nieparzysty");
+        assertEquals(ids(expected.stream().filter(p -> p.getNazwa().contains("nieparzysty")).toList()),
+                seekAll(nazwa));
+        ProjektFilter data = ProjektFilter.dataOddaniaIs(ODDANIE);
+        assertEquals(ids(expected.stream().filter(p -> p.getDataOddania().equals(ODDANIE)).toList()),
+                seekAll(data));
+
+        CursorPage<Projekt> empty = projektDAO.seekProjekty(ProjektFilter.nazwaLike("brak"), null,
+                PageDirection.PREVIOUS, LIMIT);
+        assertTrue(empty.getRows().isEmpty());
+        assertFalse(empty.hasNext());
+        assertFalse(empty.hasPrevious());
+    }
+
+    @Test
+    void firstPageWithTotalMatchesFirstSeekPage() {
+        PageResult<Projekt> page = projektDAO.getProjektyPage(ProjektFilter.all(), 0, LIMIT);
+        assertEquals(COUNT, page.getTotal());
+        assertTrue(page.hasNext());
+        assertEquals(ids(projektDAO.seekProjektySummary(ProjektFilter.all(), null, PageDirection.NEXT, LIMIT)
+                .getRows()), ids(page.getRows()));
+
+        PageResult<Projekt> empty = projektDAO.getProjektyPage(ProjektFilter.nazwaLike("brak"), 0, LIMIT);
+        assertEquals(0, empty.getTotal());
+        assertFalse(empty.hasNext());
+    }
+
+    private static List<Integer> seekAll(ProjektFilter filter) {
+        List<Integer> ids = new ArrayList<>();
+        CursorPage<Projekt> page = projektDAO.seekProjekty(filter, null, PageDirection.NEXT, LIMIT);
+        ids.addAll(ids(page.getRows()));
+        while (page.hasNext()) {
+            page = projektDAO.seekProjekty(filter, page.getLastCursor(), PageDirection.NEXT, LIMIT);
+            ids.addAll(ids(page.getRows()));
+        }
+        return ids;
+    }
+
+    private static List<Integer> ids(List<Projekt> projekty) {
+        return projekty.stream().map(Projekt::getProjektId).toList();
+    }
+}
@@ -0,0 +1,190 @@
+package com.project.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.project.datasource.DataSource;
+import com.project.datasource.DataSourceConfig;
+import com.project.datasource.DbInitializer;
+import com.project.model.Projekt;
+
+/**
+ * Porównuje wyniki wyszukiwania przez indeks trigramowy z zapytaniami LIKE w bazie w pamięci.
+ */
+class SearchIndexProjektDAOTest {
+    private static final String[] SLOWA = {"alfa", "beta", "gamma", "delta", "Gdańsk", "łódź", "rabat 50%_"};
+    private static final List<String> FRAGMENTY = List.of("alfa", "eta", "ańsk", "łódź", "kt 1", "a 1", "ekt",
+            "Projekt gamma 12", "zzz", "bat 50");
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private static ProjektDAOImpl projektDAO;
+
+    /**
+     * Zlicza zapytania po nazwie, które dotarły do bazy.
+     */
+    private static final class CountingProjektDAO extends ProjektDAODecorator {
+        private final AtomicInteger nazwaQueries = new AtomicInteger();
+
+        CountingProjektDAO(ProjektDAO delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public List<Projekt> getProjektyWhereNazwaLike(String nazwa, Integer offset, Integer limit) {
+            nazwaQueries.incrementAndGet();
+            return delegate.getProjektyWhereNazwaLike(nazwa, offset, limit);
+        }
+
+        @Override
+        public int getRowsNumberWhereNazwaLike(String nazwa) {
+            nazwaQueries.incrementAndGet();
+            return delegate.getRowsNumberWhereNazwaLike(nazwa);
+        }
+
+        @Override
+        public PageResult<Projekt> getProjektyPage(ProjektFilter filter, int offset, int limit) {
+            nazwaQueries.incrementAndGet();
+            return delegate.getProjektyPage(filter, offset, limit);
+        }
+
+        @Override
+        public List<Projekt> getProjektySummaryPage(ProjektFilter filter, int offset, int limit) {
+            nazwaQueries.incrementAndGet();
+            return delegate.getProjektySummaryPage(filter, offset, limit);
+        }
+
+        @Override
+        public CursorPage<Projekt> seekProjekty(ProjektFilter filter, PageCursor cursor, PageDirection direction,
+                                                int limit) {
+            nazwaQueries.incrementAndGet();
+            return delegate.seekProjekty(filter, cursor, direction, limit);
+        }
+    }
+
+    @BeforeAll
+    static void createProjekty() {
+        System.setProperty(DataSourceConfig.URL, "jdbc:hsqldb:mem:search-index-test;sql.syntax_pgs=true");
+        DbInitializer.init();
+        projektDAO = new ProjektDAOImpl();
+        List<Projekt> projekty = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Projekt projekt = new Projekt("Projekt " + SLOWA[i % SLOWA.length] + " " + (i % 13), "opis", LocalDate.now());
+            //Co ósmy projekt ma ten sam czas utworzenia - kolejność rozstrzyga projekt_id
+            projekt.setDataCzasUtworzenia(START.plusSeconds(i / 8));
+            projekty.add(projekt);
+        }
+        projektDAO.setProjekty(projekty);
+    }
+
+    @AfterAll
+    static void closeDataSource() {
+        DataSource.close();
+        System.clearProperty(DataSourceConfig.URL);
+    }
+
+    @Test
+    void indexResultsMatchSqlLike() {
+        CountingProjektDAO counting = new CountingProjektDAO(projektDAO);
+        SearchIndexProjektDAO searchDAO = new SearchIndexProjektDAO(counting);
+        searchDAO.rebuildIndex();
+        assertTrue(searchDAO.isIndexReady());
+
+        for (String fragment : FRAGMENTY) {
+            assertSameResults(searchDAO, fragment);
+        }
+        assertEquals(0, counting.nazwaQueries.get());
+    }
+
+    @Test
+    void shortAndWildcardFragmentsAreQueriedInDatabase() {
+        CountingProjektDAO counting = new CountingProjektDAO(projektDAO);
+        SearchIndexProjektDAO searchDAO = new SearchIndexProjektDAO(counting);
+        searchDAO.rebuildIndex();
+
+        for (String fragment : List.of("a", "ja", "al%a", "a_f")) {
+            int before = counting.nazwaQueries.get();
+            assertEquals(projektDAO.getRowsNumberWhereNazwaLike(fragment), searchDAO.getRowsNumberWhereNazwaLike(fragment));
+            assertEquals(ids(projektDAO.getProjektyWhereNazwaLike(fragment, 2, 5)),
+                    ids(searchDAO.getProjektyWhereNazwaLike(fragment, 2, 5)));
+            assertEquals(before + 2, counting.nazwaQueries.get(), fragment);
+        }
+    }
+
+    @Test
+    void changesDuringRebuildAreAppliedToNewIndex() {
+        Projekt zmieniany = projektDAO.getProjektyWhereNazwaLike("alfa", 0, 1).get(0);
+        Projekt usuwany = projektDAO.getProjektyWhereNazwaLike("beta", 0, 1).get(0);
+        Projekt dodany = new Projekt("dodany qxz w trakcie przebudowy", "opis", LocalDate.now());
+        SearchIndexProjektDAO searchDAO = new SearchIndexProjektDAO(projektDAO) {
+            @Override
+            NazwaSearchIndex load() {
+                NazwaSearchIndex fresh = super.load();
+                //Zapisy po odczycie tabeli - nowy indeks ich nie zawiera
+                setProjekt(dodany);
+                Projekt zmieniony = projektDAO.getProjekt(zmieniany.getProjektId());
+                zmieniony.setNazwa("zmieniony qxz");
+                setProjekt(zmieniony);
+                deleteProjekt(usuwany.getProjektId());
+                return fresh;
+            }
+        };
+        searchDAO.rebuildIndex();
+
+        assertEquals(2, searchDAO.getRowsNumberWhereNazwaLike("qxz"));
+        for (String fragment : List.of("qxz", "alfa", "beta")) {
+            assertSameResults(searchDAO, fragment);
+        }
+    }
+
+    private static void assertSameResults(SearchIndexProjektDAO searchDAO, String fragment) {
+        ProjektFilter filter = ProjektFilter.nazwaLike(fragment);
+        assertEquals(projektDAO.getRowsNumberWhereNazwaLike(fragment), searchDAO.getRowsNumberWhereNazwaLike(fragment),
+                fragment);
+        assertEquals(ids(projektDAO.getProjektyWhereNazwaLike(fragment, null, null)),
+                ids(searchDAO.getProjektyWhereNazwaLike(fragment, null, null)), fragment);
+        assertEquals(ids(projektDAO.getProjektyWhereNazwaLike(fragment, 3, 7)),
+                ids(searchDAO.getProjektyWhereNazwaLike(fragment, 3, 7)), fragment);
+        PageResult<Projekt> expectedPage = projektDAO.getProjektyPage(filter, 5, 10);
+        PageResult<Projekt> page = searchDAO.getProjektyPage(filter, 5, 10);
+        assertEquals(ids(expectedPage.getRows()), ids(page.getRows()), fragment);
+        assertEquals(expectedPage.getTotal(), page.getTotal(), fragment);
+        assertEquals(expectedPage.hasNext(), page.hasNext(), fragment);
+        assertEquals(ids(projektDAO.getProjektySummaryPage(filter, 4, 6)),
+                ids(searchDAO.getProjektySummaryPage(filter, 4, 6)), fragment);
+        for (PageDirection direction : PageDirection.values()) {
+            assertEquals(seekAll(projektDAO, filter, direction), seekAll(searchDAO, filter, direction),
+                    fragment + " " + direction);
+        }
+    }
+
+    /**
+     * Przechodzi wszystkie strony od pierwszej (NEXT) lub od ostatniej (PREVIOUS).
+     */
+    private static List<Integer> seekAll(ProjektDAO dao, ProjektFilter filter, PageDirection direction) {
+        List<Integer> ids = new ArrayList<>();
+        CursorPage<Projekt> page = dao.seekProjekty(filter, null, direction, 7);
+        while (true) {
+            ids.addAll(ids(page.getRows()));
+            boolean more = direction == PageDirection.NEXT ? page.hasNext() : page.hasPrevious();
+            if (!more) {
+                return ids;
+            }
+            PageCursor cursor = direction == PageDirection.NEXT ? page.getLastCursor() : page.getFirstCursor();
+            page = dao.seekProjekty(filter, cursor, direction, 7);
+        }
+    }
+
+    private static List<Integer> ids(List<Projekt> projekty) {
+        return projekty.stream().map(Projekt::getProjektId).toList();
+    }
+}
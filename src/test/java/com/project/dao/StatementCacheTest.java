@@ -0,0 +1,50 @@
+package com.project.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+class StatementCacheTest {
+    private static final String URL = "jdbc:hsqldb:mem:statement-cache-test";
+    private static final String QUERY = "VALUES (1)";
+
+    @Test
+    void reusesStatementsOfOneConnection() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        try (Connection connect = DriverManager.getConnection(URL, "SA", "")) {
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement preparedStmt = cache.prepare(connect, QUERY)) {
+                    preparedStmt.executeQuery().close();
+                }
+            }
+        }
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void releasesStatementsOfClosedConnections() throws SQLException {
+        StatementCache cache = new StatementCache(4);
+        PreparedStatement cached;
+        Connection first = DriverManager.getConnection(URL, "SA", "");
+        try (PreparedStatement preparedStmt = cache.prepare(first, QUERY)) {
+            cached = preparedStmt.unwrap(PreparedStatement.class);
+        }
+        first.close();
+        try (Connection second = DriverManager.getConnection(URL, "SA", "")) {
+            try (PreparedStatement preparedStmt = cache.prepare(second, QUERY)) {
+                preparedStmt.executeQuery().close();
+            }
+            assertTrue(cached.isClosed());
+            assertEquals(1, cache.getStats().getSize());
+        }
+        assertEquals(0, cache.getStats().getSize());
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.project.model.Projekt;
+
+class WriteBehindProjektDAOTest {
+    private static final String FAILING = "błędny";
+    //Grupa jest zatwierdzana po zebraniu maxRows zapisów - czas oczekiwania nie może jej podzielić
+    private static final long MAX_DELAY_MS = 60_000;
+
+    /**
+     * DAO w pamięci zapamiętujące zapisywane grupy; zapis projektu o nazwie FAILING się nie udaje.
+     */
+    private static final class RecordingProjektDAO extends ProjektDAODecorator {
+        private final Map<Integer, Projekt> projekty = new ConcurrentHashMap<>();
+        private final List<List<Projekt>> groups = new CopyOnWriteArrayList<>();
+        private final AtomicInteger nextId = new AtomicInteger(100);
+
+        RecordingProjektDAO() {
+            super(null);
+        }
+
+        @Override
+        public void setProjekty(Collection<Projekt> group) {
+            groups.add(List.copyOf(group));
+            if (group.stream().anyMatch(projekt -> FAILING.equals(projekt.getNazwa()))) {
+                throw new IllegalStateException("błąd zapisu grupy");
+            }
+            group.forEach(this::store);
+        }
+
+        @Override
+        public void setProjekt(Projekt projekt) {
+            if (FAILING.equals(projekt.getNazwa())) {
+                throw new IllegalStateException("błąd zapisu projektu");
+            }
+            store(projekt);
+        }
+
+        private void store(Projekt projekt) {
+            if (projekt.getProjektId() == null) {
+                projekt.setProjektId(nextId.getAndIncrement());
+                projekt.setDataCzasUtworzenia(LocalDateTime.now());
+            }
+            projekty.put(projekt.getProjektId(), new Projekt(projekt));
+        }
+    }
+
+    @Test
+    void repeatedUpdatesOfOneProjektAreWrittenOnce() {
+        RecordingProjektDAO store = new RecordingProjektDAO();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try (WriteBehindProjektDAO writeBehind = new WriteBehindProjektDAO(store, 10, MAX_DELAY_MS, 3)) {
+            for (String nazwa : List.of("pierwsza", "druga", "trzecia")) {
+                futures.add(writeBehind.submitProjekt(new Projekt(1, nazwa, "opis", null, null)));
+            }
+            futures.forEach(CompletableFuture::join);
+
+            assertEquals(1, store.groups.size());
+            assertEquals(1, store.groups.get(0).size());
+            assertEquals("trzecia", store.projekty.get(1).getNazwa());
+            assertEquals(3, writeBehind.getSubmittedCount());
+            assertEquals(1, writeBehind.getWrittenCount());
+        }
+    }
+
+    @Test
+    void insertedProjektReceivesGeneratedId() {
+        RecordingProjektDAO store = new RecordingProjektDAO();
+        Projekt projekt = new Projekt("nowy", "opis", null);
+        try (WriteBehindProjektDAO writeBehind = new WriteBehindProjektDAO(store, 10, MAX_DELAY_MS, 1)) {
+            writeBehind.setProjekt(projekt);
+        }
+
+        assertNotNull(projekt.getProjektId());
+        assertNotNull(projekt.getDataCzasUtworzenia());
+        assertEquals("nowy", store.projekty.get(projekt.getProjektId()).getNazwa());
+    }
+
+    @Test
+    void failedGroupFallsBackToSingleWrites() {
+        RecordingProjektDAO store = new RecordingProjektDAO();
+        try (WriteBehindProjektDAO writeBehind = new WriteBehindProjektDAO(store, 10, MAX_DELAY_MS, 2)) {
+            CompletableFuture<Void> ok = writeBehind.submitProjekt(new Projekt(1, "poprawny", "opis", null, null));
+            CompletableFuture<Void> failing = writeBehind.submitProjekt(new Projekt(2, FAILING, "opis", null, null));
+
+            ok.join();
+            CompletionException error = assertThrows(CompletionException.class, failing::join);
+            assertTrue(error.getCause() instanceof IllegalStateException);
+            assertEquals("poprawny", store.projekty.get(1).getNazwa());
+            assertFalse(store.projekty.containsKey(2));
+            assertEquals(1, writeBehind.getWrittenCount());
+        }
+    }
+}
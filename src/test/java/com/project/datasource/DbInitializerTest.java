@@ -0,0 +1,68 @@
+package com.project.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class DbInitializerTest {
+
+	@BeforeAll
+	static void useMemoryDatabase() {
+		System.setProperty(DataSourceConfig.URL, "jdbc:hsqldb:mem:db-initializer-test;sql.syntax_pgs=true");
+	}
+
+	@AfterAll
+	static void closeDataSource() {
+		DataSource.close();
+		System.clearProperty(DataSourceConfig.URL);
+	}
+
+	@Test
+	void migrationsApplyOnceAndRerunWhenChanged() throws SQLException {
+		DbInitializer.Timings first = DbInitializer.init();
+		assertEquals(4, first.migrationsApplied());
+		DbInitializer.Timings second = DbInitializer.init();
+		assertEquals(0, second.migrationsApplied());
+
+		//Migracja o zmienionej treści jest wykonywana ponownie na istniejących obiektach
+		try (Connection connect = DataSource.getConnection();
+			 Statement stmt = connect.createStatement()) {
+			stmt.executeUpdate("UPDATE schema_version SET checksum = 'zmieniona' WHERE version >= 3");
+			connect.commit();
+		}
+		assertEquals(2, DbInitializer.init().migrationsApplied());
+
+		//Wyzwalacze zapisują zmiany w dzienniku
+		try (Connection connect = DataSource.getConnection();
+			 Statement stmt = connect.createStatement()) {
+			stmt.executeUpdate("INSERT INTO projekt(nazwa) VALUES ('test')");
+			connect.commit();
+			try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM zmiana WHERE tabela = 'P' AND operacja = 'I'")) {
+				rs.next();
+				assertEquals(1, rs.getInt(1));
+			}
+			//Czas utworzenia jest kluczem stronicowania - nie może być pusty
+			assertThrows(SQLException.class,
+					() -> stmt.executeUpdate("INSERT INTO projekt(nazwa, dataczas_utworzenia) VALUES ('test', NULL)"));
+			connect.rollback();
+		}
+	}
+
+	@Test
+	void splitsMigrationIntoStatements() {
+		assertEquals(List.of("CREATE TABLE a(x INTEGER)", "CREATE INDEX a_idx ON a(x)"),
+				DbInitializer.statements("""
+					CREATE TABLE a(x INTEGER);
+					CREATE INDEX a_idx ON a(x);
+					"""));
+	}
+}